@@ -0,0 +1,174 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Closed-loop load generator for /api/sign-up and /api/login: keeps <concurrency> requests in flight for
+// <seconds> and prints throughput and latency percentiles. JDK only, run with the single-file launcher:
+//   java load/LoadComparison.java http://localhost:8080 login 256 30
+public class LoadComparison {
+
+    private static final String PASSWORD = "aB2defgh9";
+
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    private final String baseUrl;
+    private final AtomicLong sequence = new AtomicLong();
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+
+    private LoadComparison(String baseUrl) {
+        this.baseUrl = baseUrl;
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 4) {
+            System.err.println("usage: LoadComparison <base-url> <sign-up|login> <concurrency> <seconds>");
+            System.exit(2);
+        }
+        LoadComparison load = new LoadComparison(args[0]);
+        String scenario = args[1];
+        int concurrency = Integer.parseInt(args[2]);
+        long seconds = Long.parseLong(args[3]);
+
+        List<String> tokens = new ArrayList<>();
+        if ("login".equals(scenario)) {
+            for (int i = 0; i < Math.min(concurrency, 64); i++) {
+                String body = load.signUp().join().body();
+                tokens.add(body.replaceAll(".*\"token\":\"([^\"]+)\".*", "$1"));
+            }
+        }
+
+        // Warm-up at the same concurrency, then the measured run
+        load.run(scenario, tokens, concurrency, Math.max(5, seconds / 3));
+        Result result = load.run(scenario, tokens, concurrency, seconds);
+        System.out.println(result.describe(scenario, concurrency));
+    }
+
+    private Result run(String scenario, List<String> tokens, int concurrency, long seconds) {
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        Worker[] workers = new Worker[concurrency];
+        CompletableFuture<?>[] done = new CompletableFuture<?>[concurrency];
+        for (int i = 0; i < concurrency; i++) {
+            workers[i] = new Worker(scenario, tokens.isEmpty() ? null : tokens.get(i % tokens.size()), deadline);
+            done[i] = workers[i].start();
+        }
+        CompletableFuture.allOf(done).join();
+        return Result.merge(workers, seconds);
+    }
+
+    private CompletableFuture<HttpResponse<String>> signUp() {
+        String email = "load" + runId + sequence.incrementAndGet() + "@domain.cl";
+        String body = "{\"name\":\"Load Test\",\"email\":\"" + email + "\",\"password\":\"" + PASSWORD + "\","
+            + "\"phones\":[{\"number\":87650009,\"citycode\":7,\"contrycode\":\"25\"}]}";
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/sign-up"))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(body))
+            .build();
+        return client.sendAsync(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private CompletableFuture<HttpResponse<String>> login(String token) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/login"))
+            .header("Authorization", "Bearer " + token)
+            .GET()
+            .build();
+        return client.sendAsync(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private final class Worker {
+        private final String scenario;
+        private final String token;
+        private final long deadline;
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+        private long[] latencies = new long[1024];
+        private int count;
+        private int errors;
+        private int overloaded;
+
+        private Worker(String scenario, String token, long deadline) {
+            this.scenario = scenario;
+            this.token = token;
+            this.deadline = deadline;
+        }
+
+        private CompletableFuture<Void> start() {
+            next();
+            return done;
+        }
+
+        private void next() {
+            if (System.nanoTime() >= deadline) {
+                done.complete(null);
+                return;
+            }
+            long start = System.nanoTime();
+            ("login".equals(scenario) ? login(token) : signUp()).whenComplete((response, failure) -> {
+                if (failure == null && response.statusCode() == 503) {
+                    overloaded++;
+                } else if (failure != null || response.statusCode() >= 300) {
+                    errors++;
+                } else {
+                    if (count == latencies.length) {
+                        latencies = Arrays.copyOf(latencies, count * 2);
+                    }
+                    latencies[count++] = System.nanoTime() - start;
+                }
+                next();
+            });
+        }
+    }
+
+    private static final class Result {
+        private final long[] latencies;
+        private final long errors;
+        private final long overloaded;
+        private final long seconds;
+
+        private Result(long[] latencies, long errors, long overloaded, long seconds) {
+            this.latencies = latencies;
+            this.errors = errors;
+            this.overloaded = overloaded;
+            this.seconds = seconds;
+        }
+
+        private static Result merge(Worker[] workers, long seconds) {
+            int total = 0;
+            long errors = 0;
+            long overloaded = 0;
+            for (Worker worker : workers) {
+                total += worker.count;
+                errors += worker.errors;
+                overloaded += worker.overloaded;
+            }
+            long[] all = new long[total];
+            int offset = 0;
+            for (Worker worker : workers) {
+                System.arraycopy(worker.latencies, 0, all, offset, worker.count);
+                offset += worker.count;
+            }
+            Arrays.sort(all);
+            return new Result(all, errors, overloaded, seconds);
+        }
+
+        private double percentileMillis(double percentile) {
+            if (latencies.length == 0) {
+                return Double.NaN;
+            }
+            int index = (int) Math.ceil(percentile / 100 * latencies.length) - 1;
+            return latencies[Math.max(0, index)] / 1_000_000.0;
+        }
+
+        private String describe(String scenario, int concurrency) {
+            // Throughput and percentiles cover successful responses; 503s are the hashing pool shedding load
+            return String.format("%s concurrency=%d ok=%d overloaded=%d errors=%d throughput=%.1f/s p50=%.1fms "
+                    + "p99=%.1fms max=%.1fms",
+                scenario, concurrency, latencies.length, overloaded, errors, (double) latencies.length / seconds,
+                percentileMillis(50), percentileMillis(99), percentileMillis(100));
+        }
+    }
+}
@@ -0,0 +1,34 @@
+#!/usr/bin/env bash
+# Runs the same sign-up and login load against the servlet stack and the reactive profile and prints
+# throughput and latency percentiles for each. Usage: load/compare.sh [concurrency] [seconds]
+set -euo pipefail
+
+CONCURRENCY=${1:-256}
+SECONDS_PER_RUN=${2:-30}
+PORT=${PORT:-8080}
+cd "$(dirname "$0")/.."
+
+./gradlew -q bootJar
+JAR=$(ls build/libs/*.jar | grep -v plain | head -1)
+
+# Same settings for both stacks: low BCrypt cost so the web stack rather than hashing dominates,
+# no rate limiting and no debug logging
+APP_ARGS=(--server.port="$PORT" --security.password.strength=4 --users.rate-limit.enabled=false
+  --spring.jpa.show-sql=false --logging.level.com.example.userservice=INFO
+  --logging.level.org.springframework.security=INFO)
+
+run_stack() {
+  local name=$1; shift
+  java -jar "$JAR" "${APP_ARGS[@]}" "$@" > "build/load-$name.log" 2>&1 &
+  local pid=$!
+  trap "kill $pid 2>/dev/null || true" EXIT
+  until curl -sf "http://localhost:$PORT/actuator/health" > /dev/null; do sleep 1; done
+  for scenario in sign-up login; do
+    echo "[$name] $(java load/LoadComparison.java "http://localhost:$PORT" "$scenario" "$CONCURRENCY" "$SECONDS_PER_RUN")"
+  done
+  kill "$pid"; wait "$pid" 2>/dev/null || true
+  trap - EXIT
+}
+
+run_stack servlet
+run_stack reactive --spring.profiles.active=reactive
@@ -0,0 +1,34 @@
+package com.example.userservice.config;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PasswordEncoderBenchmark {
+
+    @Param({"10", "12"})
+    public int strength;
+
+    private PasswordEncoder passwordEncoder;
+
+    @Setup
+    public void setUp() {
+        PasswordEncoderConfig passwordEncoderConfig = new PasswordEncoderConfig();
+        ReflectionTestUtils.setField(passwordEncoderConfig, "strength", strength);
+        passwordEncoder = passwordEncoderConfig.passwordEncoder();
+    }
+
+    @Benchmark
+    public String encode() {
+        return passwordEncoder.encode("a2asfGfdfdf4");
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.userservice.dto;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class UserResponseSerializationBenchmark {
+
+    private ObjectMapper objectMapper;
+    private UserResponse response;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        response = new UserResponse();
+        response.setId(UUID.randomUUID());
+        response.setCreated(LocalDateTime.now());
+        response.setLastLogin(LocalDateTime.now());
+        response.setToken("eyJhbGciOiJIUzUxMiJ9.eyJzdWIiOiJqdWFuQGRvbWFpbi5jbCJ9.signature");
+        response.setIsActive(true);
+        response.setName("Juan Perez");
+        response.setEmail("juan@domain.cl");
+        response.setPassword("$2a$10$encrypted");
+        response.setPhones(Arrays.asList(new PhoneDto(87650009L, 7, "25")));
+    }
+
+    @Benchmark
+    public byte[] writeValueAsBytes() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(response);
+    }
+}
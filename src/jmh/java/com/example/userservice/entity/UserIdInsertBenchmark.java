@@ -0,0 +1,113 @@
+package com.example.userservice.entity;
+
+import com.example.userservice.util.UserIdStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Comparator;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+// Sustained inserts into a file-backed H2 table keyed like users (BINARY(16) primary key) that already holds
+// preloadRows rows. Each invocation inserts and commits one JDBC batch. Space is printed after the preload and
+// at the end of the trial: live table and index bytes, and the size of the store file, which also counts the
+// pages rewritten by inserts that land in the middle of the primary-key index.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class UserIdInsertBenchmark {
+
+    private static final int BATCH = 1000;
+
+    @Param({"random", "time-ordered"})
+    private String strategy;
+
+    @Param({"1000000"})
+    private int preloadRows;
+
+    private UserIdStrategy ids;
+    private Path directory;
+    private Connection connection;
+    private PreparedStatement insert;
+    private long sequence;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        ids = UserIdStrategy.fromProperty(strategy);
+        directory = Files.createTempDirectory("user-id-benchmark");
+        connection = DriverManager.getConnection("jdbc:h2:file:" + directory.resolve("users") + ";CACHE_SIZE=65536",
+            "sa", "");
+        connection.setAutoCommit(false);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("create table users (id binary(16) primary key, email varchar(255) not null)");
+        }
+        insert = connection.prepareStatement("insert into users (id, email) values (?, ?)");
+        for (int loaded = 0; loaded < preloadRows; loaded += BATCH) {
+            insertBatch();
+        }
+        printSpace("preload");
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void insert() throws SQLException {
+        insertBatch();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        printSpace("trial");
+        insert.close();
+        connection.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    private void insertBatch() throws SQLException {
+        for (int i = 0; i < BATCH; i++) {
+            insert.setBytes(1, toBytes(ids.get()));
+            insert.setString(2, "user" + sequence++ + "@domain.cl");
+            insert.addBatch();
+        }
+        insert.executeBatch();
+        connection.commit();
+    }
+
+    private void printSpace(String phase) throws Exception {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("checkpoint sync");
+            try (ResultSet result = statement.executeQuery("call disk_space_used('USERS')")) {
+                result.next();
+                System.out.printf("%n[%s] after %s, %d rows: live %d KB, store file %d KB%n", strategy, phase,
+                    sequence, result.getLong(1) / 1024, Files.size(directory.resolve("users.mv.db")) / 1024);
+            }
+        }
+    }
+
+    private static byte[] toBytes(UUID id) {
+        return ByteBuffer.allocate(16)
+            .putLong(id.getMostSignificantBits())
+            .putLong(id.getLeastSignificantBits())
+            .array();
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.userservice.repository;
+
+import com.example.userservice.util.EmailNormalizer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Case-insensitive lookup of one user among `rows`: an equality seek on the indexed normalized_email column
+// against LOWER(email) = ?, which no index on email can serve and so scans the table
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class EmailLookupBenchmark {
+
+    @Param({"1000000"})
+    private int rows;
+
+    private Connection connection;
+    private PreparedStatement byNormalizedEmail;
+    private PreparedStatement byLowerEmail;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:email-lookup;DB_CLOSE_DELAY=-1", "sa", "");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("create table users (id bigint primary key, email varchar(255) not null, "
+                + "normalized_email varchar(255) not null, "
+                + "constraint uk_users_normalized_email unique (normalized_email))");
+        }
+        connection.setAutoCommit(false);
+        try (PreparedStatement insert = connection.prepareStatement(
+                "insert into users (id, email, normalized_email) values (?, ?, ?)")) {
+            for (int i = 0; i < rows; i++) {
+                String email = "User" + i + "@Domain.cl";
+                insert.setLong(1, i);
+                insert.setString(2, email);
+                insert.setString(3, EmailNormalizer.normalize(email));
+                insert.addBatch();
+                if (i % 1000 == 999) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+        connection.commit();
+        connection.setAutoCommit(true);
+
+        byNormalizedEmail = connection.prepareStatement("select id from users where normalized_email = ?");
+        byLowerEmail = connection.prepareStatement("select id from users where lower(email) = ?");
+    }
+
+    @Benchmark
+    public long normalizedEmailColumn() throws SQLException {
+        return lookup(byNormalizedEmail);
+    }
+
+    @Benchmark
+    public long lowerFunction() throws SQLException {
+        return lookup(byLowerEmail);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("drop all objects");
+        }
+        connection.close();
+    }
+
+    private long lookup(PreparedStatement query) throws SQLException {
+        query.setString(1, EmailNormalizer.normalize("USER" + ThreadLocalRandom.current().nextInt(rows) + "@domain.CL"));
+        try (ResultSet result = query.executeQuery()) {
+            return result.next() ? result.getLong(1) : -1;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.userservice.repository;
+
+import com.example.userservice.UserServiceApplication;
+import com.example.userservice.entity.Phone;
+import com.example.userservice.entity.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Sign-up insert and login read of a user with N phones, with the phones in their own table (one row each,
+// read back through a join) or embedded in the users row (phones_data). The read picks one of the preloaded
+// users at random, so it is not served from a single hot page.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PhoneStorageBenchmark {
+
+    private static final String ENCODED_PASSWORD = "$2a$04$abcdefghijklmnopqrstuu5Ri1WMqKDkt0.sIZPtv6YwiBAyoJ5KG";
+    private static final int PRELOADED_USERS = 10_000;
+
+    @Param({"table", "embedded"})
+    private String storage;
+
+    @Param({"0", "1", "3", "10"})
+    private int phones;
+
+    private ConfigurableApplicationContext context;
+    private UserRepository userRepository;
+    private long sequence;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(UserServiceApplication.class)
+            .web(WebApplicationType.NONE)
+            .run("--users.phones.storage=" + storage,
+                "--spring.jpa.show-sql=false",
+                "--users.email-index.enabled=false",
+                "--logging.level.root=WARN");
+        userRepository = context.getBean(UserRepository.class);
+        for (int i = 0; i < PRELOADED_USERS; i++) {
+            userRepository.insertIfAbsent(newUser("read" + i));
+        }
+        sequence = 0;
+    }
+
+    @Benchmark
+    public boolean insert() {
+        return userRepository.insertIfAbsent(newUser("insert" + sequence++));
+    }
+
+    @Benchmark
+    public int read() {
+        String email = "read" + ThreadLocalRandom.current().nextInt(PRELOADED_USERS) + "@domain.cl";
+        return userRepository.findWithPhonesByNormalizedEmail(email).orElseThrow().getPhones().size();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private User newUser(String prefix) {
+        List<Phone> userPhones = new ArrayList<>(phones);
+        for (int i = 0; i < phones; i++) {
+            userPhones.add(new Phone(87650000L + i, 7, "25"));
+        }
+        User user = new User(prefix + "@domain.cl", ENCODED_PASSWORD, "Bench User", userPhones);
+        user.setToken("token-" + prefix);
+        return user;
+    }
+}
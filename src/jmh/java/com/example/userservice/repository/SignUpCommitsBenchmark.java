@@ -0,0 +1,91 @@
+package com.example.userservice.repository;
+
+import com.example.userservice.UserServiceApplication;
+import com.example.userservice.entity.Phone;
+import com.example.userservice.entity.User;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+// The database part of a sign-up against the real repositories, with the password hash precomputed:
+// the previous existsByEmail + save sequence against the single insertIfAbsent transaction. Hibernate statistics
+// are printed per sign-up at the end of the trial; the existence check runs in auto-commit outside any Spring
+// transaction, so it shows up as an extra connection checkout (an implicit commit) rather than as a commit.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SignUpCommitsBenchmark {
+
+    private static final String ENCODED_PASSWORD = "$2a$04$abcdefghijklmnopqrstuu5Ri1WMqKDkt0.sIZPtv6YwiBAyoJ5KG";
+
+    @Param({"exists-then-save", "insert-if-absent"})
+    private String strategy;
+
+    private ConfigurableApplicationContext context;
+    private UserRepository userRepository;
+    private Statistics statistics;
+    private long sequence;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(UserServiceApplication.class)
+            .web(WebApplicationType.NONE)
+            .run("--security.password.strength=4",
+                "--spring.jpa.show-sql=false",
+                "--spring.jpa.properties.hibernate.generate_statistics=true",
+                "--users.email-index.enabled=false",
+                "--logging.level.root=WARN");
+        userRepository = context.getBean(UserRepository.class);
+        statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+        // Warms up the pooled phone sequence so it is not counted against the first measured sign-up
+        userRepository.insertIfAbsent(newUser());
+        statistics.clear();
+        sequence = 0;
+    }
+
+    @Benchmark
+    public boolean signUp() {
+        User user = newUser();
+        if ("insert-if-absent".equals(strategy)) {
+            return userRepository.insertIfAbsent(user);
+        }
+        if (userRepository.existsByNormalizedEmail(user.getNormalizedEmail())) {
+            return false;
+        }
+        userRepository.save(user);
+        return true;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.out.printf("%n[%s] %d sign-ups, per sign-up: %.2f explicit commits, %.2f connection checkouts, "
+                + "%.2f statements%n", strategy, sequence,
+            (double) statistics.getSuccessfulTransactionCount() / sequence,
+            (double) statistics.getConnectCount() / sequence,
+            (double) statistics.getPrepareStatementCount() / sequence);
+        context.close();
+    }
+
+    private User newUser() {
+        User user = new User("bench" + sequence++ + "@domain.cl", ENCODED_PASSWORD, "Bench User",
+            Arrays.asList(new Phone(87650009L, 7, "25"), new Phone(87650010L, 7, "25")));
+        user.setToken("token-" + sequence);
+        return user;
+    }
+}
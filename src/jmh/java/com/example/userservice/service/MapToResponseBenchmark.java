@@ -0,0 +1,39 @@
+package com.example.userservice.service;
+
+import com.example.userservice.dto.UserResponse;
+import com.example.userservice.entity.Phone;
+import com.example.userservice.entity.User;
+import com.example.userservice.util.StageMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MapToResponseBenchmark {
+
+    private UserService userService;
+    private User user;
+
+    @Setup
+    public void setUp() {
+        userService = new UserService(null, null, null, null, null, null, new StageMetrics(new SimpleMeterRegistry()),
+            null, null);
+        user = new User("juan@domain.cl", "$2a$10$encrypted", "Juan Perez",
+            Arrays.asList(new Phone(87650009L, 7, "25"), new Phone(87650010L, 2, "56")));
+        user.setId(UUID.randomUUID());
+        user.setToken("eyJhbGciOiJIUzUxMiJ9.eyJzdWIiOiJqdWFuQGRvbWFpbi5jbCJ9.signature");
+    }
+
+    @Benchmark
+    public UserResponse mapToResponse() {
+        return userService.mapToResponse(user);
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.userservice.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Cache hits from 8 threads at once, as on the cached login path; segments=1 is the former single-lock cache
+@State(Scope.Benchmark)
+@Threads(8)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BoundedCacheBenchmark {
+
+    private static final int ENTRIES = 10_000;
+
+    @Param({"1", "16"})
+    public int segments;
+
+    private BoundedCache<String, String> cache;
+    private String[] keys;
+
+    @Setup
+    public void setUp() {
+        cache = new BoundedCache<>(ENTRIES, segments);
+        keys = new String[ENTRIES];
+        for (int i = 0; i < ENTRIES; i++) {
+            keys[i] = "user" + i + "@domain.cl";
+            cache.put(keys[i], keys[i], Long.MAX_VALUE);
+        }
+    }
+
+    @Benchmark
+    public String get() {
+        return cache.get(keys[ThreadLocalRandom.current().nextInt(ENTRIES)], 0L);
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.userservice.util;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.impl.TextCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+
+// Compares the generic jjwt builder/parser with the fixed-shape Hs512TokenCodec
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtCodecBenchmark {
+
+    private static final String SECRET = "mySecretKeyForJWTTokenGeneration2025";
+    private static final String EMAIL = "juan@domain.cl";
+
+    private Hs512TokenCodec codec;
+    private String token;
+    private long now;
+
+    @Setup
+    public void setUp() {
+        codec = new Hs512TokenCodec(TextCodec.BASE64.decode(SECRET));
+        now = System.currentTimeMillis();
+        token = codec.encode(EMAIL, now, now + 86400000L);
+    }
+
+    @Benchmark
+    public String jjwtEncode() {
+        return Jwts.builder()
+            .setClaims(new HashMap<>())
+            .setSubject(EMAIL)
+            .setIssuedAt(new Date(now))
+            .setExpiration(new Date(now + 86400000L))
+            .signWith(SignatureAlgorithm.HS512, SECRET)
+            .compact();
+    }
+
+    @Benchmark
+    public String codecEncode() {
+        return codec.encode(EMAIL, now, now + 86400000L);
+    }
+
+    @Benchmark
+    public Claims jjwtDecode() {
+        return Jwts.parser().setSigningKey(SECRET).parseClaimsJws(token).getBody();
+    }
+
+    @Benchmark
+    public JwtClaims codecDecode() {
+        return codec.decode(token, now);
+    }
+}
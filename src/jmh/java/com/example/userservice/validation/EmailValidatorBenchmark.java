@@ -0,0 +1,30 @@
+package com.example.userservice.validation;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class EmailValidatorBenchmark {
+
+    @Param({"juan@domain.cl", "invalid-email"})
+    public String email;
+
+    private EmailValidator emailValidator;
+
+    @Setup
+    public void setUp() {
+        emailValidator = new EmailValidator();
+    }
+
+    @Benchmark
+    public boolean isValid() {
+        return emailValidator.isValid(email, null);
+    }
+}
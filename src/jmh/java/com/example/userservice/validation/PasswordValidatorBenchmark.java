@@ -0,0 +1,30 @@
+package com.example.userservice.validation;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PasswordValidatorBenchmark {
+
+    @Param({"a2asfGfdfdf4", "aB2defgh89"})
+    public String password;
+
+    private PasswordValidator passwordValidator;
+
+    @Setup
+    public void setUp() {
+        passwordValidator = new PasswordValidator();
+    }
+
+    @Benchmark
+    public boolean isValid() {
+        return passwordValidator.isValid(password, null);
+    }
+}
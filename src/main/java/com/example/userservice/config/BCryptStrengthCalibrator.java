@@ -0,0 +1,48 @@
+package com.example.userservice.config;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+// Picks the highest BCrypt cost whose encode() fits the latency target on the current machine.
+// Each extra cost doubles the work, so probing stops as soon as the next step would not fit.
+public class BCryptStrengthCalibrator {
+
+    static final int MAX_STRENGTH = 31;
+    private static final String PROBE_PASSWORD = "aB2calibrat";
+
+    private final int minStrength;
+    private final int maxStrength;
+    private final long targetMillis;
+
+    public BCryptStrengthCalibrator(int minStrength, int maxStrength, long targetMillis) {
+        if (minStrength < 4 || maxStrength > MAX_STRENGTH || minStrength > maxStrength) {
+            throw new IllegalArgumentException("BCrypt strength range must be within 4..31");
+        }
+        this.minStrength = minStrength;
+        this.maxStrength = maxStrength;
+        this.targetMillis = targetMillis;
+    }
+
+    public int calibrate() {
+        // Warm-up run so the first measurement is not dominated by class loading and JIT
+        measureMillis(minStrength);
+
+        int chosen = minStrength;
+        long elapsed = measureMillis(chosen);
+        while (chosen < maxStrength && elapsed * 2 <= targetMillis) {
+            long next = measureMillis(chosen + 1);
+            if (next > targetMillis) {
+                break;
+            }
+            chosen++;
+            elapsed = next;
+        }
+        return chosen;
+    }
+
+    protected long measureMillis(int strength) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+        long start = System.nanoTime();
+        encoder.encode(PROBE_PASSWORD);
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+}
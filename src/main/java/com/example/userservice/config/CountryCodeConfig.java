@@ -0,0 +1,16 @@
+package com.example.userservice.config;
+
+import com.example.userservice.repository.CountryCodeStore;
+import com.example.userservice.util.InternDictionary;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class CountryCodeConfig {
+
+    // Shared by every path that reads or writes phones, so a code is resolved from memory after its first use
+    @Bean
+    public InternDictionary countryCodeDictionary(CountryCodeStore store) {
+        return new InternDictionary(store::insertIfAbsent, store::findAll);
+    }
+}
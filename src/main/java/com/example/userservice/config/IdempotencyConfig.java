@@ -0,0 +1,26 @@
+package com.example.userservice.config;
+
+import com.example.userservice.service.BoundedIdempotentResponseCache;
+import com.example.userservice.service.IdempotentResponseCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class IdempotencyConfig {
+
+    // Another IdempotentResponseCache bean (e.g. a shared store for several instances) replaces the in-process one
+    @Bean
+    @ConditionalOnMissingBean
+    public IdempotentResponseCache idempotentResponseCache(MeterRegistry meterRegistry,
+                                                           @Value("${users.idempotency.enabled:true}") boolean enabled,
+                                                           @Value("${users.idempotency.max-size:10000}") int maxSize,
+                                                           @Value("${users.idempotency.ttl-seconds:86400}") long ttlSeconds) {
+        return enabled ? new BoundedIdempotentResponseCache(maxSize, ttlSeconds, meterRegistry)
+            : IdempotentResponseCache.disabled();
+    }
+}
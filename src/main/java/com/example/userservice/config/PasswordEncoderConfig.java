@@ -0,0 +1,41 @@
+package com.example.userservice.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+// Shared by the servlet and reactive stacks, so it lives outside either security configuration
+@Configuration
+public class PasswordEncoderConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(PasswordEncoderConfig.class);
+
+    @Value("${security.password.strength:0}")
+    private int strength;
+
+    @Value("${security.password.min-strength:10}")
+    private int minStrength;
+
+    @Value("${security.password.max-strength:16}")
+    private int maxStrength;
+
+    @Value("${security.password.target-ms:250}")
+    private long targetMillis;
+
+    @Bean
+    public PasswordEncoder passwordEncoder() {
+        // The cost is stored in every hash, so hashes created with another strength keep verifying
+        if (strength > 0) {
+            log.info("Using configured BCrypt strength {}", strength);
+            return new BCryptPasswordEncoder(strength);
+        }
+
+        int calibrated = new BCryptStrengthCalibrator(minStrength, maxStrength, targetMillis).calibrate();
+        log.info("Calibrated BCrypt strength {} for a {} ms target (floor {})", calibrated, targetMillis, minStrength);
+        return new BCryptPasswordEncoder(calibrated);
+    }
+}
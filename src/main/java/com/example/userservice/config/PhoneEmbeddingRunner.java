@@ -0,0 +1,24 @@
+package com.example.userservice.config;
+
+import com.example.userservice.service.PhoneEmbeddingMigration;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+// Runs the phones table -> phones_data migration at startup when users.phones.migrate-to-embedded=true
+@Component
+@ConditionalOnProperty(name = "users.phones.migrate-to-embedded", havingValue = "true")
+public class PhoneEmbeddingRunner implements ApplicationRunner {
+
+    private final PhoneEmbeddingMigration migration;
+
+    public PhoneEmbeddingRunner(PhoneEmbeddingMigration migration) {
+        this.migration = migration;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        migration.migrate();
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.userservice.config;
+
+import com.example.userservice.util.TokenBucketRateLimiter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Map;
+
+@Configuration
+@ConditionalOnProperty(name = "users.rate-limit.enabled", havingValue = "true", matchIfMissing = true)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class RateLimitConfig {
+
+    @Value("${users.rate-limit.max-keys:100000}")
+    private int maxKeys;
+
+    @Value("${users.rate-limit.stripes:16}")
+    private int stripes;
+
+    @Value("${users.rate-limit.email-scan-bytes:1024}")
+    private int emailScanBytes;
+
+    @Value("${users.rate-limit.sign-up.ip-per-second:2}")
+    private double signUpIpPerSecond;
+
+    @Value("${users.rate-limit.sign-up.ip-burst:20}")
+    private int signUpIpBurst;
+
+    @Value("${users.rate-limit.sign-up.email-per-second:0.2}")
+    private double signUpEmailPerSecond;
+
+    @Value("${users.rate-limit.sign-up.email-burst:3}")
+    private int signUpEmailBurst;
+
+    @Value("${users.rate-limit.batch.ip-per-second:0.1}")
+    private double batchIpPerSecond;
+
+    @Value("${users.rate-limit.batch.ip-burst:2}")
+    private int batchIpBurst;
+
+    @Value("${users.rate-limit.login.ip-per-second:20}")
+    private double loginIpPerSecond;
+
+    @Value("${users.rate-limit.login.ip-burst:50}")
+    private int loginIpBurst;
+
+    // Runs ahead of the Spring Security chain so rejected calls cost one bucket lookup
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilter(ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        Map<String, RateLimitFilter.EndpointLimit> limits = Map.of(
+            "/api/sign-up", new RateLimitFilter.EndpointLimit("sign-up",
+                limiter("sign-up", "ip", signUpIpPerSecond, signUpIpBurst, meterRegistry),
+                limiter("sign-up", "email", signUpEmailPerSecond, signUpEmailBurst, meterRegistry),
+                meterRegistry),
+            "/api/sign-up/batch", new RateLimitFilter.EndpointLimit("sign-up-batch",
+                limiter("sign-up-batch", "ip", batchIpPerSecond, batchIpBurst, meterRegistry), null, meterRegistry),
+            "/api/login", new RateLimitFilter.EndpointLimit("login",
+                limiter("login", "ip", loginIpPerSecond, loginIpBurst, meterRegistry), null, meterRegistry));
+
+        FilterRegistrationBean<RateLimitFilter> registration =
+            new FilterRegistrationBean<>(new RateLimitFilter(limits, objectMapper, emailScanBytes));
+        registration.addUrlPatterns("/api/sign-up", "/api/sign-up/batch", "/api/login");
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 1);
+        return registration;
+    }
+
+    private TokenBucketRateLimiter limiter(String endpoint, String key, double permitsPerSecond, int burst,
+                                           MeterRegistry meterRegistry) {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(permitsPerSecond, burst, maxKeys, stripes);
+        Gauge.builder("users.rate-limit.keys", limiter, TokenBucketRateLimiter::size)
+            .description("Rate limit buckets currently held in memory")
+            .tag("endpoint", endpoint)
+            .tag("key", key)
+            .register(meterRegistry);
+        FunctionCounter.builder("users.rate-limit.evictions", limiter, TokenBucketRateLimiter::getEvictionCount)
+            .description("Busy buckets dropped because the key limit was reached")
+            .tag("endpoint", endpoint)
+            .tag("key", key)
+            .register(meterRegistry);
+        return limiter;
+    }
+}
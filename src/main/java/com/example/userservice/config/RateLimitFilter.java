@@ -0,0 +1,188 @@
+package com.example.userservice.config;
+
+import com.example.userservice.dto.ErrorResponse;
+import com.example.userservice.util.EmailNormalizer;
+import com.example.userservice.util.TokenBucketRateLimiter;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UrlPathHelper;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletException;
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.SequenceInputStream;
+import java.io.UnsupportedEncodingException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Rejects over-limit sign-up and login calls with 429 before the body is bound or validated, so a flood
+// never reaches BCrypt or the database. Buckets are keyed by client IP, and sign-ups also by email; the
+// email is pulled from the first bytes of the body with a streaming parser and the bytes are replayed.
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final UrlPathHelper PATHS = new UrlPathHelper();
+
+    private final Map<String, EndpointLimit> limits;
+    private final ObjectMapper objectMapper;
+    private final int maxEmailScanBytes;
+
+    public RateLimitFilter(Map<String, EndpointLimit> limits, ObjectMapper objectMapper, int maxEmailScanBytes) {
+        this.limits = limits;
+        this.objectMapper = objectMapper;
+        this.maxEmailScanBytes = maxEmailScanBytes;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !limits.containsKey(PATHS.getPathWithinApplication(request));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+        throws ServletException, IOException {
+        EndpointLimit limit = limits.get(PATHS.getPathWithinApplication(request));
+        long now = System.nanoTime();
+
+        long waitNanos = limit.perIp.tryAcquire(request.getRemoteAddr(), now);
+        if (waitNanos > 0) {
+            reject(response, limit.ipRejected, waitNanos);
+            return;
+        }
+
+        if (limit.perEmail != null) {
+            byte[] head = request.getInputStream().readNBytes(maxEmailScanBytes);
+            request = new ReplayedBodyRequest(request, head);
+            String email = findEmail(head);
+            if (email != null) {
+                waitNanos = limit.perEmail.tryAcquire(email, now);
+                if (waitNanos > 0) {
+                    reject(response, limit.emailRejected, waitNanos);
+                    return;
+                }
+            }
+        }
+        chain.doFilter(request, response);
+    }
+
+    private void reject(HttpServletResponse response, Counter rejected, long waitNanos) throws IOException {
+        rejected.increment();
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+        ErrorResponse.ErrorDetail error = new ErrorResponse.ErrorDetail(HttpStatus.TOO_MANY_REQUESTS.value(),
+            "Too many requests, retry later");
+
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new ErrorResponse(Arrays.asList(error)));
+    }
+
+    // Top-level "email" string, or null if it is not within the scanned bytes or the JSON is malformed;
+    // binding and validation downstream still see the full body and report those cases
+    private String findEmail(byte[] head) {
+        try (JsonParser parser = objectMapper.getFactory().createParser(head)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                if ("email".equals(field) && value == JsonToken.VALUE_STRING) {
+                    return EmailNormalizer.normalize(parser.getText());
+                }
+                parser.skipChildren();
+            }
+        } catch (IOException e) {
+            return null;
+        }
+        return null;
+    }
+
+    public static final class EndpointLimit {
+        private final TokenBucketRateLimiter perIp;
+        private final TokenBucketRateLimiter perEmail;
+        private final Counter ipRejected;
+        private final Counter emailRejected;
+
+        public EndpointLimit(String endpoint, TokenBucketRateLimiter perIp, TokenBucketRateLimiter perEmail,
+                             MeterRegistry meterRegistry) {
+            this.perIp = perIp;
+            this.perEmail = perEmail;
+            this.ipRejected = rejectedCounter(meterRegistry, endpoint, "ip");
+            this.emailRejected = perEmail == null ? null : rejectedCounter(meterRegistry, endpoint, "email");
+        }
+
+        private static Counter rejectedCounter(MeterRegistry meterRegistry, String endpoint, String key) {
+            return Counter.builder("users.rate-limit.rejected")
+                .description("Requests rejected with 429 before reaching the controller")
+                .tag("endpoint", endpoint)
+                .tag("key", key)
+                .register(meterRegistry);
+        }
+    }
+
+    // Hands downstream readers the bytes already consumed for the email scan, then the rest of the stream
+    private static final class ReplayedBodyRequest extends HttpServletRequestWrapper {
+        private final ServletInputStream body;
+
+        private ReplayedBodyRequest(HttpServletRequest request, byte[] head) throws IOException {
+            super(request);
+            ServletInputStream original = request.getInputStream();
+            ByteArrayInputStream replayed = new ByteArrayInputStream(head);
+            InputStream replay = new SequenceInputStream(replayed, original);
+            this.body = new ServletInputStream() {
+                @Override
+                public int read() throws IOException {
+                    return replay.read();
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) throws IOException {
+                    return replay.read(buffer, offset, length);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return replayed.available() == 0 && original.isFinished();
+                }
+
+                @Override
+                public boolean isReady() {
+                    return replayed.available() > 0 || original.isReady();
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    original.setReadListener(listener);
+                }
+            };
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            return body;
+        }
+
+        @Override
+        public BufferedReader getReader() throws UnsupportedEncodingException {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(body, encoding != null ? encoding : "UTF-8"));
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.userservice.config;
+
+import io.r2dbc.spi.Closeable;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+
+import javax.annotation.PreDestroy;
+
+// R2DBC access for the reactive profile. The ConnectionFactory is deliberately not a bean: Boot backs off
+// the JDBC DataSource when one exists, and a ReactiveTransactionManager bean would displace the JPA one.
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveDataConfig {
+
+    private final ConnectionFactory connectionFactory;
+
+    public ReactiveDataConfig(@Value("${spring.r2dbc.url}") String url,
+                              @Value("${spring.r2dbc.username:}") String username,
+                              @Value("${spring.r2dbc.password:}") String password) {
+        this.connectionFactory = ConnectionFactories.get(ConnectionFactoryOptions.parse(url).mutate()
+            .option(ConnectionFactoryOptions.USER, username)
+            .option(ConnectionFactoryOptions.PASSWORD, password)
+            .build());
+    }
+
+    @Bean
+    public DatabaseClient databaseClient() {
+        return DatabaseClient.create(connectionFactory);
+    }
+
+    @Bean
+    public TransactionalOperator reactiveTransactionalOperator() {
+        return TransactionalOperator.create(new R2dbcTransactionManager(connectionFactory));
+    }
+
+    @PreDestroy
+    public void close() {
+        if (connectionFactory instanceof Closeable) {
+            Mono.from(((Closeable) connectionFactory).close()).block();
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.userservice.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.authentication.UserDetailsRepositoryReactiveAuthenticationManager;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.core.userdetails.MapReactiveUserDetailsService;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.crypto.factory.PasswordEncoderFactories;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+import org.springframework.security.web.server.header.XFrameOptionsServerHttpHeadersWriter;
+import reactor.core.publisher.Mono;
+
+// Same rules as SecurityConfig for the endpoints the reactive stack serves
+@Configuration
+@EnableWebFluxSecurity
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveSecurityConfig {
+
+    @Value("${security.admin.username:admin}")
+    private String adminUsername;
+
+    @Value("${security.admin.password:}")
+    private String adminPassword;
+
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http) {
+        return http.csrf().disable()
+            .httpBasic().authenticationManager(adminAuthenticationManager())
+            .and()
+            .formLogin().disable()
+            .securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+            .authorizeExchange()
+            .pathMatchers("/api/sign-up", "/api/login").permitAll()
+            .pathMatchers("/actuator/health").permitAll()
+            .pathMatchers("/actuator/metrics/**", "/actuator/prometheus").hasRole(SecurityConfig.ADMIN_ROLE)
+            .anyExchange().authenticated()
+            .and()
+            .headers().frameOptions().mode(XFrameOptionsServerHttpHeadersWriter.Mode.DENY)
+            .and()
+            .build();
+    }
+
+    // Not a bean, so Boot's default reactive user details stay out of the way; no password means no account
+    private ReactiveAuthenticationManager adminAuthenticationManager() {
+        if (adminPassword.isEmpty()) {
+            return authentication -> Mono.empty();
+        }
+        MapReactiveUserDetailsService admin = new MapReactiveUserDetailsService(User.withUsername(adminUsername)
+            .password(adminPassword)
+            .roles(SecurityConfig.ADMIN_ROLE)
+            .build());
+        UserDetailsRepositoryReactiveAuthenticationManager manager =
+            new UserDetailsRepositoryReactiveAuthenticationManager(admin);
+        manager.setPasswordEncoder(PasswordEncoderFactories.createDelegatingPasswordEncoder());
+        return manager;
+    }
+}
@@ -1,33 +1,53 @@
 package com.example.userservice.config;
 
-import org.springframework.context.annotation.Bean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configuration.WebSecurityConfigurerAdapter;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.factory.PasswordEncoderFactories;
 
 @Configuration
 @EnableWebSecurity
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class SecurityConfig extends WebSecurityConfigurerAdapter {
 
+    static final String ADMIN_ROLE = "ADMIN";
+
+    @Value("${security.admin.username:admin}")
+    private String adminUsername;
+
+    // Stored encoded with its id prefix, e.g. {bcrypt}$2a$10$...; empty leaves no account able to reach admin paths
+    @Value("${security.admin.password:}")
+    private String adminPassword;
+
     @Override
     protected void configure(HttpSecurity http) throws Exception {
         http.csrf().disable()
             .authorizeRequests()
-            .antMatchers("/api/sign-up", "/api/login").permitAll()
+            .antMatchers("/api/sign-up", "/api/sign-up/batch", "/api/login", "/api/logout").permitAll()
             .antMatchers("/h2-console/**").permitAll()
+            .antMatchers("/actuator/health").permitAll()
+            .antMatchers("/api/users/export", "/actuator/metrics/**", "/actuator/prometheus").hasRole(ADMIN_ROLE)
             .anyRequest().authenticated()
             .and()
+            .httpBasic()
+            .and()
             .sessionManagement().sessionCreationPolicy(SessionCreationPolicy.STATELESS)
             .and()
             .headers().frameOptions().deny();
     }
 
-    @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    @Override
+    protected void configure(AuthenticationManagerBuilder auth) throws Exception {
+        if (adminPassword.isEmpty()) {
+            return;
+        }
+        auth.inMemoryAuthentication()
+            .passwordEncoder(PasswordEncoderFactories.createDelegatingPasswordEncoder())
+            .withUser(adminUsername).password(adminPassword).roles(ADMIN_ROLE);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,62 @@
+package com.example.userservice.config;
+
+import com.example.userservice.util.ServerTiming;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.util.concurrent.TimeUnit;
+
+// Adds the Server-Timing header to responses of timed requests, just before the body is written, which
+// for an async sign-up is after hashing and persistence have finished. Slow requests are also logged.
+@ControllerAdvice
+@ConditionalOnProperty(name = "users.server-timing.enabled", havingValue = "true")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class ServerTimingAdvice implements ResponseBodyAdvice<Object> {
+
+    private static final Logger log = LoggerFactory.getLogger(ServerTimingAdvice.class);
+    static final String HEADER = "Server-Timing";
+
+    private final long slowThresholdNanos;
+
+    public ServerTimingAdvice(@Value("${users.server-timing.slow-threshold-ms:1000}") long slowThresholdMillis) {
+        this.slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowThresholdMillis);
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType contentType,
+                                  Class<? extends HttpMessageConverter<?>> converterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (!(request instanceof ServletServerHttpRequest)) {
+            return body;
+        }
+        Object timing = ((ServletServerHttpRequest) request).getServletRequest().getAttribute(ServerTiming.ATTRIBUTE);
+        if (!(timing instanceof ServerTiming)) {
+            return body;
+        }
+
+        long now = System.nanoTime();
+        String header = ((ServerTiming) timing).toHeaderValue(now);
+        response.getHeaders().set(HEADER, header);
+        if (((ServerTiming) timing).elapsedNanos(now) >= slowThresholdNanos) {
+            log.warn("slow_request method={} path={} server_timing=\"{}\"",
+                request.getMethod(), request.getURI().getPath(), header);
+        }
+        return body;
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.userservice.config;
+
+import com.example.userservice.util.StageMetrics;
+import com.example.userservice.validation.TimedValidator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.validation.Validator;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class StageMetricsConfig implements WebMvcConfigurer {
+
+    private final LocalValidatorFactoryBean defaultValidator;
+    private final ObjectProvider<StageMetrics> stageMetrics;
+
+    public StageMetricsConfig(@Qualifier("defaultValidator") LocalValidatorFactoryBean defaultValidator,
+                              ObjectProvider<StageMetrics> stageMetrics) {
+        this.defaultValidator = defaultValidator;
+        this.stageMetrics = stageMetrics;
+    }
+
+    // Web slices without the metrics beans keep the default validator
+    @Override
+    public Validator getValidator() {
+        StageMetrics metrics = stageMetrics.getIfAvailable();
+        return metrics == null ? null : new TimedValidator(defaultValidator, metrics);
+    }
+}
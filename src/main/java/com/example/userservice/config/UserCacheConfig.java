@@ -0,0 +1,23 @@
+package com.example.userservice.config;
+
+import com.example.userservice.service.BoundedUserSnapshotCache;
+import com.example.userservice.service.UserSnapshotCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class UserCacheConfig {
+
+    // Another UserSnapshotCache bean replaces the in-process one
+    @Bean
+    @ConditionalOnMissingBean
+    public UserSnapshotCache userSnapshotCache(MeterRegistry meterRegistry,
+                                               @Value("${users.cache.enabled:false}") boolean enabled,
+                                               @Value("${users.cache.max-size:10000}") int maxSize,
+                                               @Value("${users.cache.ttl-seconds:300}") long ttlSeconds) {
+        return enabled ? new BoundedUserSnapshotCache(maxSize, ttlSeconds, meterRegistry) : UserSnapshotCache.disabled();
+    }
+}
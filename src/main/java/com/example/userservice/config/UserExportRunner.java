@@ -0,0 +1,39 @@
+package com.example.userservice.config;
+
+import com.example.userservice.service.UserExportService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+// Writes the NDJSON export to a file at startup when users.export.file is set
+@Component
+@ConditionalOnProperty("users.export.file")
+public class UserExportRunner implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(UserExportRunner.class);
+
+    private final UserExportService exportService;
+    private final Path file;
+
+    public UserExportRunner(UserExportService exportService, @Value("${users.export.file}") String file) {
+        this.exportService = exportService;
+        this.file = Path.of(file);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file), 64 * 1024)) {
+            long exported = exportService.export(out);
+            log.info("Exported {} users to {}", exported, file);
+        }
+    }
+}
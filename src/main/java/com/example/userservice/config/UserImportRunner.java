@@ -0,0 +1,38 @@
+package com.example.userservice.config;
+
+import com.example.userservice.service.UserImportService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+
+// Runs a bulk import at startup when users.import.file is set, e.g.
+// java -jar app.jar --users.import.file=users.ndjson --spring.main.web-application-type=none
+@Component
+@ConditionalOnProperty("users.import.file")
+public class UserImportRunner implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(UserImportRunner.class);
+
+    private final UserImportService importService;
+    private final Path file;
+
+    public UserImportRunner(UserImportService importService, @Value("${users.import.file}") String file) {
+        this.importService = importService;
+        this.file = Path.of(file);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        log.info("Importing users from {}", file);
+        UserImportService.ImportReport report = importService.importFile(file);
+        log.info("Import of {} finished at line {}: {} created, {} conflicts, {} invalid, {} malformed",
+            file, report.getLastLine(), report.getCreated(), report.getConflicts(), report.getInvalid(),
+            report.getMalformed());
+    }
+}
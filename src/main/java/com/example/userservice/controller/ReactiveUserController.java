@@ -0,0 +1,39 @@
+package com.example.userservice.controller;
+
+import com.example.userservice.dto.UserResponse;
+import com.example.userservice.dto.UserSignUpRequest;
+import com.example.userservice.service.ReactiveUserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import javax.validation.Valid;
+
+// Serves the UserController contracts for /api/sign-up and /api/login on WebFlux (reactive profile)
+@RestController
+@RequestMapping("/api")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveUserController {
+
+    private final ReactiveUserService userService;
+
+    @Autowired
+    public ReactiveUserController(ReactiveUserService userService) {
+        this.userService = userService;
+    }
+
+    @PostMapping("/sign-up")
+    public Mono<ResponseEntity<UserResponse>> signUp(@Valid @RequestBody UserSignUpRequest request) {
+        return userService.createUser(request)
+            .map(response -> new ResponseEntity<>(response, HttpStatus.CREATED));
+    }
+
+    @GetMapping("/login")
+    public Mono<ResponseEntity<UserResponse>> login(@RequestHeader("Authorization") String authHeader) {
+        String token = authHeader.replace("Bearer ", "");
+        return userService.loginUser(token).map(ResponseEntity::ok);
+    }
+}
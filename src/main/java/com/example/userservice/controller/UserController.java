@@ -1,30 +1,89 @@
 package com.example.userservice.controller;
 
+import com.example.userservice.dto.BatchSignUpRequest;
+import com.example.userservice.dto.BatchSignUpResponse;
 import com.example.userservice.dto.UserResponse;
 import com.example.userservice.dto.UserSignUpRequest;
+import com.example.userservice.exception.IdempotencyKeyReusedException;
+import com.example.userservice.service.BatchSignUpService;
+import com.example.userservice.service.IdempotentResponse;
+import com.example.userservice.service.IdempotentResponseCache;
 import com.example.userservice.service.UserService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import javax.validation.Valid;
+import java.io.UncheckedIOException;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class UserController {
 
+    static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    static final String IDEMPOTENT_REPLAYED = "Idempotent-Replayed";
+
     private final UserService userService;
+    private final BatchSignUpService batchSignUpService;
+    private final IdempotentResponseCache idempotentResponses;
+    private final ObjectMapper objectMapper;
 
     @Autowired
-    public UserController(UserService userService) {
+    public UserController(UserService userService, BatchSignUpService batchSignUpService,
+                          IdempotentResponseCache idempotentResponses, ObjectMapper objectMapper) {
         this.userService = userService;
+        this.batchSignUpService = batchSignUpService;
+        this.idempotentResponses = idempotentResponses;
+        this.objectMapper = objectMapper;
     }
 
     @PostMapping("/sign-up")
-    public ResponseEntity<UserResponse> signUp(@Valid @RequestBody UserSignUpRequest request) {
-        UserResponse response = userService.createUser(request);
-        return new ResponseEntity<>(response, HttpStatus.CREATED);
+    public CompletableFuture<ResponseEntity<?>> signUp(@Valid @RequestBody UserSignUpRequest request,
+                                                       @RequestHeader(value = IDEMPOTENCY_KEY, required = false)
+                                                       String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return userService.createUser(request)
+                .thenApply(response -> new ResponseEntity<>(response, HttpStatus.CREATED));
+        }
+
+        IdempotentResponse replay = idempotentResponses.get(request.getEmail(), idempotencyKey);
+        if (replay != null) {
+            if (!replay.matches(request)) {
+                throw new IdempotencyKeyReusedException("Idempotency-Key already used for a different sign-up");
+            }
+            return CompletableFuture.completedFuture(toResponseEntity(replay).header(IDEMPOTENT_REPLAYED, "true")
+                .body(replay.getBody()));
+        }
+        // Only completed sign-ups are kept; a 409 or 503 is left for the client to retry with the same key
+        return userService.createUser(request)
+            .thenApply(response -> {
+                IdempotentResponse stored = IdempotentResponse.of(request, HttpStatus.CREATED.value(), toJson(response));
+                idempotentResponses.put(request.getEmail(), idempotencyKey, stored);
+                return toResponseEntity(stored).body(stored.getBody());
+            });
+    }
+
+    @PostMapping("/sign-up/batch")
+    public CompletableFuture<ResponseEntity<BatchSignUpResponse>> signUpBatch(
+            @Valid @RequestBody BatchSignUpRequest request) {
+        return batchSignUpService.createUsers(request.getUsers())
+            .thenApply(response -> {
+                if (response.getOverloaded() == 0) {
+                    return ResponseEntity.ok(response);
+                }
+                // The OVERLOADED entries can be resubmitted as a new batch
+                return ResponseEntity.ok()
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(response.getRetryAfterSeconds()))
+                    .body(response);
+            });
     }
 
     @GetMapping("/login")
@@ -33,4 +92,23 @@ public class UserController {
         UserResponse response = userService.loginUser(token);
         return ResponseEntity.ok(response);
     }
-}
\ No newline at end of file
+
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@RequestHeader("Authorization") String authHeader) {
+        String token = authHeader.replace("Bearer ", "");
+        userService.logoutUser(token);
+        return ResponseEntity.noContent().build();
+    }
+
+    private static ResponseEntity.BodyBuilder toResponseEntity(IdempotentResponse response) {
+        return ResponseEntity.status(response.getStatus()).contentType(MediaType.APPLICATION_JSON);
+    }
+
+    private byte[] toJson(UserResponse response) {
+        try {
+            return objectMapper.writeValueAsBytes(response);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.userservice.dto;
+
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Size;
+import java.util.List;
+
+// Items are validated one by one by the batch service so a bad entry does not reject the whole batch
+public class BatchSignUpRequest {
+
+    public static final int MAX_USERS = 1000;
+
+    @NotEmpty(message = "Users are required")
+    @Size(max = MAX_USERS, message = "A batch accepts at most " + MAX_USERS + " users")
+    private List<UserSignUpRequest> users;
+
+    public BatchSignUpRequest() {}
+
+    public BatchSignUpRequest(List<UserSignUpRequest> users) {
+        this.users = users;
+    }
+
+    public List<UserSignUpRequest> getUsers() { return users; }
+    public void setUsers(List<UserSignUpRequest> users) { this.users = users; }
+}
@@ -0,0 +1,49 @@
+package com.example.userservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.util.List;
+
+public class BatchSignUpResponse {
+
+    private long created;
+    private long conflicts;
+    private long invalid;
+    private long overloaded;
+    private List<BatchSignUpResult> results;
+    // Sent as the Retry-After header when some entries were overloaded
+    @JsonIgnore
+    private long retryAfterSeconds;
+
+    public BatchSignUpResponse() {}
+
+    public BatchSignUpResponse(List<BatchSignUpResult> results) {
+        this.results = results;
+        this.created = count(results, BatchSignUpStatus.CREATED);
+        this.conflicts = count(results, BatchSignUpStatus.CONFLICT);
+        this.invalid = count(results, BatchSignUpStatus.INVALID);
+        this.overloaded = count(results, BatchSignUpStatus.OVERLOADED);
+    }
+
+    private static long count(List<BatchSignUpResult> results, BatchSignUpStatus status) {
+        return results.stream().filter(result -> result.getStatus() == status).count();
+    }
+
+    public long getCreated() { return created; }
+    public void setCreated(long created) { this.created = created; }
+
+    public long getConflicts() { return conflicts; }
+    public void setConflicts(long conflicts) { this.conflicts = conflicts; }
+
+    public long getInvalid() { return invalid; }
+    public void setInvalid(long invalid) { this.invalid = invalid; }
+
+    public long getOverloaded() { return overloaded; }
+    public void setOverloaded(long overloaded) { this.overloaded = overloaded; }
+
+    public long getRetryAfterSeconds() { return retryAfterSeconds; }
+    public void setRetryAfterSeconds(long retryAfterSeconds) { this.retryAfterSeconds = retryAfterSeconds; }
+
+    public List<BatchSignUpResult> getResults() { return results; }
+    public void setResults(List<BatchSignUpResult> results) { this.results = results; }
+}
@@ -0,0 +1,54 @@
+package com.example.userservice.dto;
+
+import java.util.List;
+
+public class BatchSignUpResult {
+
+    private int index;
+    private BatchSignUpStatus status;
+    private String email;
+    private UserResponse user;
+    private List<String> errors;
+
+    public BatchSignUpResult() {}
+
+    public BatchSignUpResult(int index, BatchSignUpStatus status, String email, UserResponse user, List<String> errors) {
+        this.index = index;
+        this.status = status;
+        this.email = email;
+        this.user = user;
+        this.errors = errors;
+    }
+
+    public static BatchSignUpResult created(int index, UserResponse user) {
+        return new BatchSignUpResult(index, BatchSignUpStatus.CREATED, user.getEmail(), user, null);
+    }
+
+    public static BatchSignUpResult conflict(int index, String email, String detail) {
+        return new BatchSignUpResult(index, BatchSignUpStatus.CONFLICT, email, null, List.of(detail));
+    }
+
+    public static BatchSignUpResult invalid(int index, String email, List<String> errors) {
+        return new BatchSignUpResult(index, BatchSignUpStatus.INVALID, email, null, errors);
+    }
+
+    // Not attempted because the hashing pool was full; safe to resubmit after Retry-After
+    public static BatchSignUpResult overloaded(int index, String email, String detail) {
+        return new BatchSignUpResult(index, BatchSignUpStatus.OVERLOADED, email, null, List.of(detail));
+    }
+
+    public int getIndex() { return index; }
+    public void setIndex(int index) { this.index = index; }
+
+    public BatchSignUpStatus getStatus() { return status; }
+    public void setStatus(BatchSignUpStatus status) { this.status = status; }
+
+    public String getEmail() { return email; }
+    public void setEmail(String email) { this.email = email; }
+
+    public UserResponse getUser() { return user; }
+    public void setUser(UserResponse user) { this.user = user; }
+
+    public List<String> getErrors() { return errors; }
+    public void setErrors(List<String> errors) { this.errors = errors; }
+}
@@ -0,0 +1,8 @@
+package com.example.userservice.dto;
+
+public enum BatchSignUpStatus {
+    CREATED,
+    CONFLICT,
+    INVALID,
+    OVERLOADED
+}
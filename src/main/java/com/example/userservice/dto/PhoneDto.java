@@ -1,6 +1,7 @@
 package com.example.userservice.dto;
 
 import javax.validation.constraints.NotNull;
+import java.util.Objects;
 
 public class PhoneDto {
 
@@ -29,4 +30,18 @@ public class PhoneDto {
 
     public String getContrycode() { return contrycode; }
     public void setContrycode(String contrycode) { this.contrycode = contrycode; }
-}
\ No newline at end of file
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof PhoneDto)) return false;
+        PhoneDto other = (PhoneDto) o;
+        return Objects.equals(number, other.number) && Objects.equals(citycode, other.citycode)
+            && Objects.equals(contrycode, other.contrycode);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(number, citycode, contrycode);
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.userservice.dto;
+
+import java.util.UUID;
+
+public class PhoneExportRow {
+
+    private final UUID userId;
+    private final PhoneDto phone;
+
+    public PhoneExportRow(UUID userId, Long number, Integer citycode, String contrycode) {
+        this.userId = userId;
+        this.phone = new PhoneDto(number, citycode, contrycode);
+    }
+
+    public UUID getUserId() { return userId; }
+
+    public PhoneDto getPhone() { return phone; }
+}
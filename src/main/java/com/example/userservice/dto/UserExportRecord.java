@@ -0,0 +1,64 @@
+package com.example.userservice.dto;
+
+import com.example.userservice.entity.Phone;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+// One NDJSON line of the user export; credentials and tokens are deliberately left out
+public class UserExportRecord {
+
+    private UUID id;
+    private String email;
+    private String name;
+    private LocalDateTime created;
+    private LocalDateTime lastLogin;
+    private Boolean isActive;
+    private List<PhoneDto> phones;
+
+    public UserExportRecord() {}
+
+    public UserExportRecord(UUID id, String email, String name, LocalDateTime created, LocalDateTime lastLogin,
+                            Boolean isActive) {
+        this.id = id;
+        this.email = email;
+        this.name = name;
+        this.created = created;
+        this.lastLogin = lastLogin;
+        this.isActive = isActive;
+    }
+
+    // Phones embedded in the users row come with the page; null ones are still in the phones table
+    public UserExportRecord(UUID id, String email, String name, LocalDateTime created, LocalDateTime lastLogin,
+                            Boolean isActive, List<Phone> embeddedPhones) {
+        this(id, email, name, created, lastLogin, isActive);
+        if (embeddedPhones != null) {
+            this.phones = embeddedPhones.stream()
+                .map(phone -> new PhoneDto(phone.getNumber(), phone.getCitycode(), phone.getContrycode()))
+                .collect(Collectors.toList());
+        }
+    }
+
+    public UUID getId() { return id; }
+    public void setId(UUID id) { this.id = id; }
+
+    public String getEmail() { return email; }
+    public void setEmail(String email) { this.email = email; }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public LocalDateTime getCreated() { return created; }
+    public void setCreated(LocalDateTime created) { this.created = created; }
+
+    public LocalDateTime getLastLogin() { return lastLogin; }
+    public void setLastLogin(LocalDateTime lastLogin) { this.lastLogin = lastLogin; }
+
+    public Boolean getIsActive() { return isActive; }
+    public void setIsActive(Boolean isActive) { this.isActive = isActive; }
+
+    public List<PhoneDto> getPhones() { return phones; }
+    public void setPhones(List<PhoneDto> phones) { this.phones = phones; }
+}
@@ -6,6 +6,7 @@ import com.example.userservice.validation.ValidPassword;
 import javax.validation.Valid;
 import javax.validation.constraints.NotBlank;
 import java.util.List;
+import java.util.Objects;
 
 public class UserSignUpRequest {
 
@@ -42,4 +43,18 @@ public class UserSignUpRequest {
 
     public List<PhoneDto> getPhones() { return phones; }
     public void setPhones(List<PhoneDto> phones) { this.phones = phones; }
-}
\ No newline at end of file
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof UserSignUpRequest)) return false;
+        UserSignUpRequest other = (UserSignUpRequest) o;
+        return Objects.equals(email, other.email) && Objects.equals(password, other.password)
+            && Objects.equals(name, other.name) && Objects.equals(phones, other.phones);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(email, password, name, phones);
+    }
+}
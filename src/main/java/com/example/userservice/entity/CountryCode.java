@@ -0,0 +1,25 @@
+package com.example.userservice.entity;
+
+import javax.persistence.*;
+
+// Dictionary of the distinct phone country codes; phones store the id (CountryCodeConverter, PhoneListConverter).
+// Rows are only ever added, through CountryCodeStore, and read into the InternDictionary bean.
+@Entity
+@Table(name = "country_codes", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_country_codes_code", columnNames = "code")
+})
+public class CountryCode {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @Column(nullable = false)
+    private String code;
+
+    public CountryCode() {}
+
+    public Integer getId() { return id; }
+
+    public String getCode() { return code; }
+}
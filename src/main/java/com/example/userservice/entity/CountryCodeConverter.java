@@ -0,0 +1,28 @@
+package com.example.userservice.entity;
+
+import com.example.userservice.util.InternDictionary;
+
+import javax.persistence.AttributeConverter;
+import javax.persistence.Converter;
+
+// Stores Phone.contrycode as its id in the country_codes dictionary. Hibernate gets the instance from Spring,
+// which injects the shared dictionary; reads resolve ids from memory and return the dictionary's String.
+@Converter
+public class CountryCodeConverter implements AttributeConverter<String, Integer> {
+
+    private final InternDictionary countryCodes;
+
+    public CountryCodeConverter(InternDictionary countryCodes) {
+        this.countryCodes = countryCodes;
+    }
+
+    @Override
+    public Integer convertToDatabaseColumn(String contrycode) {
+        return contrycode == null ? null : countryCodes.idOf(contrycode);
+    }
+
+    @Override
+    public String convertToEntityAttribute(Integer id) {
+        return id == null ? null : countryCodes.codeOf(id);
+    }
+}
@@ -3,13 +3,15 @@ package com.example.userservice.entity;
 import com.fasterxml.jackson.annotation.JsonBackReference;
 
 import javax.persistence.*;
+import java.util.Objects;
 
 @Entity
 @Table(name = "phones")
 public class Phone {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "phone_seq")
+    @SequenceGenerator(name = "phone_seq", sequenceName = "phone_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -18,7 +20,9 @@ public class Phone {
     @Column(nullable = false)
     private Integer citycode;
 
-    @Column(nullable = false)
+    // Stored as the code's id in country_codes
+    @Convert(converter = CountryCodeConverter.class)
+    @Column(name = "country_code", nullable = false)
     private String contrycode;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -48,4 +52,20 @@ public class Phone {
 
     public User getUser() { return user; }
     public void setUser(User user) { this.user = user; }
-}
\ No newline at end of file
+
+    // By value: embedded phones (User.embeddedPhones) have no id, and Hibernate compares the decoded lists
+    // element by element to decide whether phones_data is dirty
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Phone)) return false;
+        Phone other = (Phone) o;
+        return Objects.equals(number, other.number) && Objects.equals(citycode, other.citycode)
+            && Objects.equals(contrycode, other.contrycode);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(number, citycode, contrycode);
+    }
+}
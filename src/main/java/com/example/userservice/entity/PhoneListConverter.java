@@ -0,0 +1,103 @@
+package com.example.userservice.entity;
+
+import com.example.userservice.util.InternDictionary;
+
+import javax.persistence.AttributeConverter;
+import javax.persistence.Converter;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// Packs a user's phones into the phones_data column. Layout: a format version byte, the phone count, then per
+// phone the number, the city code and the country code's id in country_codes. Integers are zig-zag varints, so
+// a typical phone takes 8 bytes and needs no row, id or foreign-key index of its own. Version 1 rows, which
+// carry the country code as length-prefixed UTF-8, are still read.
+@Converter
+public class PhoneListConverter implements AttributeConverter<List<Phone>, byte[]> {
+
+    static final byte VERSION = 2;
+    static final byte VERSION_INLINE_CODES = 1;
+
+    private final InternDictionary countryCodes;
+
+    public PhoneListConverter(InternDictionary countryCodes) {
+        this.countryCodes = countryCodes;
+    }
+
+    @Override
+    public byte[] convertToDatabaseColumn(List<Phone> phones) {
+        if (phones == null) {
+            return null;
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(2 + 12 * phones.size());
+        out.write(VERSION);
+        writeVarint(out, phones.size());
+        for (Phone phone : phones) {
+            writeVarint(out, zigZag(phone.getNumber()));
+            writeVarint(out, zigZag(phone.getCitycode()));
+            writeVarint(out, countryCodes.idOf(phone.getContrycode()));
+        }
+        return out.toByteArray();
+    }
+
+    @Override
+    public List<Phone> convertToEntityAttribute(byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        ByteBuffer in = ByteBuffer.wrap(data);
+        byte version = in.get();
+        if (version != VERSION && version != VERSION_INLINE_CODES) {
+            throw new IllegalArgumentException("Unsupported phones_data version " + version);
+        }
+        int count = (int) readVarint(in);
+        if (count == 0) {
+            return Collections.emptyList();
+        }
+        List<Phone> phones = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            long number = unZigZag(readVarint(in));
+            int citycode = (int) unZigZag(readVarint(in));
+            phones.add(new Phone(number, citycode, version == VERSION
+                ? countryCodes.codeOf((int) readVarint(in)) : readInlineCode(in)));
+        }
+        return phones;
+    }
+
+    private static String readInlineCode(ByteBuffer in) {
+        byte[] contrycode = new byte[(int) readVarint(in)];
+        in.get(contrycode);
+        return new String(contrycode, StandardCharsets.UTF_8);
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarint(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint in phones_data");
+    }
+}
@@ -1,26 +1,36 @@
 package com.example.userservice.entity;
 
+import com.example.userservice.util.EmailNormalizer;
+import com.example.userservice.util.TokenFingerprint;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import org.hibernate.annotations.GenericGenerator;
 
 import javax.persistence.*;
 import java.time.LocalDateTime;
+import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
 
 @Entity
-@Table(name = "users")
+@Table(name = "users", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_users_normalized_email", columnNames = "normalized_email"),
+    @UniqueConstraint(name = "uk_users_token_fingerprint", columnNames = "token_fingerprint")
+})
 public class User {
 
     @Id
-    @GeneratedValue(generator = "uuid2")
-    @GenericGenerator(name = "uuid2", strategy = "uuid2")
+    @GeneratedValue(generator = "user-id")
+    @GenericGenerator(name = "user-id", strategy = "com.example.userservice.entity.UserIdGenerator")
     @Column(columnDefinition = "BINARY(16)")
     private UUID id;
 
-    @Column(nullable = false, unique = true)
+    @Column(nullable = false)
     private String email;
 
+    // Lowercased copy of email, set together with it; uniqueness and lookups go through this column
+    @Column(name = "normalized_email", nullable = false)
+    private String normalizedEmail;
+
     @Column(nullable = false)
     private String password;
 
@@ -32,9 +42,14 @@ public class User {
     @Column(nullable = false)
     private LocalDateTime lastLogin;
 
-    @Column(nullable = false)
+    // Only the SHA-256 of the last issued token is stored; the token itself is handed to the client and
+    // kept here just for the response of the request that issued it
+    @Transient
     private String token;
 
+    @Column(name = "token_fingerprint", nullable = false, columnDefinition = "BINARY(32)")
+    private byte[] tokenFingerprint;
+
     @Column(nullable = false)
     private Boolean isActive;
 
@@ -42,6 +57,11 @@ public class User {
     @JsonManagedReference
     private List<Phone> phones;
 
+    // Phones packed into the users row (users.phones.storage=embedded); null while they live in the phones table
+    @Convert(converter = PhoneListConverter.class)
+    @Column(name = "phones_data", columnDefinition = "VARBINARY")
+    private List<Phone> embeddedPhones;
+
     public User() {
         this.created = LocalDateTime.now();
         this.lastLogin = LocalDateTime.now();
@@ -50,7 +70,7 @@ public class User {
 
     public User(String email, String password, String name, List<Phone> phones) {
         this();
-        this.email = email;
+        setEmail(email);
         this.password = password;
         this.name = name;
         this.phones = phones;
@@ -63,7 +83,12 @@ public class User {
     public void setId(UUID id) { this.id = id; }
 
     public String getEmail() { return email; }
-    public void setEmail(String email) { this.email = email; }
+    public void setEmail(String email) {
+        this.email = email;
+        this.normalizedEmail = EmailNormalizer.normalize(email);
+    }
+
+    public String getNormalizedEmail() { return normalizedEmail; }
 
     public String getPassword() { return password; }
     public void setPassword(String password) { this.password = password; }
@@ -78,16 +103,31 @@ public class User {
     public void setLastLogin(LocalDateTime lastLogin) { this.lastLogin = lastLogin; }
 
     public String getToken() { return token; }
-    public void setToken(String token) { this.token = token; }
+    public void setToken(String token) {
+        this.token = token;
+        this.tokenFingerprint = token == null ? null : TokenFingerprint.of(token).toBytes();
+    }
+
+    public byte[] getTokenFingerprint() { return tokenFingerprint; }
 
     public Boolean getIsActive() { return isActive; }
     public void setIsActive(Boolean isActive) { this.isActive = isActive; }
 
-    public List<Phone> getPhones() { return phones; }
+    public List<Phone> getPhones() { return embeddedPhones != null ? embeddedPhones : phones; }
     public void setPhones(List<Phone> phones) { 
         this.phones = phones;
         if (phones != null) {
             phones.forEach(phone -> phone.setUser(this));
         }
     }
-}
\ No newline at end of file
+
+    public List<Phone> getEmbeddedPhones() { return embeddedPhones; }
+
+    // Moves the phones into phones_data before the user is first saved, so nothing cascades to the phones table.
+    // No phones are stored as an empty list, which is what a joined read returns for them too.
+    public void embedPhones() {
+        List<Phone> current = getPhones();
+        this.embeddedPhones = current == null ? Collections.emptyList() : current;
+        this.phones = null;
+    }
+}
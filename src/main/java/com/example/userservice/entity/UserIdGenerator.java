@@ -0,0 +1,39 @@
+package com.example.userservice.entity;
+
+import com.example.userservice.util.UserIdStrategy;
+import org.hibernate.MappingException;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.Configurable;
+import org.hibernate.id.IdentifierGenerator;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.io.Serializable;
+import java.util.Properties;
+
+// Hibernate is not a Spring bean here, so the strategy is read from the Hibernate settings, where
+// application.properties forwards users.id.strategy through spring.jpa.properties
+public class UserIdGenerator implements IdentifierGenerator, Configurable {
+
+    private UserIdStrategy strategy = UserIdStrategy.TIME_ORDERED;
+
+    @Override
+    public void configure(Type type, Properties params, ServiceRegistry serviceRegistry) throws MappingException {
+        Object value = serviceRegistry.getService(ConfigurationService.class).getSettings()
+            .get(UserIdStrategy.PROPERTY);
+        if (value == null) {
+            return;
+        }
+        try {
+            strategy = UserIdStrategy.fromProperty(value.toString());
+        } catch (IllegalArgumentException e) {
+            throw new MappingException("Unknown " + UserIdStrategy.PROPERTY + ": " + value);
+        }
+    }
+
+    @Override
+    public Serializable generate(SharedSessionContractImplementor session, Object object) {
+        return strategy.get();
+    }
+}
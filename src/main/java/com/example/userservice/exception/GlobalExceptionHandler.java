@@ -1,11 +1,13 @@
 package com.example.userservice.exception;
 
 import com.example.userservice.dto.ErrorResponse;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.support.WebExchangeBindException;
 
 import java.util.Arrays;
 import java.util.List;
@@ -28,6 +30,22 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(response, HttpStatus.NOT_FOUND);
     }
 
+    @ExceptionHandler(IdempotencyKeyReusedException.class)
+    public ResponseEntity<ErrorResponse> handleIdempotencyKeyReused(IdempotencyKeyReusedException ex) {
+        ErrorResponse.ErrorDetail error = new ErrorResponse.ErrorDetail(HttpStatus.UNPROCESSABLE_ENTITY.value(), ex.getMessage());
+        ErrorResponse response = new ErrorResponse(Arrays.asList(error));
+        return new ResponseEntity<>(response, HttpStatus.UNPROCESSABLE_ENTITY);
+    }
+
+    @ExceptionHandler(ServiceOverloadedException.class)
+    public ResponseEntity<ErrorResponse> handleServiceOverloaded(ServiceOverloadedException ex) {
+        ErrorResponse.ErrorDetail error = new ErrorResponse.ErrorDetail(HttpStatus.SERVICE_UNAVAILABLE.value(), ex.getMessage());
+        ErrorResponse response = new ErrorResponse(Arrays.asList(error));
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+            .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+            .body(response);
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ErrorResponse> handleValidationErrors(MethodArgumentNotValidException ex) {
         List<ErrorResponse.ErrorDetail> errors = ex.getBindingResult().getFieldErrors().stream()
@@ -38,6 +56,17 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
     }
 
+    // WebFlux counterpart of MethodArgumentNotValidException (reactive profile)
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<ErrorResponse> handleValidationErrors(WebExchangeBindException ex) {
+        List<ErrorResponse.ErrorDetail> errors = ex.getBindingResult().getFieldErrors().stream()
+            .map(error -> new ErrorResponse.ErrorDetail(HttpStatus.BAD_REQUEST.value(), error.getDefaultMessage()))
+            .collect(Collectors.toList());
+
+        ErrorResponse response = new ErrorResponse(errors);
+        return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorResponse> handleGenericException(Exception ex) {
         ErrorResponse.ErrorDetail error = new ErrorResponse.ErrorDetail(HttpStatus.INTERNAL_SERVER_ERROR.value(), "Internal server error");
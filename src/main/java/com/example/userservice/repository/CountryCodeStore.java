@@ -0,0 +1,55 @@
+package com.example.userservice.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// JDBC access to the country_codes table behind the country code InternDictionary. A new code is committed in
+// its own transaction: it is usually added while a sign-up is being flushed, and its id must stay valid even if
+// that sign-up rolls back. The transaction manager is lazy because the converters, and so this store, are
+// created while the entity manager factory it depends on is being built.
+@Repository
+public class CountryCodeStore {
+
+    private static final String INSERT_IF_ABSENT = "insert into country_codes (code) select ? from dual "
+        + "where not exists (select 1 from country_codes where code = ?)";
+    private static final String SELECT_ID = "select id from country_codes where code = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate newTransaction;
+
+    @Autowired
+    public CountryCodeStore(JdbcTemplate jdbcTemplate, @Lazy PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public int insertIfAbsent(String code) {
+        try {
+            return newTransaction.execute(status -> {
+                jdbcTemplate.update(INSERT_IF_ABSENT, code, code);
+                return jdbcTemplate.queryForObject(SELECT_ID, Integer.class, code);
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Another instance added the same code between the NOT EXISTS and the insert
+            return jdbcTemplate.queryForObject(SELECT_ID, Integer.class, code);
+        }
+    }
+
+    public Map<Integer, String> findAll() {
+        Map<Integer, String> codes = new HashMap<>();
+        jdbcTemplate.query("select id, code from country_codes", rs -> {
+            codes.put(rs.getInt(1), rs.getString(2));
+        });
+        return codes;
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.userservice.repository;
+
+import com.example.userservice.dto.PhoneExportRow;
+import com.example.userservice.entity.Phone;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import static org.hibernate.annotations.QueryHints.FETCH_SIZE;
+import static org.hibernate.annotations.QueryHints.READ_ONLY;
+
+@Repository
+public interface PhoneRepository extends JpaRepository<Phone, Long> {
+
+    @Transactional(readOnly = true)
+    @QueryHints({@QueryHint(name = FETCH_SIZE, value = "1000"), @QueryHint(name = READ_ONLY, value = "true")})
+    @Query("select new com.example.userservice.dto.PhoneExportRow(p.user.id, p.number, p.citycode, p.contrycode) "
+        + "from Phone p where p.user.id in :userIds order by p.id")
+    List<PhoneExportRow> findExportRows(@Param("userIds") Collection<UUID> userIds);
+}
@@ -1,18 +1,68 @@
 package com.example.userservice.repository;
 
+import com.example.userservice.dto.UserExportRecord;
 import com.example.userservice.entity.User;
+import com.example.userservice.util.TokenFingerprint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
+import static org.hibernate.annotations.QueryHints.FETCH_SIZE;
+import static org.hibernate.annotations.QueryHints.READ_ONLY;
+
 @Repository
-public interface UserRepository extends JpaRepository<User, UUID> {
-    
-    Optional<User> findByEmail(String email);
+public interface UserRepository extends JpaRepository<User, UUID>, UserRepositoryCustom {
     
-    Optional<User> findByToken(String token);
+    // Email lookups take the normalized form (EmailNormalizer) and seek the uk_users_normalized_email index
+    Optional<User> findByNormalizedEmail(String normalizedEmail);
+
+    Optional<User> findByTokenFingerprint(byte[] tokenFingerprint);
+
+    default Optional<User> findByToken(String token) {
+        return findByTokenFingerprint(TokenFingerprint.of(token).toBytes());
+    }
     
-    boolean existsByEmail(String email);
+    boolean existsByNormalizedEmail(String normalizedEmail);
+
+    @Transactional
+    @Modifying
+    @Query("update User u set u.tokenFingerprint = :tokenFingerprint, u.lastLogin = :lastLogin where u.id = :id")
+    int updateLoginFingerprint(@Param("id") UUID id, @Param("tokenFingerprint") byte[] tokenFingerprint,
+                               @Param("lastLogin") LocalDateTime lastLogin);
+
+    default int updateLogin(UUID id, String token, LocalDateTime lastLogin) {
+        return updateLoginFingerprint(id, TokenFingerprint.of(token).toBytes(), lastLogin);
+    }
+
+    @Query("select u.normalizedEmail from User u order by u.id")
+    Slice<String> findEmails(Pageable pageable);
+
+    @Query("select u.normalizedEmail from User u where u.normalizedEmail in :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    // Keyset pages for the export: callers pass the last id of the previous page instead of an offset
+    @Transactional(readOnly = true)
+    @QueryHints({@QueryHint(name = FETCH_SIZE, value = "500"), @QueryHint(name = READ_ONLY, value = "true")})
+    @Query("select new com.example.userservice.dto.UserExportRecord(u.id, u.email, u.name, u.created, u.lastLogin, u.isActive, "
+        + "u.embeddedPhones) from User u order by u.id")
+    List<UserExportRecord> findExportPage(Pageable pageable);
+
+    @Transactional(readOnly = true)
+    @QueryHints({@QueryHint(name = FETCH_SIZE, value = "500"), @QueryHint(name = READ_ONLY, value = "true")})
+    @Query("select new com.example.userservice.dto.UserExportRecord(u.id, u.email, u.name, u.created, u.lastLogin, u.isActive, "
+        + "u.embeddedPhones) from User u where u.id > :after order by u.id")
+    List<UserExportRecord> findExportPageAfter(@Param("after") UUID after, Pageable pageable);
 }
\ No newline at end of file
@@ -0,0 +1,16 @@
+package com.example.userservice.repository;
+
+import com.example.userservice.entity.User;
+
+import java.util.Optional;
+
+public interface UserRepositoryCustom {
+
+    // Inserts the user and its phones in one transaction unless the normalized email is already taken;
+    // returns false in that case without having written anything
+    boolean insertIfAbsent(User user);
+
+    // Loads the user with its phones already in memory, so building the response never triggers a lazy load:
+    // one join with the phones table, or a single-row read when they are embedded in the users row
+    Optional<User> findWithPhonesByNormalizedEmail(String normalizedEmail);
+}
@@ -0,0 +1,113 @@
+package com.example.userservice.repository;
+
+import com.example.userservice.entity.Phone;
+import com.example.userservice.entity.PhoneListConverter;
+import com.example.userservice.entity.User;
+import com.example.userservice.util.InternDictionary;
+import com.example.userservice.util.PhoneStorage;
+import com.example.userservice.util.UserIdStrategy;
+import org.hibernate.Hibernate;
+import org.hibernate.jpa.TypedParameterValue;
+import org.hibernate.type.BinaryType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.nio.ByteBuffer;
+import java.util.Optional;
+import java.util.UUID;
+
+// The user row goes in with a single INSERT ... SELECT ... WHERE NOT EXISTS, so a taken email costs one
+// statement and no exception. Two sign-ups racing for the same new email both pass the NOT EXISTS, and the
+// loser hits uk_users_normalized_email, which reaches the caller as a DataIntegrityViolationException.
+// With users.phones.storage=embedded the phones travel in the same row and the phones table is not touched.
+public class UserRepositoryImpl implements UserRepositoryCustom {
+
+    private static final String INSERT_IF_ABSENT = "insert into users (id, email, normalized_email, password, name, "
+        + "created, last_login, token_fingerprint, is_active, phones_data) "
+        + "select ?1, ?2, ?3, ?4, ?5, ?6, ?7, ?8, ?9, ?10 from dual "
+        + "where not exists (select 1 from users where normalized_email = ?3)";
+    private static final String SELECT_WITH_JOINED_PHONES = "select u from User u left join fetch u.phones "
+        + "where u.normalizedEmail = :email";
+    private static final String SELECT_USER = "select u from User u where u.normalizedEmail = :email";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final UserIdStrategy idStrategy;
+    private final PhoneStorage phoneStorage;
+    private final PhoneListConverter phonesConverter;
+
+    @Autowired
+    public UserRepositoryImpl(@Value("${users.id.strategy:time-ordered}") String idStrategy,
+                              @Value("${users.phones.storage:table}") String phoneStorage,
+                              InternDictionary countryCodeDictionary) {
+        this.idStrategy = UserIdStrategy.fromProperty(idStrategy);
+        this.phoneStorage = PhoneStorage.fromProperty(phoneStorage);
+        this.phonesConverter = new PhoneListConverter(countryCodeDictionary);
+    }
+
+    @Override
+    @Transactional
+    public boolean insertIfAbsent(User user) {
+        if (phoneStorage == PhoneStorage.EMBEDDED) {
+            user.embedPhones();
+        }
+        UUID id = idStrategy.get();
+        int inserted = entityManager.createNativeQuery(INSERT_IF_ABSENT)
+            .setParameter(1, toBytes(id))
+            .setParameter(2, user.getEmail())
+            .setParameter(3, user.getNormalizedEmail())
+            .setParameter(4, user.getPassword())
+            .setParameter(5, user.getName())
+            .setParameter(6, user.getCreated())
+            .setParameter(7, user.getLastLogin())
+            .setParameter(8, user.getTokenFingerprint())
+            .setParameter(9, user.getIsActive())
+            // Typed so a null goes out as VARBINARY in table mode
+            .setParameter(10, new TypedParameterValue(BinaryType.INSTANCE,
+                phonesConverter.convertToDatabaseColumn(user.getEmbeddedPhones())))
+            .executeUpdate();
+        if (inserted == 0) {
+            return false;
+        }
+
+        user.setId(id);
+        if (user.getEmbeddedPhones() == null && user.getPhones() != null) {
+            // Persisted through JPA so they share the pooled phone_seq and go out as one JDBC batch
+            for (Phone phone : user.getPhones()) {
+                entityManager.persist(phone);
+            }
+        }
+        return true;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<User> findWithPhonesByNormalizedEmail(String normalizedEmail) {
+        if (phoneStorage == PhoneStorage.TABLE) {
+            return entityManager.createQuery(SELECT_WITH_JOINED_PHONES, User.class)
+                .setParameter("email", normalizedEmail)
+                .getResultList().stream()
+                .findFirst();
+        }
+        Optional<User> user = entityManager.createQuery(SELECT_USER, User.class)
+            .setParameter("email", normalizedEmail)
+            .getResultList().stream()
+            .findFirst();
+        // Not migrated yet (PhoneEmbeddingMigration): the phones are still in their table
+        user.filter(found -> found.getEmbeddedPhones() == null)
+            .ifPresent(found -> Hibernate.initialize(found.getPhones()));
+        return user;
+    }
+
+    // Same layout Hibernate uses for UUID ids stored as BINARY(16)
+    private static byte[] toBytes(UUID id) {
+        return ByteBuffer.allocate(16)
+            .putLong(id.getMostSignificantBits())
+            .putLong(id.getLeastSignificantBits())
+            .array();
+    }
+}
@@ -0,0 +1,261 @@
+package com.example.userservice.service;
+
+import com.example.userservice.dto.BatchSignUpResponse;
+import com.example.userservice.dto.BatchSignUpResult;
+import com.example.userservice.dto.UserSignUpRequest;
+import com.example.userservice.entity.User;
+import com.example.userservice.exception.ServiceOverloadedException;
+import com.example.userservice.repository.UserRepository;
+import com.example.userservice.util.EmailNormalizer;
+import com.example.userservice.util.InternDictionary;
+import com.example.userservice.util.JwtUtil;
+import com.example.userservice.util.PhoneStorage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+// Signs up many users at once: one IN query per chunk for existing emails, passwords hashed in
+// parallel windows on the PasswordHasher pool, and users/phones inserted through JDBC batches.
+// Like the single sign-up, the request thread is released while hashing and the inserts run on the
+// PersistenceExecutor.
+@Service
+public class BatchSignUpService {
+
+    private static final Logger log = LoggerFactory.getLogger(BatchSignUpService.class);
+
+    private final UserRepository userRepository;
+    private final PasswordHasher passwordHasher;
+    private final JwtUtil jwtUtil;
+    private final EmailExistenceIndex emailIndex;
+    private final UserService userService;
+    private final Validator validator;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final int hashWindow;
+    private final int lookupChunkSize;
+    private final int insertChunkSize;
+    private final PhoneStorage phoneStorage;
+    private final InternDictionary countryCodes;
+    private final PersistenceExecutor persistenceExecutor;
+
+    @Autowired
+    public BatchSignUpService(UserRepository userRepository,
+                              PasswordHasher passwordHasher,
+                              JwtUtil jwtUtil,
+                              EmailExistenceIndex emailIndex,
+                              UserService userService,
+                              Validator validator,
+                              EntityManager entityManager,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${users.batch.hash-window:32}") int hashWindow,
+                              @Value("${users.batch.lookup-chunk-size:500}") int lookupChunkSize,
+                              @Value("${users.batch.insert-chunk-size:50}") int insertChunkSize,
+                              @Value("${users.phones.storage:table}") String phoneStorage,
+                              InternDictionary countryCodeDictionary,
+                              PersistenceExecutor persistenceExecutor) {
+        this.userRepository = userRepository;
+        this.passwordHasher = passwordHasher;
+        this.jwtUtil = jwtUtil;
+        this.emailIndex = emailIndex;
+        this.userService = userService;
+        this.validator = validator;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.hashWindow = hashWindow;
+        this.lookupChunkSize = lookupChunkSize;
+        this.insertChunkSize = insertChunkSize;
+        this.phoneStorage = PhoneStorage.fromProperty(phoneStorage);
+        this.countryCodes = countryCodeDictionary;
+        this.persistenceExecutor = persistenceExecutor;
+    }
+
+    public CompletableFuture<BatchSignUpResponse> createUsers(List<UserSignUpRequest> requests) {
+        long started = System.nanoTime();
+        BatchSignUpResult[] results = new BatchSignUpResult[requests.size()];
+
+        // Keyed by normalized email, in request order; duplicates inside the batch lose to the first occurrence
+        Map<String, Integer> candidates = new LinkedHashMap<>();
+        for (int i = 0; i < requests.size(); i++) {
+            UserSignUpRequest request = requests.get(i);
+            List<String> errors = validate(request);
+            if (!errors.isEmpty()) {
+                results[i] = BatchSignUpResult.invalid(i, request != null ? request.getEmail() : null, errors);
+            } else if (candidates.putIfAbsent(EmailNormalizer.normalize(request.getEmail()), i) != null) {
+                results[i] = BatchSignUpResult.conflict(i, request.getEmail(), "Duplicate email in batch");
+            }
+        }
+
+        Set<String> existing = findExistingEmails(candidates.keySet());
+        List<Integer> accepted = new ArrayList<>(candidates.size());
+        candidates.forEach((email, index) -> {
+            if (existing.contains(email)) {
+                String requested = requests.get(index).getEmail();
+                results[index] = BatchSignUpResult.conflict(index, requested, "User already exists");
+            } else {
+                accepted.add(index);
+            }
+        });
+
+        return buildUsers(requests, accepted, 0, new Build(accepted.size()), results)
+            .thenApplyAsync(build -> {
+                // Users are built in accepted order, so an overload only cuts off the tail
+                List<User> users = build.users;
+                for (int from = 0; from < users.size(); from += insertChunkSize) {
+                    int to = Math.min(from + insertChunkSize, users.size());
+                    persistChunk(users.subList(from, to), accepted.subList(from, to), results);
+                }
+
+                BatchSignUpResponse response = new BatchSignUpResponse(Arrays.asList(results));
+                response.setRetryAfterSeconds(build.retryAfterSeconds);
+                log.info("Batch sign-up of {} users: {} created, {} conflicts, {} invalid, {} overloaded in {} ms",
+                    requests.size(), response.getCreated(), response.getConflicts(), response.getInvalid(),
+                    response.getOverloaded(), (System.nanoTime() - started) / 1_000_000);
+                return response;
+            }, persistenceExecutor);
+    }
+
+    private List<String> validate(UserSignUpRequest request) {
+        if (request == null) {
+            return List.of("User is required");
+        }
+        return validator.validate(request).stream()
+            .map(ConstraintViolation::getMessage)
+            .sorted()
+            .collect(Collectors.toList());
+    }
+
+    private Set<String> findExistingEmails(Set<String> emails) {
+        List<String> possible = emails.stream()
+            .filter(emailIndex::mightContain)
+            .collect(Collectors.toList());
+
+        Set<String> existing = new HashSet<>();
+        for (int from = 0; from < possible.size(); from += lookupChunkSize) {
+            existing.addAll(userRepository.findExistingEmails(
+                possible.subList(from, Math.min(from + lookupChunkSize, possible.size()))));
+        }
+        return existing;
+    }
+
+    // Hashes a window at a time so a large batch never floods the shared hashing queue. The next window is
+    // submitted when the previous one completes, so no thread blocks on BCrypt. Once the queue rejects a hash,
+    // that entry and every later one is reported OVERLOADED and nothing more is submitted; the hashes already
+    // running are not wasted, their users are still inserted.
+    private CompletableFuture<Build> buildUsers(List<UserSignUpRequest> requests, List<Integer> accepted, int from,
+                                                Build build, BatchSignUpResult[] results) {
+        if (from >= accepted.size()) {
+            return CompletableFuture.completedFuture(build);
+        }
+        List<Integer> window = accepted.subList(from, Math.min(from + hashWindow, accepted.size()));
+        List<CompletableFuture<String>> hashes = new ArrayList<>(window.size());
+        for (int index : window) {
+            try {
+                hashes.add(passwordHasher.encodeAsync(requests.get(index).getPassword()));
+            } catch (ServiceOverloadedException e) {
+                build.overloaded = true;
+                build.retryAfterSeconds = e.getRetryAfterSeconds();
+                for (int skipped : accepted.subList(from + hashes.size(), accepted.size())) {
+                    results[skipped] = BatchSignUpResult.overloaded(skipped, requests.get(skipped).getEmail(),
+                        e.getMessage());
+                }
+                break;
+            }
+        }
+
+        return CompletableFuture.allOf(hashes.toArray(new CompletableFuture<?>[0]))
+            .thenComposeAsync(done -> {
+                for (int i = 0; i < hashes.size(); i++) {
+                    build.users.add(newUser(requests.get(window.get(i)), hashes.get(i).join()));
+                }
+                return build.overloaded
+                    ? CompletableFuture.completedFuture(build)
+                    : buildUsers(requests, accepted, from + window.size(), build, results);
+            }, persistenceExecutor);
+    }
+
+    private User newUser(UserSignUpRequest request, String encodedPassword) {
+        User user = new User(request.getEmail(), encodedPassword, request.getName(),
+            UserService.toPhones(request.getPhones()));
+        user.setToken(jwtUtil.generateToken(user.getEmail()));
+        // Outside the chunk transactions, so a new code never holds a connection while it is assigned
+        UserService.internCountryCodes(countryCodes, user.getPhones());
+        if (phoneStorage == PhoneStorage.EMBEDDED) {
+            user.embedPhones();
+        }
+        return user;
+    }
+
+    private void persistChunk(List<User> chunk, List<Integer> indexes, BatchSignUpResult[] results) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                userRepository.saveAll(chunk);
+                userRepository.flush();
+                entityManager.clear();
+            });
+            for (int i = 0; i < chunk.size(); i++) {
+                created(chunk.get(i), indexes.get(i), results);
+            }
+        } catch (DataIntegrityViolationException e) {
+            // Someone registered one of these emails after the lookup; find it by inserting one by one
+            log.debug("Batch insert chunk failed, retrying {} users individually", chunk.size());
+            for (int i = 0; i < chunk.size(); i++) {
+                persistSingle(chunk.get(i), indexes.get(i), results);
+            }
+        }
+    }
+
+    private void persistSingle(User user, int index, BatchSignUpResult[] results) {
+        resetIds(user);
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                userRepository.saveAndFlush(user);
+                entityManager.clear();
+            });
+            created(user, index, results);
+        } catch (DataIntegrityViolationException e) {
+            results[index] = BatchSignUpResult.conflict(index, user.getEmail(), "User already exists");
+        }
+    }
+
+    private void created(User user, int index, BatchSignUpResult[] results) {
+        emailIndex.add(user.getEmail());
+        results[index] = BatchSignUpResult.created(index, userService.mapToResponse(user));
+    }
+
+    // Ids assigned by the rolled back flush would make save() merge instead of persist
+    private static void resetIds(User user) {
+        user.setId(null);
+        if (user.getPhones() != null) {
+            user.getPhones().forEach(phone -> phone.setId(null));
+        }
+    }
+
+    // Users built so far, in accepted order, and whether the hashing pool cut the batch short
+    private static final class Build {
+        private final List<User> users;
+        private boolean overloaded;
+        private long retryAfterSeconds;
+
+        private Build(int expected) {
+            this.users = new ArrayList<>(expected);
+        }
+    }
+}
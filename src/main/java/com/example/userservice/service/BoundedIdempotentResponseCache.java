@@ -0,0 +1,80 @@
+package com.example.userservice.service;
+
+import com.example.userservice.util.BoundedCache;
+import com.example.userservice.util.EmailNormalizer;
+import com.example.userservice.util.TokenFingerprint;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.LongAdder;
+
+// LRU + TTL response store backed by BoundedCache. Keys are kept as SHA-256 fingerprints, so an entry costs
+// the same whatever the length of the client's key and the keys themselves are never held in memory.
+public class BoundedIdempotentResponseCache implements IdempotentResponseCache {
+
+    private final BoundedCache<TokenFingerprint, IdempotentResponse> cache;
+    private final long ttlMillis;
+
+    private final LongAdder storedCount = new LongAdder();
+    private final LongAdder storedBytes = new LongAdder();
+
+    public BoundedIdempotentResponseCache(int maxSize, long ttlSeconds, MeterRegistry meterRegistry) {
+        this.cache = new BoundedCache<>(maxSize);
+        this.ttlMillis = ttlSeconds * 1000;
+
+        Gauge.builder("users.idempotency.size", cache, BoundedCache::size)
+            .description("Sign-up responses currently kept for replay")
+            .register(meterRegistry);
+        Gauge.builder("users.idempotency.memory", this, BoundedIdempotentResponseCache::estimatedBytes)
+            .baseUnit("bytes")
+            .description("Estimated heap held by kept sign-up responses")
+            .register(meterRegistry);
+        Gauge.builder("users.idempotency.hit-ratio", this, BoundedIdempotentResponseCache::hitRate)
+            .description("Share of keyed sign-ups answered from a kept response")
+            .register(meterRegistry);
+        FunctionCounter.builder("users.idempotency.requests", cache, BoundedCache::getHitCount)
+            .tag("result", "hit")
+            .register(meterRegistry);
+        FunctionCounter.builder("users.idempotency.requests", cache, BoundedCache::getMissCount)
+            .tag("result", "miss")
+            .register(meterRegistry);
+        FunctionCounter.builder("users.idempotency.evictions", cache, BoundedCache::getEvictionCount)
+            .description("Responses evicted to stay within the size bound")
+            .register(meterRegistry);
+        FunctionCounter.builder("users.idempotency.expirations", cache, BoundedCache::getExpirationCount)
+            .description("Responses dropped after their TTL")
+            .register(meterRegistry);
+    }
+
+    @Override
+    public IdempotentResponse get(String email, String idempotencyKey) {
+        return cache.get(scopedKey(email, idempotencyKey), System.currentTimeMillis());
+    }
+
+    @Override
+    public void put(String email, String idempotencyKey, IdempotentResponse response) {
+        storedCount.increment();
+        storedBytes.add(response.estimatedBytes());
+        cache.put(scopedKey(email, idempotencyKey), response, System.currentTimeMillis() + ttlMillis);
+    }
+
+    // A NUL never appears in a valid email, so email and key cannot run into each other
+    private static TokenFingerprint scopedKey(String email, String idempotencyKey) {
+        return TokenFingerprint.of((EmailNormalizer.normalize(email) + '\0' + idempotencyKey)
+            .getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Current size times the average size of the responses stored so far
+    public double estimatedBytes() {
+        long count = storedCount.sum();
+        return count == 0 ? 0 : (double) storedBytes.sum() / count * cache.size();
+    }
+
+    public double hitRate() {
+        long hits = cache.getHitCount();
+        long total = hits + cache.getMissCount();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.userservice.service;
+
+import com.example.userservice.util.BoundedCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.atomic.LongAdder;
+
+// LRU + TTL user cache backed by BoundedCache, with hit, miss, eviction and memory metrics
+public class BoundedUserSnapshotCache implements UserSnapshotCache {
+
+    private final BoundedCache<String, UserSnapshot> cache;
+    private final long ttlMillis;
+
+    private final LongAdder storedCount = new LongAdder();
+    private final LongAdder storedBytes = new LongAdder();
+
+    public BoundedUserSnapshotCache(int maxSize, long ttlSeconds, MeterRegistry meterRegistry) {
+        this.cache = new BoundedCache<>(maxSize);
+        this.ttlMillis = ttlSeconds * 1000;
+
+        Gauge.builder("users.cache.size", cache, BoundedCache::size)
+            .description("Users currently cached")
+            .register(meterRegistry);
+        Gauge.builder("users.cache.memory", this, BoundedUserSnapshotCache::estimatedBytes)
+            .baseUnit("bytes")
+            .description("Estimated heap held by cached users")
+            .register(meterRegistry);
+        Gauge.builder("users.cache.hit-ratio", this, BoundedUserSnapshotCache::hitRate)
+            .description("Share of lookups served from the cache")
+            .register(meterRegistry);
+        FunctionCounter.builder("users.cache.requests", cache, BoundedCache::getHitCount)
+            .tag("result", "hit")
+            .register(meterRegistry);
+        FunctionCounter.builder("users.cache.requests", cache, BoundedCache::getMissCount)
+            .tag("result", "miss")
+            .register(meterRegistry);
+        FunctionCounter.builder("users.cache.evictions", cache, BoundedCache::getEvictionCount)
+            .description("Users evicted to stay within the size bound")
+            .register(meterRegistry);
+        FunctionCounter.builder("users.cache.expirations", cache, BoundedCache::getExpirationCount)
+            .description("Users dropped after their TTL")
+            .register(meterRegistry);
+    }
+
+    @Override
+    public UserSnapshot get(String email) {
+        return cache.get(email, System.currentTimeMillis());
+    }
+
+    @Override
+    public void put(UserSnapshot snapshot) {
+        storedCount.increment();
+        storedBytes.add(snapshot.estimatedBytes());
+        cache.put(snapshot.getEmail(), snapshot, System.currentTimeMillis() + ttlMillis);
+    }
+
+    @Override
+    public void invalidate(String email) {
+        cache.invalidate(email);
+    }
+
+    // Current size times the average size of the snapshots stored so far
+    public double estimatedBytes() {
+        long count = storedCount.sum();
+        return count == 0 ? 0 : (double) storedBytes.sum() / count * cache.size();
+    }
+
+    public double hitRate() {
+        long hits = cache.getHitCount();
+        long total = hits + cache.getMissCount();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    BoundedCache<String, UserSnapshot> getCache() {
+        return cache;
+    }
+}
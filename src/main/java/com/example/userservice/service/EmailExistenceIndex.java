@@ -0,0 +1,171 @@
+package com.example.userservice.service;
+
+import com.example.userservice.repository.UserRepository;
+import com.example.userservice.util.ConcurrentBloomFilter;
+import com.example.userservice.util.EmailNormalizer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+// In-memory Bloom filter of registered emails. A negative answer is definitive, so batch sign-up leaves
+// those emails out of its IN query for existing emails; until the filter is loaded every email is reported
+// as possibly present. Single sign-up does not consult it: its insert-if-absent decides on its own.
+@Service
+public class EmailExistenceIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(EmailExistenceIndex.class);
+    private static final int LOAD_PAGE_SIZE = 1000;
+    private static final int DRIFT_CHECK_INTERVAL = 1024;
+
+    private final UserRepository userRepository;
+    private final boolean enabled;
+    private final long expectedInsertions;
+    private final double targetFpp;
+
+    private final ExecutorService rebuildExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "email-index-rebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private final AtomicLong addsSinceCheck = new AtomicLong();
+
+    // Swapped as one reference, so add() always sees a filter pair that rebuild() actually published
+    private volatile Filters filters = new Filters(null, null);
+
+    private final Counter definiteNegatives;
+    private final Counter possiblePositives;
+
+    @Autowired
+    public EmailExistenceIndex(UserRepository userRepository,
+                               MeterRegistry meterRegistry,
+                               @Value("${users.email-index.enabled:true}") boolean enabled,
+                               @Value("${users.email-index.expected-insertions:1000000}") long expectedInsertions,
+                               @Value("${users.email-index.fpp:0.01}") double targetFpp) {
+        this.userRepository = userRepository;
+        this.enabled = enabled;
+        this.expectedInsertions = expectedInsertions;
+        this.targetFpp = targetFpp;
+
+        Gauge.builder("users.email-index.memory", this,
+                index -> index.isReady() ? index.filters.current.getMemoryBytes() : 0)
+            .baseUnit("bytes")
+            .description("Heap used by the email Bloom filter")
+            .register(meterRegistry);
+        Gauge.builder("users.email-index.fpp", this,
+                index -> index.isReady() ? index.filters.current.expectedFpp() : 1.0)
+            .description("Estimated false positive probability of the email Bloom filter")
+            .register(meterRegistry);
+        this.definiteNegatives = meterRegistry.counter("users.email-index.lookups", "result", "negative");
+        this.possiblePositives = meterRegistry.counter("users.email-index.lookups", "result", "positive");
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadInBackground() {
+        if (enabled) {
+            scheduleRebuild();
+        }
+    }
+
+    public boolean mightContain(String email) {
+        ConcurrentBloomFilter current = filters.current;
+        if (current == null || current.mightContain(EmailNormalizer.normalize(email))) {
+            possiblePositives.increment();
+            return true;
+        }
+        definiteNegatives.increment();
+        return false;
+    }
+
+    public void add(String email) {
+        String normalizedEmail = EmailNormalizer.normalize(email);
+        // One read of the pair: either a rebuild is loading and gets the email too, or none had started when the
+        // email was committed and its scan will find it
+        Filters snapshot = filters;
+        ConcurrentBloomFilter current = snapshot.current;
+        if (current != null) {
+            current.put(normalizedEmail);
+        }
+        if (snapshot.building != null) {
+            snapshot.building.put(normalizedEmail);
+        }
+        if (current != null && addsSinceCheck.incrementAndGet() % DRIFT_CHECK_INTERVAL == 0
+            && current.expectedFpp() > targetFpp) {
+            log.info("Email index estimated FPP {} exceeds target {}, rebuilding", current.expectedFpp(), targetFpp);
+            scheduleRebuild();
+        }
+    }
+
+    public void scheduleRebuild() {
+        if (rebuilding.compareAndSet(false, true)) {
+            rebuildExecutor.execute(() -> {
+                try {
+                    rebuild();
+                } catch (RuntimeException e) {
+                    log.warn("Email index rebuild failed, lookups fall back to the database", e);
+                } finally {
+                    rebuilding.set(false);
+                }
+            });
+        }
+    }
+
+    // Sign-ups that happen while loading are written to both filters, so none is lost on the swap
+    void rebuild() {
+        long started = System.nanoTime();
+        long userCount = userRepository.count();
+        ConcurrentBloomFilter building = ConcurrentBloomFilter.create(Math.max(expectedInsertions, userCount * 2), targetFpp);
+        filters = new Filters(filters.current, building);
+
+        Pageable page = PageRequest.of(0, LOAD_PAGE_SIZE);
+        Slice<String> emails;
+        do {
+            emails = userRepository.findEmails(page);
+            emails.forEach(building::put);
+            page = emails.nextPageable();
+        } while (emails.hasNext());
+
+        filters = new Filters(building, null);
+        log.info("Email index loaded {} users in {} ms: {} bytes, {} hash functions, estimated FPP {}",
+            userCount, (System.nanoTime() - started) / 1_000_000, building.getMemoryBytes(),
+            building.getHashCount(), building.expectedFpp());
+    }
+
+    public boolean isReady() {
+        return filters.current != null;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuildExecutor.shutdownNow();
+    }
+
+    private static final class Filters {
+
+        // Answers lookups; null until the first load completes
+        final ConcurrentBloomFilter current;
+        // Being loaded by a rebuild; null otherwise
+        final ConcurrentBloomFilter building;
+
+        Filters(ConcurrentBloomFilter current, ConcurrentBloomFilter building) {
+            this.current = current;
+            this.building = building;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.userservice.service;
+
+import com.example.userservice.dto.PhoneDto;
+import com.example.userservice.dto.UserSignUpRequest;
+import com.example.userservice.util.TokenFingerprint;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+// A completed sign-up response kept for Idempotency-Key replays: the status and the JSON bytes as first sent,
+// plus the SHA-256 of the whole request, so only a byte-for-byte identical sign-up (password included) is
+// answered with the stored body and its token
+public final class IdempotentResponse {
+
+    private final TokenFingerprint requestDigest;
+    private final int status;
+    private final byte[] body;
+
+    private IdempotentResponse(TokenFingerprint requestDigest, int status, byte[] body) {
+        this.requestDigest = requestDigest;
+        this.status = status;
+        this.body = body;
+    }
+
+    public static IdempotentResponse of(UserSignUpRequest request, int status, byte[] body) {
+        return new IdempotentResponse(digest(request), status, body);
+    }
+
+    public boolean matches(UserSignUpRequest request) {
+        return requestDigest.equals(digest(request));
+    }
+
+    public int getStatus() { return status; }
+
+    public byte[] getBody() { return body; }
+
+    // Object headers, the fingerprint key and its map entry, the request digest and the body array
+    public long estimatedBytes() {
+        return 32 + 96 + 16 + 64 + body.length;
+    }
+
+    // Every field length-prefixed (or marked null), so no two different requests encode to the same bytes
+    static TokenFingerprint digest(UserSignUpRequest request) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            writeString(out, request.getEmail());
+            writeString(out, request.getPassword());
+            writeString(out, request.getName());
+            List<PhoneDto> phones = request.getPhones();
+            out.writeInt(phones == null ? -1 : phones.size());
+            if (phones != null) {
+                for (PhoneDto phone : phones) {
+                    out.writeBoolean(phone.getNumber() != null);
+                    out.writeLong(phone.getNumber() == null ? 0 : phone.getNumber());
+                    out.writeBoolean(phone.getCitycode() != null);
+                    out.writeInt(phone.getCitycode() == null ? 0 : phone.getCitycode());
+                    writeString(out, phone.getContrycode());
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return TokenFingerprint.of(bytes.toByteArray());
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(utf8.length);
+        out.write(utf8);
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.userservice.service;
+
+// Completed sign-up responses by Idempotency-Key, so a client resending the same sign-up gets the original
+// answer without another BCrypt hash or database round trip. Keys are scoped to the sign-up's normalized email:
+// the same key sent for another email is a different entry, never that email's response.
+public interface IdempotentResponseCache {
+
+    IdempotentResponse get(String email, String idempotencyKey);
+
+    void put(String email, String idempotencyKey, IdempotentResponse response);
+
+    static IdempotentResponseCache disabled() {
+        return new IdempotentResponseCache() {
+            @Override
+            public IdempotentResponse get(String email, String idempotencyKey) {
+                return null;
+            }
+
+            @Override
+            public void put(String email, String idempotencyKey, IdempotentResponse response) {
+            }
+        };
+    }
+}
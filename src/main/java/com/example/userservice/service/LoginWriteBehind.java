@@ -0,0 +1,210 @@
+package com.example.userservice.service;
+
+import com.example.userservice.util.TokenFingerprint;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.nio.ByteBuffer;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Optional write-behind for the token/lastLogin update done on every login. Logins of the same user
+// between two flushes collapse into one row update, and a background thread writes them in JDBC batches.
+@Service
+public class LoginWriteBehind {
+
+    private static final Logger log = LoggerFactory.getLogger(LoginWriteBehind.class);
+    private static final String UPDATE_SQL = "update users set token_fingerprint = ?, last_login = ? where id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final int maxPending;
+    private final long flushIntervalMillis;
+    private final int batchSize;
+
+    private final Map<UUID, PendingLogin> pending = new ConcurrentHashMap<>();
+    // Slots taken in pending; reserved before an insert so concurrent new users cannot overshoot maxPending
+    private final AtomicInteger reserved = new AtomicInteger();
+    private ScheduledExecutorService flusher;
+
+    private final Timer flushTimer;
+    private final Counter coalescedCounter;
+    private final Counter rejectedCounter;
+    private final Counter failedCounter;
+
+    @Autowired
+    public LoginWriteBehind(JdbcTemplate jdbcTemplate,
+                            MeterRegistry meterRegistry,
+                            @Value("${users.login.write-behind.enabled:false}") boolean enabled,
+                            @Value("${users.login.write-behind.max-pending:10000}") int maxPending,
+                            @Value("${users.login.write-behind.flush-interval-ms:200}") long flushIntervalMillis,
+                            @Value("${users.login.write-behind.batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.maxPending = maxPending;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.batchSize = batchSize;
+
+        Gauge.builder("users.login.write-behind.pending", pending, Map::size)
+            .description("Login updates buffered and not yet written")
+            .register(meterRegistry);
+        this.flushTimer = Timer.builder("users.login.write-behind.flush")
+            .description("Time spent writing one batch of buffered login updates")
+            .register(meterRegistry);
+        this.coalescedCounter = Counter.builder("users.login.write-behind.coalesced")
+            .description("Login updates that replaced a buffered update for the same user")
+            .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("users.login.write-behind.rejected")
+            .description("Login updates written synchronously because the buffer was full")
+            .register(meterRegistry);
+        this.failedCounter = Counter.builder("users.login.write-behind.failed")
+            .description("Flushes that failed; their updates stay buffered for the next one")
+            .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "login-write-behind");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    // Returns false when the caller must save the user itself: write-behind is off or the buffer is full
+    public boolean offer(UUID userId, String token, LocalDateTime lastLogin) {
+        if (!enabled) {
+            return false;
+        }
+        PendingLogin update = new PendingLogin(token, lastLogin);
+        while (true) {
+            if (pending.computeIfPresent(userId, (id, current) -> update.newest(current)) != null) {
+                coalescedCounter.increment();
+                return true;
+            }
+            if (reserved.incrementAndGet() > maxPending) {
+                reserved.decrementAndGet();
+                rejectedCounter.increment();
+                return false;
+            }
+            if (pending.putIfAbsent(userId, update) == null) {
+                return true;
+            }
+            // Another login of the same user got in first; give the slot back and coalesce into it
+            reserved.decrementAndGet();
+        }
+    }
+
+    public int flush() {
+        List<UUID> ids = new ArrayList<>(Math.min(batchSize, pending.size()));
+        List<PendingLogin> updates = new ArrayList<>(ids.size());
+        int written = 0;
+        for (Map.Entry<UUID, PendingLogin> entry : pending.entrySet()) {
+            ids.add(entry.getKey());
+            updates.add(entry.getValue());
+            if (ids.size() == batchSize) {
+                written += writeBatch(ids, updates);
+                ids.clear();
+                updates.clear();
+            }
+        }
+        if (!ids.isEmpty()) {
+            written += writeBatch(ids, updates);
+        }
+        return written;
+    }
+
+    private int writeBatch(List<UUID> ids, List<PendingLogin> updates) {
+        List<Object[]> rows = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            PendingLogin update = updates.get(i);
+            rows.add(new Object[] {TokenFingerprint.of(update.token).toBytes(), Timestamp.valueOf(update.lastLogin), toBytes(ids.get(i))});
+        }
+
+        flushTimer.record(() -> jdbcTemplate.batchUpdate(UPDATE_SQL, rows));
+        // Entries replaced by a newer login while the batch was running stay buffered for the next flush
+        for (int i = 0; i < ids.size(); i++) {
+            if (pending.remove(ids.get(i), updates.get(i))) {
+                reserved.decrementAndGet();
+            }
+        }
+        return ids.size();
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (DataAccessException e) {
+            failedCounter.increment();
+            log.warn("Login write-behind flush failed, {} updates stay buffered", pending.size(), e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (flusher == null) {
+            return;
+        }
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            log.info("Login write-behind flushed {} updates on shutdown", flush());
+        } catch (DataAccessException e) {
+            log.error("Login write-behind lost {} updates on shutdown", pending.size(), e);
+        }
+    }
+
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    // Same layout Hibernate uses for UUID ids stored as BINARY(16)
+    private static byte[] toBytes(UUID id) {
+        return ByteBuffer.allocate(16)
+            .putLong(id.getMostSignificantBits())
+            .putLong(id.getLeastSignificantBits())
+            .array();
+    }
+
+    private static final class PendingLogin {
+        private final String token;
+        private final LocalDateTime lastLogin;
+
+        private PendingLogin(String token, LocalDateTime lastLogin) {
+            this.token = token;
+            this.lastLogin = lastLogin;
+        }
+
+        private PendingLogin newest(PendingLogin other) {
+            return other.lastLogin.isAfter(lastLogin) ? other : this;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.userservice.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Runs the blocking part of a sign-up that follows BCrypt (JWT signing, the insert transaction, index and cache
+// updates), so hashing threads go straight back to hashing instead of waiting on pooled connections. Sized like
+// the connection pool. When the database falls behind and the queue fills, the completing hashing thread runs the
+// task itself, which slows hashing to the database's pace instead of piling up work.
+@Service
+public class PersistenceExecutor implements Executor {
+
+    private final ThreadPoolExecutor executor;
+
+    @Autowired
+    public PersistenceExecutor(@Value("${users.persistence.threads:10}") int threads,
+                               @Value("${users.persistence.queue-capacity:256}") int queueCapacity) {
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            runnable -> {
+                Thread thread = new Thread(runnable, "persistence-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        executor.execute(task);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.userservice.service;
+
+import com.example.userservice.entity.Phone;
+import com.example.userservice.entity.PhoneListConverter;
+import com.example.userservice.util.InternDictionary;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Moves phones from the phones table into users.phones_data, one page of users per transaction: the page's
+// phones are read with one IN query, written back as one JDBC batch and deleted. Pages are taken from the users
+// still without phones_data, so the job can be stopped and rerun at any point. Run it after switching
+// users.phones.storage to embedded, so no sign-up adds phones rows behind it.
+@Service
+public class PhoneEmbeddingMigration {
+
+    private static final Logger log = LoggerFactory.getLogger(PhoneEmbeddingMigration.class);
+    private static final String SELECT_PAGE = "select id from users where phones_data is null order by id limit ?";
+    private static final String UPDATE_SQL = "update users set phones_data = ? where id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final InternDictionary countryCodes;
+    private final PhoneListConverter phonesConverter;
+    private final int pageSize;
+
+    @Autowired
+    public PhoneEmbeddingMigration(JdbcTemplate jdbcTemplate,
+                                   PlatformTransactionManager transactionManager,
+                                   InternDictionary countryCodeDictionary,
+                                   @Value("${users.phones.migration.page-size:500}") int pageSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.countryCodes = countryCodeDictionary;
+        this.phonesConverter = new PhoneListConverter(countryCodeDictionary);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.pageSize = pageSize;
+    }
+
+    public long migrate() {
+        long started = System.nanoTime();
+        long migrated = 0;
+        int page;
+        do {
+            page = transactionTemplate.execute(status -> migratePage());
+            migrated += page;
+        } while (page == pageSize);
+        log.info("Embedded the phones of {} users in {} ms", migrated, (System.nanoTime() - started) / 1_000_000);
+        return migrated;
+    }
+
+    private int migratePage() {
+        List<byte[]> ids = jdbcTemplate.queryForList(SELECT_PAGE, byte[].class, pageSize);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        String in = String.join(", ", Collections.nCopies(ids.size(), "?"));
+        Object[] idArgs = ids.toArray();
+
+        Map<ByteBuffer, List<Phone>> phonesByUser = new HashMap<>();
+        jdbcTemplate.query("select user_id, number, citycode, country_code from phones where user_id in (" + in
+            + ") order by id", rs -> {
+                phonesByUser.computeIfAbsent(ByteBuffer.wrap(rs.getBytes(1)), id -> new ArrayList<>())
+                    .add(new Phone(rs.getLong(2), rs.getInt(3), countryCodes.codeOf(rs.getInt(4))));
+            }, idArgs);
+
+        List<Object[]> rows = new ArrayList<>(ids.size());
+        for (byte[] id : ids) {
+            List<Phone> phones = phonesByUser.getOrDefault(ByteBuffer.wrap(id), Collections.emptyList());
+            rows.add(new Object[] {phonesConverter.convertToDatabaseColumn(phones), id});
+        }
+        jdbcTemplate.batchUpdate(UPDATE_SQL, rows);
+        jdbcTemplate.update("delete from phones where user_id in (" + in + ")", idArgs);
+        return ids.size();
+    }
+}
@@ -0,0 +1,257 @@
+package com.example.userservice.service;
+
+import com.example.userservice.dto.PhoneDto;
+import com.example.userservice.dto.UserResponse;
+import com.example.userservice.dto.UserSignUpRequest;
+import com.example.userservice.entity.Phone;
+import com.example.userservice.entity.PhoneListConverter;
+import com.example.userservice.exception.UserAlreadyExistsException;
+import com.example.userservice.exception.UserNotFoundException;
+import com.example.userservice.util.EmailNormalizer;
+import com.example.userservice.util.InternDictionary;
+import com.example.userservice.util.JwtUtil;
+import com.example.userservice.util.PhoneStorage;
+import com.example.userservice.util.TokenFingerprint;
+import com.example.userservice.util.UserIdStrategy;
+import io.jsonwebtoken.JwtException;
+import io.r2dbc.spi.Row;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+// Non-blocking counterpart of UserService for the reactive profile. Same tables and contracts, but SQL goes
+// through R2DBC and BCrypt runs on PasswordHasher's bounded pool, so no event-loop thread ever blocks.
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveUserService {
+
+    // Same insert-if-absent as UserRepositoryImpl: a taken email inserts nothing instead of failing
+    private static final String INSERT_USER = "insert into users (id, email, normalized_email, password, name, "
+        + "created, last_login, token_fingerprint, is_active, phones_data) select :id, :email, :normalizedEmail, "
+        + ":password, :name, :created, :lastLogin, :tokenFingerprint, :isActive, :phonesData from dual "
+        + "where not exists (select 1 from users where normalized_email = :normalizedEmail)";
+    // Each nextval reserves a whole block for Hibernate's pooled optimizer, so its value never collides
+    private static final String INSERT_PHONE = "insert into phones (id, number, citycode, country_code, user_id) "
+        + "values (next value for phone_seq, :number, :citycode, :countryCode, :userId)";
+    // Rows with phones_data carry their phones and never match the join, so they come back as one row
+    private static final String SELECT_USER_WITH_PHONES = "select u.id, u.email, u.password, u.name, u.created, "
+        + "u.is_active, u.phones_data, p.number, p.citycode, p.country_code from users u "
+        + "left join phones p on p.user_id = u.id and u.phones_data is null "
+        + "where u.normalized_email = :email order by p.id";
+    private static final String UPDATE_LOGIN = "update users set token_fingerprint = :tokenFingerprint, "
+        + "last_login = :lastLogin where id = :id";
+
+    private final DatabaseClient databaseClient;
+    private final TransactionalOperator transactionalOperator;
+    private final PasswordHasher passwordHasher;
+    private final JwtUtil jwtUtil;
+    private final EmailExistenceIndex emailIndex;
+    private final UserIdStrategy idStrategy;
+    private final PhoneStorage phoneStorage;
+    private final InternDictionary countryCodes;
+    private final PhoneListConverter phonesConverter;
+
+    @Autowired
+    public ReactiveUserService(DatabaseClient databaseClient, TransactionalOperator transactionalOperator,
+                               PasswordHasher passwordHasher, JwtUtil jwtUtil, EmailExistenceIndex emailIndex,
+                               @Value("${users.id.strategy:time-ordered}") String idStrategy,
+                               @Value("${users.phones.storage:table}") String phoneStorage,
+                               InternDictionary countryCodeDictionary) {
+        this.databaseClient = databaseClient;
+        this.transactionalOperator = transactionalOperator;
+        this.passwordHasher = passwordHasher;
+        this.jwtUtil = jwtUtil;
+        this.emailIndex = emailIndex;
+        this.idStrategy = UserIdStrategy.fromProperty(idStrategy);
+        this.phoneStorage = PhoneStorage.fromProperty(phoneStorage);
+        this.countryCodes = countryCodeDictionary;
+        this.phonesConverter = new PhoneListConverter(countryCodeDictionary);
+    }
+
+    public Mono<UserResponse> createUser(UserSignUpRequest request) {
+        return Mono.defer(() -> Mono.fromFuture(passwordHasher.encodeAsync(request.getPassword())))
+            .flatMap(encodedPassword -> {
+                UserResponse user = new UserResponse();
+                LocalDateTime now = LocalDateTime.now();
+                user.setId(idStrategy.get());
+                user.setEmail(request.getEmail());
+                user.setPassword(encodedPassword);
+                user.setName(request.getName());
+                user.setCreated(now);
+                user.setLastLogin(now);
+                user.setToken(jwtUtil.generateToken(request.getEmail()));
+                user.setIsActive(true);
+                user.setPhones(request.getPhones());
+                return internCountryCodes(user.getPhones()).then(Mono.defer(() -> insert(user))).thenReturn(user);
+            })
+            // Lost a race with a concurrent sign-up for the same email
+            .onErrorMap(DataIntegrityViolationException.class,
+                e -> new UserAlreadyExistsException("User already exists"))
+            .doOnNext(user -> emailIndex.add(user.getEmail()));
+    }
+
+    public Mono<UserResponse> loginUser(String token) {
+        return Mono.fromCallable(() -> verifiedSubject(token))
+            .flatMap(email -> databaseClient.sql(SELECT_USER_WITH_PHONES)
+                .bind("email", EmailNormalizer.normalize(email))
+                .map((row, metadata) -> new UserRow(row, phonesConverter, countryCodes))
+                .all()
+                .collectList()
+                .map(ReactiveUserService::toResponse))
+            .filter(user -> user.getId() != null)
+            .switchIfEmpty(Mono.error(() -> new UserNotFoundException("User not found")))
+            .flatMap(user -> {
+                // Genera nuevo token y actualiza el ultimo login
+                user.setToken(jwtUtil.generateToken(user.getEmail()));
+                user.setLastLogin(LocalDateTime.now());
+                return databaseClient.sql(UPDATE_LOGIN)
+                    .bind("tokenFingerprint", TokenFingerprint.of(user.getToken()).toBytes())
+                    .bind("lastLogin", user.getLastLogin())
+                    .bind("id", toBytes(user.getId()))
+                    .fetch()
+                    .rowsUpdated()
+                    .thenReturn(user);
+            });
+    }
+
+    private Mono<Void> insert(UserResponse user) {
+        byte[] userId = toBytes(user.getId());
+        List<PhoneDto> phones = user.getPhones() == null ? Collections.emptyList() : user.getPhones();
+        boolean embedded = phoneStorage == PhoneStorage.EMBEDDED;
+        DatabaseClient.GenericExecuteSpec insertUserSpec = databaseClient.sql(INSERT_USER)
+            .bind("id", userId)
+            .bind("email", user.getEmail())
+            .bind("normalizedEmail", EmailNormalizer.normalize(user.getEmail()))
+            .bind("password", user.getPassword())
+            .bind("name", user.getName())
+            .bind("created", user.getCreated())
+            .bind("lastLogin", user.getLastLogin())
+            .bind("tokenFingerprint", TokenFingerprint.of(user.getToken()).toBytes())
+            .bind("isActive", true);
+        insertUserSpec = embedded
+            ? insertUserSpec.bind("phonesData", phonesConverter.convertToDatabaseColumn(toPhones(phones)))
+            : insertUserSpec.bindNull("phonesData", byte[].class);
+        Mono<Integer> insertUser = insertUserSpec.fetch().rowsUpdated();
+        Flux<Integer> insertPhones = Flux.fromIterable(embedded ? Collections.<PhoneDto>emptyList() : phones)
+            .concatMap(phone -> databaseClient.sql(INSERT_PHONE)
+                .bind("number", phone.getNumber())
+                .bind("citycode", phone.getCitycode())
+                .bind("countryCode", countryCodes.idOf(phone.getContrycode()))
+                .bind("userId", userId)
+                .fetch()
+                .rowsUpdated());
+        return insertUser
+            .flatMap(inserted -> inserted == 0
+                ? Mono.<Void>error(new UserAlreadyExistsException("User already exists"))
+                : insertPhones.then())
+            .as(transactionalOperator::transactional);
+    }
+
+    // A code not seen yet is added to country_codes over JDBC, so that happens off the event loop; known codes,
+    // nearly all of them, resolve from memory
+    private Mono<Void> internCountryCodes(List<PhoneDto> phones) {
+        if (phones == null || phones.stream().allMatch(phone -> countryCodes.contains(phone.getContrycode()))) {
+            return Mono.empty();
+        }
+        return Mono.<Void>fromRunnable(() -> phones.forEach(phone -> countryCodes.idOf(phone.getContrycode())))
+            .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private String verifiedSubject(String token) {
+        try {
+            return jwtUtil.verifyToken(token).getSubject();
+        } catch (JwtException | IllegalArgumentException e) {
+            throw new UserNotFoundException("Invalid token");
+        }
+    }
+
+    // One row per phone, or a single row with null phone columns for a user without phones
+    private static UserResponse toResponse(List<UserRow> rows) {
+        UserResponse user = new UserResponse();
+        if (rows.isEmpty()) {
+            return user;
+        }
+        UserRow first = rows.get(0);
+        user.setId(toUuid(first.id));
+        user.setEmail(first.email);
+        user.setPassword(first.password);
+        user.setName(first.name);
+        user.setCreated(first.created);
+        user.setIsActive(first.active);
+
+        if (first.embeddedPhones != null) {
+            user.setPhones(first.embeddedPhones.stream()
+                .map(phone -> new PhoneDto(phone.getNumber(), phone.getCitycode(), phone.getContrycode()))
+                .collect(Collectors.toList()));
+            return user;
+        }
+        List<PhoneDto> phones = new ArrayList<>(rows.size());
+        for (UserRow row : rows) {
+            if (row.phone != null) {
+                phones.add(row.phone);
+            }
+        }
+        user.setPhones(phones);
+        return user;
+    }
+
+    // Same layout Hibernate uses for UUID ids stored as BINARY(16)
+    private static byte[] toBytes(UUID id) {
+        return ByteBuffer.allocate(16)
+            .putLong(id.getMostSignificantBits())
+            .putLong(id.getLeastSignificantBits())
+            .array();
+    }
+
+    private static List<Phone> toPhones(List<PhoneDto> phones) {
+        return phones.stream()
+            .map(phone -> new Phone(phone.getNumber(), phone.getCitycode(), phone.getContrycode()))
+            .collect(Collectors.toList());
+    }
+
+    private static UUID toUuid(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+
+    // Values are copied out because an R2DBC row is only readable inside the mapping function
+    private static final class UserRow {
+        private final byte[] id;
+        private final String email;
+        private final String password;
+        private final String name;
+        private final LocalDateTime created;
+        private final Boolean active;
+        private final List<Phone> embeddedPhones;
+        private final PhoneDto phone;
+
+        private UserRow(Row row, PhoneListConverter phonesConverter, InternDictionary countryCodes) {
+            this.id = row.get("id", byte[].class);
+            this.email = row.get("email", String.class);
+            this.password = row.get("password", String.class);
+            this.name = row.get("name", String.class);
+            this.created = row.get("created", LocalDateTime.class);
+            this.active = row.get("is_active", Boolean.class);
+            this.embeddedPhones = phonesConverter.convertToEntityAttribute(row.get("phones_data", byte[].class));
+            Long number = row.get("number", Long.class);
+            this.phone = number == null ? null
+                : new PhoneDto(number, row.get("citycode", Integer.class),
+                    countryCodes.codeOf(row.get("country_code", Integer.class)));
+        }
+    }
+}
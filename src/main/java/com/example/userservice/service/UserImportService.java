@@ -0,0 +1,233 @@
+package com.example.userservice.service;
+
+import com.example.userservice.dto.BatchSignUpResponse;
+import com.example.userservice.dto.BatchSignUpResult;
+import com.example.userservice.dto.BatchSignUpStatus;
+import com.example.userservice.dto.UserSignUpRequest;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Imports an NDJSON file of sign-up requests. A reader thread parses lines into fixed-size chunks on a
+// bounded queue and the caller commits them through BatchSignUpService, so memory stays flat for any
+// file size. The last committed line is written to <file>.checkpoint, and a rerun resumes after it.
+@Service
+public class UserImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(UserImportService.class);
+    private static final Chunk END = new Chunk(Collections.emptyList(), 0, 0);
+
+    private final BatchSignUpService batchSignUpService;
+    private final ObjectReader requestReader;
+    private final int chunkSize;
+    private final int queueCapacity;
+
+    @Autowired
+    public UserImportService(BatchSignUpService batchSignUpService,
+                             ObjectMapper objectMapper,
+                             @Value("${users.import.chunk-size:500}") int chunkSize,
+                             @Value("${users.import.queue-capacity:2}") int queueCapacity) {
+        this.batchSignUpService = batchSignUpService;
+        this.requestReader = objectMapper.readerFor(UserSignUpRequest.class);
+        this.chunkSize = chunkSize;
+        this.queueCapacity = queueCapacity;
+    }
+
+    public ImportReport importFile(Path file) throws IOException, InterruptedException {
+        Path checkpoint = checkpointFor(file);
+        long resumeAfter = readCheckpoint(checkpoint);
+        if (resumeAfter > 0) {
+            log.info("Resuming import of {} after line {}", file, resumeAfter);
+        }
+
+        BlockingQueue<Chunk> chunks = new ArrayBlockingQueue<>(queueCapacity);
+        AtomicReference<Exception> readFailure = new AtomicReference<>();
+        Thread reader = new Thread(() -> readChunks(file, resumeAfter, chunks, readFailure), "user-import-reader");
+        reader.setDaemon(true);
+        reader.start();
+
+        ImportReport report = new ImportReport(resumeAfter);
+        long started = System.nanoTime();
+        try {
+            Chunk chunk;
+            while ((chunk = chunks.take()) != END) {
+                if (!chunk.requests.isEmpty()) {
+                    commit(chunk.requests, report);
+                }
+                report.malformed += chunk.malformed;
+                report.lastLine = chunk.lastLine;
+                writeCheckpoint(checkpoint, chunk.lastLine);
+                log.info("Imported up to line {}: {} created, {} conflicts, {} invalid, {} malformed ({} lines/s)",
+                    report.lastLine, report.created, report.conflicts, report.invalid, report.malformed,
+                    report.linesPerSecond(System.nanoTime() - started));
+            }
+        } finally {
+            reader.interrupt();
+        }
+
+        Exception failure = readFailure.get();
+        if (failure instanceof IOException) {
+            throw (IOException) failure;
+        }
+        if (failure != null) {
+            throw new IllegalStateException("Import reader failed", failure);
+        }
+        return report;
+    }
+
+    // Entries the hashing pool turned away were never persisted, so they are resubmitted until none is left
+    private void commit(List<UserSignUpRequest> requests, ImportReport report) throws InterruptedException {
+        List<UserSignUpRequest> pending = requests;
+        while (!pending.isEmpty()) {
+            BatchSignUpResponse response = join(batchSignUpService.createUsers(pending));
+            report.add(response);
+            List<UserSignUpRequest> overloaded = new ArrayList<>();
+            for (BatchSignUpResult result : response.getResults()) {
+                if (result.getStatus() == BatchSignUpStatus.OVERLOADED) {
+                    overloaded.add(pending.get(result.getIndex()));
+                }
+            }
+            if (!overloaded.isEmpty()) {
+                log.debug("Hashing pool is full, retrying {} users in {} s", overloaded.size(),
+                    response.getRetryAfterSeconds());
+                TimeUnit.SECONDS.sleep(response.getRetryAfterSeconds());
+            }
+            pending = overloaded;
+        }
+    }
+
+    private static BatchSignUpResponse join(CompletableFuture<BatchSignUpResponse> response) {
+        try {
+            return response.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private void readChunks(Path file, long skipLines, BlockingQueue<Chunk> chunks, AtomicReference<Exception> failure) {
+        try (BufferedReader lines = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            long lineNumber = 0;
+            List<UserSignUpRequest> requests = new ArrayList<>(chunkSize);
+            int malformed = 0;
+            String line;
+            while ((line = lines.readLine()) != null) {
+                lineNumber++;
+                if (lineNumber <= skipLines || line.isBlank()) {
+                    continue;
+                }
+                try {
+                    requests.add(requestReader.readValue(line));
+                } catch (JsonProcessingException e) {
+                    malformed++;
+                    log.debug("Skipping malformed line {}: {}", lineNumber, e.getOriginalMessage());
+                }
+                if (requests.size() + malformed == chunkSize) {
+                    chunks.put(new Chunk(requests, lineNumber, malformed));
+                    requests = new ArrayList<>(chunkSize);
+                    malformed = 0;
+                }
+            }
+            if (!requests.isEmpty() || malformed > 0) {
+                chunks.put(new Chunk(requests, lineNumber, malformed));
+            }
+        } catch (IOException | RuntimeException e) {
+            failure.set(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        try {
+            chunks.put(END);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    static Path checkpointFor(Path file) {
+        return file.resolveSibling(file.getFileName() + ".checkpoint");
+    }
+
+    private static long readCheckpoint(Path checkpoint) throws IOException {
+        if (!Files.exists(checkpoint)) {
+            return 0;
+        }
+        return Long.parseLong(Files.readString(checkpoint).strip());
+    }
+
+    private static void writeCheckpoint(Path checkpoint, long line) {
+        try {
+            Path temp = checkpoint.resolveSibling(checkpoint.getFileName() + ".tmp");
+            Files.writeString(temp, Long.toString(line));
+            Files.move(temp, checkpoint, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write import checkpoint " + checkpoint, e);
+        }
+    }
+
+    private static final class Chunk {
+        private final List<UserSignUpRequest> requests;
+        private final long lastLine;
+        private final int malformed;
+
+        private Chunk(List<UserSignUpRequest> requests, long lastLine, int malformed) {
+            this.requests = requests;
+            this.lastLine = lastLine;
+            this.malformed = malformed;
+        }
+    }
+
+    public static class ImportReport {
+        private final long startLine;
+        private long lastLine;
+        private long created;
+        private long conflicts;
+        private long invalid;
+        private long malformed;
+
+        ImportReport(long startLine) {
+            this.startLine = startLine;
+            this.lastLine = startLine;
+        }
+
+        private void add(BatchSignUpResponse response) {
+            created += response.getCreated();
+            conflicts += response.getConflicts();
+            invalid += response.getInvalid();
+        }
+
+        private long linesPerSecond(long elapsedNanos) {
+            return elapsedNanos > 0 ? (lastLine - startLine) * 1_000_000_000L / elapsedNanos : 0;
+        }
+
+        public long getLastLine() { return lastLine; }
+        public long getCreated() { return created; }
+        public long getConflicts() { return conflicts; }
+        public long getInvalid() { return invalid; }
+        public long getMalformed() { return malformed; }
+    }
+}
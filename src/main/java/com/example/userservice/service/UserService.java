@@ -8,68 +8,200 @@ import com.example.userservice.entity.User;
 import com.example.userservice.exception.UserAlreadyExistsException;
 import com.example.userservice.exception.UserNotFoundException;
 import com.example.userservice.repository.UserRepository;
+import com.example.userservice.util.EmailNormalizer;
+import com.example.userservice.util.InternDictionary;
 import com.example.userservice.util.JwtUtil;
+import com.example.userservice.util.SingleFlight;
+import com.example.userservice.util.StageMetrics;
+import com.example.userservice.util.StageRecorder;
+import io.jsonwebtoken.JwtException;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 @Service
 public class UserService {
 
+    private static final int SIGN_UP_STRIPES = 16;
+
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHasher passwordHasher;
     private final JwtUtil jwtUtil;
+    private final EmailExistenceIndex emailIndex;
+    private final LoginWriteBehind loginWriteBehind;
+    private final UserSnapshotCache userCache;
+    private final StageMetrics stageMetrics;
+    private final PersistenceExecutor persistenceExecutor;
+    private final InternDictionary countryCodes;
+    private final SingleFlight<String, SignUp> signUps = new SingleFlight<>(SIGN_UP_STRIPES);
 
     @Autowired
-    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder, JwtUtil jwtUtil) {
+    public UserService(UserRepository userRepository, PasswordHasher passwordHasher, JwtUtil jwtUtil,
+                       EmailExistenceIndex emailIndex, LoginWriteBehind loginWriteBehind,
+                       UserSnapshotCache userCache, StageMetrics stageMetrics,
+                       PersistenceExecutor persistenceExecutor, InternDictionary countryCodeDictionary) {
         this.userRepository = userRepository;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordHasher = passwordHasher;
         this.jwtUtil = jwtUtil;
+        this.emailIndex = emailIndex;
+        this.loginWriteBehind = loginWriteBehind;
+        this.userCache = userCache;
+        this.stageMetrics = stageMetrics;
+        this.persistenceExecutor = persistenceExecutor;
+        this.countryCodes = countryCodeDictionary;
+        stageMetrics.bindSingleFlight("sign-up", signUps);
+    }
+
+    // A client retrying a slow sign-up waits for the one already in flight for that email instead of running
+    // BCrypt again; it gets the same response if it sent the same request, otherwise the email is taken
+    public CompletableFuture<UserResponse> createUser(UserSignUpRequest request) {
+        return signUps.execute(EmailNormalizer.normalize(request.getEmail()),
+                () -> signUp(request).thenApply(response -> new SignUp(request, response)))
+            .thenApply(signUp -> {
+                if (!signUp.request.equals(request)) {
+                    throw new UserAlreadyExistsException("User already exists");
+                }
+                return signUp.response;
+            });
+    }
+
+    private CompletableFuture<UserResponse> signUp(UserSignUpRequest request) {
+        StageRecorder stages = stageMetrics.start("sign-up");
+        try {
+            List<Phone> phones = toPhones(request.getPhones());
+
+            // Includes the time queued for a hashing thread, which is what the caller waits for
+            long encodeStart = System.nanoTime();
+            return passwordHasher.encodeAsync(request.getPassword())
+                .thenApply(encodedPassword -> {
+                    stages.add(StageMetrics.PASSWORD_ENCODE, System.nanoTime() - encodeStart);
+                    return encodedPassword;
+                })
+                // Off the hashing pool: everything from here on waits on the database
+                .thenApplyAsync(encodedPassword -> {
+                    User user = new User(request.getEmail(), encodedPassword, request.getName(), phones);
+                    String token = stages.time(StageMetrics.JWT_SIGN, () -> jwtUtil.generateToken(user.getEmail()));
+                    user.setToken(token);
+                    internCountryCodes(countryCodes, phones);
+
+                    // No existence check up front: the insert itself decides, in one transaction
+                    if (!stages.time(StageMetrics.DB_SAVE, () -> insertIfAbsent(user))) {
+                        throw new UserAlreadyExistsException("User already exists");
+                    }
+                    emailIndex.add(user.getEmail());
+                    userCache.invalidate(user.getEmail());
+                    return stages.time(StageMetrics.RESPONSE_MAPPING, () -> mapToResponse(user));
+                }, persistenceExecutor)
+                .whenComplete((response, failure) -> stages.finish(failure));
+        } catch (RuntimeException e) {
+            stages.finish(e);
+            throw e;
+        }
+    }
+
+    private boolean insertIfAbsent(User user) {
+        try {
+            return userRepository.insertIfAbsent(user);
+        } catch (DataIntegrityViolationException e) {
+            // Lost a race with a concurrent sign-up for the same email
+            return false;
+        }
     }
 
-    public UserResponse createUser(UserSignUpRequest request) {
-        if (userRepository.existsByEmail(request.getEmail())) {
-            throw new UserAlreadyExistsException("User already exists");
+    public UserResponse loginUser(String token) {
+        StageRecorder stages = stageMetrics.start("login");
+        try {
+            UserResponse response = loginUser(token, stages);
+            stages.finish(null);
+            return response;
+        } catch (RuntimeException e) {
+            stages.finish(e);
+            throw e;
+        }
+    }
+
+    private UserResponse loginUser(String token, StageRecorder stages) {
+        String email = stages.time(StageMetrics.JWT_VERIFY, () -> verifiedSubject(token));
+
+        UserSnapshot cached = userCache.get(email);
+        UserSnapshot user = cached != null ? cached : stages.time(StageMetrics.DB_LOAD,
+            () -> userRepository.findWithPhonesByNormalizedEmail(EmailNormalizer.normalize(email))
+                .map(UserSnapshot::of)
+                .orElseThrow(() -> new UserNotFoundException("User not found")));
+
+        // Genera nuevo token y actualiza el ultimo login
+        String newToken = stages.time(StageMetrics.JWT_SIGN, () -> jwtUtil.generateToken(user.getEmail()));
+        UserSnapshot loggedIn = user.withLogin(newToken, LocalDateTime.now());
+
+        if (!loginWriteBehind.offer(loggedIn.getId(), loggedIn.getToken(), loggedIn.getLastLogin())) {
+            stages.time(StageMetrics.DB_SAVE,
+                () -> userRepository.updateLogin(loggedIn.getId(), loggedIn.getToken(), loggedIn.getLastLogin()));
+        }
+        // The cached copy is replaced rather than dropped so the next login is still a hit
+        userCache.put(loggedIn);
+        return stages.time(StageMetrics.RESPONSE_MAPPING, () -> mapToResponse(loggedIn));
+    }
+
+    public void logoutUser(String token) {
+        try {
+            jwtUtil.revokeToken(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            throw new UserNotFoundException("Invalid token");
+        }
+    }
+
+    private String verifiedSubject(String token) {
+        try {
+            return jwtUtil.verifyToken(token).getSubject();
+        } catch (JwtException | IllegalArgumentException e) {
+            throw new UserNotFoundException("Invalid token");
         }
+    }
 
-        List<Phone> phones = Optional.ofNullable(request.getPhones())
+    static List<Phone> toPhones(List<PhoneDto> phoneDtos) {
+        return Optional.ofNullable(phoneDtos)
             .map(phoneList -> phoneList.stream()
                 .map(dto -> new Phone(dto.getNumber(), dto.getCitycode(), dto.getContrycode()))
                 .collect(Collectors.toList()))
             .orElse(null);
-
-        User user = new User(request.getEmail(), passwordEncoder.encode(request.getPassword()), request.getName(), phones);
-        String token = jwtUtil.generateToken(user.getEmail());
-        user.setToken(token);
-
-        User savedUser = userRepository.save(user);
-        return mapToResponse(savedUser);
     }
 
-    public UserResponse loginUser(String token) {
-        String email = jwtUtil.extractUsername(token);
-        if (!jwtUtil.validateToken(token, email)) {
-            throw new UserNotFoundException("Invalid token");
+    // A code seen for the first time gets its id here, before the insert transaction holds a connection, so the
+    // converter only reads the dictionary during flush
+    static void internCountryCodes(InternDictionary countryCodes, List<Phone> phones) {
+        if (phones != null) {
+            phones.forEach(phone -> countryCodes.idOf(phone.getContrycode()));
         }
+    }
 
-        User user = userRepository.findByEmail(email)
-            .orElseThrow(() -> new UserNotFoundException("User not found"));
+    UserResponse mapToResponse(UserSnapshot user) {
+        UserResponse response = new UserResponse();
+        response.setId(user.getId());
+        response.setCreated(user.getCreated());
+        response.setLastLogin(user.getLastLogin());
+        response.setToken(user.getToken());
+        response.setIsActive(user.isActive());
+        response.setName(user.getName());
+        response.setEmail(user.getEmail());
+        response.setPassword(user.getPassword());
 
-        // Genera nuevo token y actualiza el ultimo login
-        String newToken = jwtUtil.generateToken(user.getEmail());
-        user.setToken(newToken);
-        user.setLastLogin(LocalDateTime.now());
-        
-        User updatedUser = userRepository.save(user);
-        return mapToResponse(updatedUser);
+        if (user.getPhones() != null) {
+            List<PhoneDto> phoneDtos = user.getPhones().stream()
+                .map(phone -> new PhoneDto(phone.getNumber(), phone.getCitycode(), phone.getContrycode()))
+                .collect(Collectors.toList());
+            response.setPhones(phoneDtos);
+        }
+
+        return response;
     }
 
-    private UserResponse mapToResponse(User user) {
+    UserResponse mapToResponse(User user) {
         UserResponse response = new UserResponse();
         response.setId(user.getId());
         response.setCreated(user.getCreated());
@@ -89,4 +221,14 @@ public class UserService {
 
         return response;
     }
-}
\ No newline at end of file
+
+    private static final class SignUp {
+        private final UserSignUpRequest request;
+        private final UserResponse response;
+
+        private SignUp(UserSignUpRequest request, UserResponse response) {
+            this.request = request;
+            this.response = response;
+        }
+    }
+}
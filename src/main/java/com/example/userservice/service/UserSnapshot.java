@@ -0,0 +1,99 @@
+package com.example.userservice.service;
+
+import com.example.userservice.entity.Phone;
+import com.example.userservice.entity.User;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+// Immutable copy of a user and its phones, safe to share between requests through the user cache
+public final class UserSnapshot {
+
+    private final UUID id;
+    private final String email;
+    private final String password;
+    private final String name;
+    private final LocalDateTime created;
+    private final LocalDateTime lastLogin;
+    private final String token;
+    private final boolean active;
+    private final List<PhoneSnapshot> phones;
+
+    private UserSnapshot(UUID id, String email, String password, String name, LocalDateTime created,
+                         LocalDateTime lastLogin, String token, boolean active, List<PhoneSnapshot> phones) {
+        this.id = id;
+        this.email = email;
+        this.password = password;
+        this.name = name;
+        this.created = created;
+        this.lastLogin = lastLogin;
+        this.token = token;
+        this.active = active;
+        this.phones = phones;
+    }
+
+    public static UserSnapshot of(User user) {
+        List<PhoneSnapshot> phones = user.getPhones() == null ? null : Collections.unmodifiableList(
+            user.getPhones().stream().map(PhoneSnapshot::new).collect(Collectors.toList()));
+        return new UserSnapshot(user.getId(), user.getEmail(), user.getPassword(), user.getName(), user.getCreated(),
+            user.getLastLogin(), user.getToken(), Boolean.TRUE.equals(user.getIsActive()), phones);
+    }
+
+    public UserSnapshot withLogin(String newToken, LocalDateTime loginAt) {
+        return new UserSnapshot(id, email, password, name, created, loginAt, newToken, active, phones);
+    }
+
+    // Rough retained size: object headers, references and Latin-1 string payloads
+    public long estimatedBytes() {
+        long bytes = 64 + 2 * 24 + 3 * 24 + stringBytes(email) + stringBytes(password) + stringBytes(name)
+            + stringBytes(token);
+        if (phones != null) {
+            // Country codes are the dictionary's shared instances (InternDictionary), so a phone only adds itself
+            bytes += 24 + (16L + 32) * phones.size();
+        }
+        return bytes;
+    }
+
+    private static long stringBytes(String value) {
+        return value == null ? 0 : 40 + value.length();
+    }
+
+    public UUID getId() { return id; }
+
+    public String getEmail() { return email; }
+
+    public String getPassword() { return password; }
+
+    public String getName() { return name; }
+
+    public LocalDateTime getCreated() { return created; }
+
+    public LocalDateTime getLastLogin() { return lastLogin; }
+
+    public String getToken() { return token; }
+
+    public boolean isActive() { return active; }
+
+    public List<PhoneSnapshot> getPhones() { return phones; }
+
+    public static final class PhoneSnapshot {
+        private final long number;
+        private final int citycode;
+        private final String contrycode;
+
+        private PhoneSnapshot(Phone phone) {
+            this.number = phone.getNumber();
+            this.citycode = phone.getCitycode();
+            this.contrycode = phone.getContrycode();
+        }
+
+        public long getNumber() { return number; }
+
+        public int getCitycode() { return citycode; }
+
+        public String getContrycode() { return contrycode; }
+    }
+}
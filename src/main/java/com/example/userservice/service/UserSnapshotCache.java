@@ -0,0 +1,28 @@
+package com.example.userservice.service;
+
+// Read-through cache in front of UserRepository for login lookups by email
+public interface UserSnapshotCache {
+
+    UserSnapshot get(String email);
+
+    void put(UserSnapshot snapshot);
+
+    void invalidate(String email);
+
+    static UserSnapshotCache disabled() {
+        return new UserSnapshotCache() {
+            @Override
+            public UserSnapshot get(String email) {
+                return null;
+            }
+
+            @Override
+            public void put(UserSnapshot snapshot) {
+            }
+
+            @Override
+            public void invalidate(String email) {
+            }
+        };
+    }
+}
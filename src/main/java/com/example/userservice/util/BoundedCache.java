@@ -0,0 +1,136 @@
+package com.example.userservice.util;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+// Size-bounded LRU cache with a per-entry expiry. Keys are spread over segments, each an access-ordered
+// LinkedHashMap behind its own lock, so concurrent lookups of different keys rarely wait on each other.
+// Recency is tracked per segment: the entry evicted is the least recently used of its segment.
+public class BoundedCache<K, V> {
+
+    // Below this many entries per segment the approximation costs more than the contention it saves
+    private static final int MIN_ENTRIES_PER_SEGMENT = 64;
+    private static final int MAX_SEGMENTS = 16;
+
+    private final int maxSize;
+    private final Segment<K, V>[] segments;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    public BoundedCache(int maxSize) {
+        this(maxSize, Math.min(MAX_SEGMENTS, maxSize / MIN_ENTRIES_PER_SEGMENT));
+    }
+
+    @SuppressWarnings("unchecked")
+    public BoundedCache(int maxSize, int segmentCount) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be positive");
+        }
+        this.maxSize = maxSize;
+        this.segments = new Segment[Integer.highestOneBit(Math.max(1, Math.min(segmentCount, maxSize)))];
+        for (int i = 0; i < segments.length; i++) {
+            // Spread the remainder so the segments add up to maxSize exactly
+            segments[i] = new Segment<>(maxSize / segments.length + (i < maxSize % segments.length ? 1 : 0));
+        }
+    }
+
+    public V get(K key, long nowMillis) {
+        Segment<K, V> segment = segment(key);
+        synchronized (segment) {
+            Entry<V> entry = segment.entries.get(key);
+            if (entry == null) {
+                misses.increment();
+                return null;
+            }
+            if (nowMillis >= entry.expiresAtMillis) {
+                segment.entries.remove(key);
+                expirations.increment();
+                misses.increment();
+                return null;
+            }
+            hits.increment();
+            return entry.value;
+        }
+    }
+
+    public void put(K key, V value, long expiresAtMillis) {
+        Segment<K, V> segment = segment(key);
+        synchronized (segment) {
+            segment.entries.put(key, new Entry<>(value, expiresAtMillis));
+            if (segment.entries.size() > segment.maxSize) {
+                Iterator<Map.Entry<K, Entry<V>>> eldest = segment.entries.entrySet().iterator();
+                eldest.next();
+                eldest.remove();
+                evictions.increment();
+            }
+        }
+    }
+
+    public void invalidate(K key) {
+        Segment<K, V> segment = segment(key);
+        synchronized (segment) {
+            segment.entries.remove(key);
+        }
+    }
+
+    public void clear() {
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                segment.entries.clear();
+            }
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                size += segment.entries.size();
+            }
+        }
+        return size;
+    }
+
+    public int getMaxSize() { return maxSize; }
+
+    public int getSegmentCount() { return segments.length; }
+
+    public long getHitCount() { return hits.sum(); }
+
+    public long getMissCount() { return misses.sum(); }
+
+    public long getEvictionCount() { return evictions.sum(); }
+
+    public long getExpirationCount() { return expirations.sum(); }
+
+    // Picks the segment from bits HashMap does not use for its buckets; taking the low bits would leave each
+    // segment's table using only 1 / segments of its buckets
+    private Segment<K, V> segment(K key) {
+        int hash = key.hashCode() * 0x9E3779B9;
+        return segments[(hash >>> 16) & (segments.length - 1)];
+    }
+
+    private static final class Segment<K, V> {
+        private final int maxSize;
+        private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+        private Segment(int maxSize) {
+            this.maxSize = maxSize;
+        }
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private final long expiresAtMillis;
+
+        private Entry(V value, long expiresAtMillis) {
+            this.value = value;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+    }
+}
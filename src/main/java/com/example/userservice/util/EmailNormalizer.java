@@ -0,0 +1,14 @@
+package com.example.userservice.util;
+
+import java.util.Locale;
+
+// Canonical form of an email for uniqueness and lookups; the address as typed is kept for display
+public final class EmailNormalizer {
+
+    private EmailNormalizer() {
+    }
+
+    public static String normalize(String email) {
+        return email == null ? null : email.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.userservice.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+// Hierarchical timing wheel: 4 levels of 64 slots, each level 64 times coarser than the one below.
+// Scheduling is O(1), and advancing touches only the slots whose time has come, never the whole set.
+// Not thread-safe; callers serialize schedule and advance.
+public class HierarchicalTimerWheel<T> {
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+
+    private final long tickMillis;
+    private final List<List<Timer<T>>> slots = new ArrayList<>(LEVELS * SLOTS);
+    private long currentTick;
+    private int size;
+
+    public HierarchicalTimerWheel(long tickMillis, long startMillis) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("tickMillis must be positive");
+        }
+        this.tickMillis = tickMillis;
+        this.currentTick = startMillis / tickMillis;
+        for (int i = 0; i < LEVELS * SLOTS; i++) {
+            slots.add(new ArrayList<>());
+        }
+    }
+
+    // Returns false when the deadline already passed; the item is then not scheduled
+    public boolean schedule(T item, long deadlineMillis) {
+        long tick = (deadlineMillis + tickMillis - 1) / tickMillis;
+        if (tick <= currentTick) {
+            return false;
+        }
+        place(new Timer<>(item, tick));
+        size++;
+        return true;
+    }
+
+    // Moves time forward and hands every item whose deadline is at or before nowMillis to the consumer
+    public void advance(long nowMillis, Consumer<T> expired) {
+        long targetTick = nowMillis / tickMillis;
+        while (currentTick < targetTick) {
+            currentTick++;
+            for (int level = LEVELS - 1; level > 0; level--) {
+                if ((currentTick & ((1L << (SLOT_BITS * level)) - 1)) == 0) {
+                    cascade(level, expired);
+                }
+            }
+            List<Timer<T>> due = slot(0, currentTick);
+            if (!due.isEmpty()) {
+                List<Timer<T>> timers = new ArrayList<>(due);
+                due.clear();
+                for (Timer<T> timer : timers) {
+                    reschedule(timer, expired);
+                }
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void cascade(int level, Consumer<T> expired) {
+        List<Timer<T>> bucket = slot(level, currentTick);
+        if (bucket.isEmpty()) {
+            return;
+        }
+        List<Timer<T>> timers = new ArrayList<>(bucket);
+        bucket.clear();
+        for (Timer<T> timer : timers) {
+            reschedule(timer, expired);
+        }
+    }
+
+    private void reschedule(Timer<T> timer, Consumer<T> expired) {
+        if (timer.tick <= currentTick) {
+            size--;
+            expired.accept(timer.item);
+        } else {
+            place(timer);
+        }
+    }
+
+    private void place(Timer<T> timer) {
+        long delta = timer.tick - currentTick;
+        for (int level = 0; level < LEVELS - 1; level++) {
+            if (delta < 1L << (SLOT_BITS * (level + 1))) {
+                slot(level, timer.tick).add(timer);
+                return;
+            }
+        }
+        // Beyond the top level's range: park it in the top level and re-place it on every pass
+        slot(LEVELS - 1, timer.tick).add(timer);
+    }
+
+    private List<Timer<T>> slot(int level, long tick) {
+        int index = (int) ((tick >>> (SLOT_BITS * level)) & SLOT_MASK);
+        return slots.get(level * SLOTS + index);
+    }
+
+    private static final class Timer<T> {
+        private final T item;
+        private final long tick;
+
+        private Timer(T item, long tick) {
+            this.item = item;
+            this.tick = tick;
+        }
+    }
+}
@@ -0,0 +1,519 @@
+package com.example.userservice.util;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.MalformedJwtException;
+import io.jsonwebtoken.SignatureException;
+
+import javax.crypto.Mac;
+import javax.crypto.ShortBufferException;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Date;
+
+// Encoder/decoder for the fixed token shape issued by JwtUtil: {"alg":"HS512"} / {"sub","exp","iat"}.
+// Output is byte-for-byte identical to jjwt 0.9.1; decode returns null for any other shape so the
+// caller can fall back to the generic jjwt parser.
+public class Hs512TokenCodec {
+
+    private static final String ALGORITHM = "HmacSHA512";
+    private static final byte[] HEADER_JSON = "{\"alg\":\"HS512\"}".getBytes(StandardCharsets.US_ASCII);
+    private static final int SIGNATURE_LENGTH = 64;
+    private static final int SIGNATURE_SEGMENT_LENGTH = 86;
+
+    private static final byte[] ENCODE_TABLE =
+        "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] DECODE_TABLE = new byte[128];
+    private static final byte[] HEX = "0123456789ABCDEF".getBytes(StandardCharsets.US_ASCII);
+
+    private static final byte[] SUB = {'s', 'u', 'b'};
+    private static final byte[] IAT = {'i', 'a', 't'};
+    private static final byte[] EXP = {'e', 'x', 'p'};
+
+    static {
+        Arrays.fill(DECODE_TABLE, (byte) -1);
+        for (int i = 0; i < ENCODE_TABLE.length; i++) {
+            DECODE_TABLE[ENCODE_TABLE[i]] = (byte) i;
+        }
+    }
+
+    private final byte[] headerSegment;
+    private final ThreadLocal<Mac> macs;
+    private final ThreadLocal<Buffers> buffers = ThreadLocal.withInitial(Buffers::new);
+
+    public Hs512TokenCodec(byte[] key) {
+        SecretKeySpec keySpec = new SecretKeySpec(key, ALGORITHM);
+        this.macs = ThreadLocal.withInitial(() -> newMac(keySpec));
+
+        byte[] segment = new byte[encodedLength(HEADER_JSON.length) + 1];
+        int length = encode(HEADER_JSON, 0, HEADER_JSON.length, segment, 0);
+        segment[length] = '.';
+        this.headerSegment = segment;
+    }
+
+    public String encode(String subject, long issuedAtMillis, long expirationMillis) {
+        Buffers buf = buffers.get();
+        int jsonLength = writeClaims(buf, subject, issuedAtMillis / 1000, expirationMillis / 1000);
+
+        byte[] out = buf.out(headerSegment.length + encodedLength(jsonLength) + 1 + SIGNATURE_SEGMENT_LENGTH);
+        System.arraycopy(headerSegment, 0, out, 0, headerSegment.length);
+        int pos = headerSegment.length;
+        pos += encode(buf.json, 0, jsonLength, out, pos);
+
+        sign(out, pos, buf.signature);
+        out[pos++] = '.';
+        pos += encode(buf.signature, 0, SIGNATURE_LENGTH, out, pos);
+        return new String(out, 0, pos, StandardCharsets.ISO_8859_1);
+    }
+
+    public JwtClaims decode(String token, long nowMillis) {
+        int headerLength = headerSegment.length;
+        if (!hasOwnHeader(token)) {
+            return null;
+        }
+
+        int signatureDot = token.lastIndexOf('.');
+        if (signatureDot < headerLength || token.indexOf('.', headerLength) != signatureDot) {
+            throw new MalformedJwtException("JWT strings must contain exactly 2 period characters.");
+        }
+
+        Buffers buf = buffers.get();
+        byte[] signingInput = buf.in(signatureDot);
+        for (int i = 0; i < signatureDot; i++) {
+            char c = token.charAt(i);
+            if (c > 0x7F) {
+                throw new MalformedJwtException("JWT contains non Base64URL characters.");
+            }
+            signingInput[i] = (byte) c;
+        }
+
+        sign(signingInput, signatureDot, buf.signature);
+        if (token.length() - signatureDot - 1 != SIGNATURE_SEGMENT_LENGTH
+            || decode(token, signatureDot + 1, token.length(), buf.presented) != SIGNATURE_LENGTH
+            || !MessageDigest.isEqual(buf.signature, buf.presented)) {
+            throw new SignatureException("JWT signature does not match locally computed signature.");
+        }
+
+        byte[] json = buf.json(signatureDot - headerLength);
+        int jsonLength = decode(token, headerLength, signatureDot, json);
+        if (jsonLength < 0) {
+            throw new MalformedJwtException("JWT payload is not valid Base64URL.");
+        }
+
+        ClaimsReader reader = new ClaimsReader(json, jsonLength);
+        if (!reader.read()) {
+            return null;
+        }
+        if (reader.expiration != null && nowMillis > reader.expiration * 1000) {
+            throw new ExpiredJwtException(null, null, "JWT expired at " + new Date(reader.expiration * 1000));
+        }
+
+        long issuedAt = reader.issuedAt != null ? reader.issuedAt * 1000 : 0L;
+        long expiration = reader.expiration != null ? reader.expiration * 1000 : Long.MAX_VALUE;
+        return new JwtClaims(reader.subject, issuedAt, expiration);
+    }
+
+    private boolean hasOwnHeader(String token) {
+        if (token.length() <= headerSegment.length) {
+            return false;
+        }
+        for (int i = 0; i < headerSegment.length; i++) {
+            if (token.charAt(i) != headerSegment[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void sign(byte[] input, int length, byte[] signature) {
+        Mac mac = macs.get();
+        mac.update(input, 0, length);
+        try {
+            mac.doFinal(signature, 0);
+        } catch (ShortBufferException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Mac newMac(SecretKeySpec keySpec) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(keySpec);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Unable to initialize " + ALGORITHM, e);
+        }
+    }
+
+    private static int writeClaims(Buffers buf, String subject, long issuedAt, long expiration) {
+        int maxLength = 64 + (subject != null ? subject.length() * 6 : 0);
+        byte[] json = buf.json(maxLength);
+        int pos = 0;
+        json[pos++] = '{';
+        if (subject != null) {
+            pos = writeKey(json, pos, SUB);
+            json[pos++] = '"';
+            pos = writeEscaped(subject, json, pos);
+            json[pos++] = '"';
+            json[pos++] = ',';
+        }
+        // jjwt serializes a HashMap, whose iteration order for these keys is sub, exp, iat
+        pos = writeKey(json, pos, EXP);
+        pos = writeLong(expiration, json, pos);
+        json[pos++] = ',';
+        pos = writeKey(json, pos, IAT);
+        pos = writeLong(issuedAt, json, pos);
+        json[pos++] = '}';
+        return pos;
+    }
+
+    private static int writeKey(byte[] json, int pos, byte[] key) {
+        json[pos++] = '"';
+        System.arraycopy(key, 0, json, pos, key.length);
+        pos += key.length;
+        json[pos++] = '"';
+        json[pos++] = ':';
+        return pos;
+    }
+
+    // Same escaping rules as Jackson's UTF8JsonGenerator defaults, which also escapes every surrogate char
+    private static int writeEscaped(String value, byte[] json, int pos) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                if (c == '"' || c == '\\') {
+                    json[pos++] = '\\';
+                    json[pos++] = (byte) c;
+                } else if (c >= 0x20) {
+                    json[pos++] = (byte) c;
+                } else {
+                    pos = writeControl(c, json, pos);
+                }
+            } else if (c < 0x800) {
+                json[pos++] = (byte) (0xC0 | (c >> 6));
+                json[pos++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                pos = writeUnicodeEscape(c, json, pos);
+            } else {
+                json[pos++] = (byte) (0xE0 | (c >> 12));
+                json[pos++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                json[pos++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        return pos;
+    }
+
+    private static int writeControl(char c, byte[] json, int pos) {
+        switch (c) {
+            case '\b': return writeShortEscape('b', json, pos);
+            case '\t': return writeShortEscape('t', json, pos);
+            case '\n': return writeShortEscape('n', json, pos);
+            case '\f': return writeShortEscape('f', json, pos);
+            case '\r': return writeShortEscape('r', json, pos);
+            default: return writeUnicodeEscape(c, json, pos);
+        }
+    }
+
+    private static int writeShortEscape(char c, byte[] json, int pos) {
+        json[pos++] = '\\';
+        json[pos++] = (byte) c;
+        return pos;
+    }
+
+    private static int writeUnicodeEscape(char c, byte[] json, int pos) {
+        json[pos++] = '\\';
+        json[pos++] = 'u';
+        json[pos++] = HEX[(c >> 12) & 0xF];
+        json[pos++] = HEX[(c >> 8) & 0xF];
+        json[pos++] = HEX[(c >> 4) & 0xF];
+        json[pos++] = HEX[c & 0xF];
+        return pos;
+    }
+
+    private static int writeLong(long value, byte[] json, int pos) {
+        if (value == Long.MIN_VALUE) {
+            byte[] digits = Long.toString(value).getBytes(StandardCharsets.US_ASCII);
+            System.arraycopy(digits, 0, json, pos, digits.length);
+            return pos + digits.length;
+        }
+        if (value < 0) {
+            json[pos++] = '-';
+            value = -value;
+        }
+        int digits = 1;
+        for (long v = value / 10; v > 0; v /= 10) {
+            digits++;
+        }
+        for (int i = pos + digits - 1; i >= pos; i--) {
+            json[i] = (byte) ('0' + (value % 10));
+            value /= 10;
+        }
+        return pos + digits;
+    }
+
+    static int encodedLength(int length) {
+        return (length / 3) * 4 + (length % 3 == 0 ? 0 : length % 3 + 1);
+    }
+
+    static int encode(byte[] src, int offset, int length, byte[] dst, int dstOffset) {
+        int end = offset + length;
+        int i = offset;
+        int d = dstOffset;
+        while (i + 2 < end) {
+            int bits = (src[i++] & 0xFF) << 16 | (src[i++] & 0xFF) << 8 | (src[i++] & 0xFF);
+            dst[d++] = ENCODE_TABLE[bits >>> 18];
+            dst[d++] = ENCODE_TABLE[(bits >>> 12) & 0x3F];
+            dst[d++] = ENCODE_TABLE[(bits >>> 6) & 0x3F];
+            dst[d++] = ENCODE_TABLE[bits & 0x3F];
+        }
+        int remaining = end - i;
+        if (remaining == 1) {
+            int bits = (src[i] & 0xFF) << 16;
+            dst[d++] = ENCODE_TABLE[bits >>> 18];
+            dst[d++] = ENCODE_TABLE[(bits >>> 12) & 0x3F];
+        } else if (remaining == 2) {
+            int bits = (src[i] & 0xFF) << 16 | (src[i + 1] & 0xFF) << 8;
+            dst[d++] = ENCODE_TABLE[bits >>> 18];
+            dst[d++] = ENCODE_TABLE[(bits >>> 12) & 0x3F];
+            dst[d++] = ENCODE_TABLE[(bits >>> 6) & 0x3F];
+        }
+        return d - dstOffset;
+    }
+
+    // Returns the number of decoded bytes, or -1 if the range contains a non Base64URL character
+    static int decode(String src, int start, int end, byte[] dst) {
+        int bits = 0;
+        int bitCount = 0;
+        int d = 0;
+        for (int i = start; i < end; i++) {
+            char c = src.charAt(i);
+            int value = c < 128 ? DECODE_TABLE[c] : -1;
+            if (value < 0) {
+                return -1;
+            }
+            bits = (bits << 6) | value;
+            bitCount += 6;
+            if (bitCount >= 8) {
+                bitCount -= 8;
+                if (d == dst.length) {
+                    return -1;
+                }
+                dst[d++] = (byte) (bits >> bitCount);
+            }
+        }
+        return d;
+    }
+
+    private static final class Buffers {
+        private byte[] json = new byte[256];
+        private byte[] out = new byte[512];
+        private byte[] in = new byte[512];
+        private final byte[] signature = new byte[SIGNATURE_LENGTH];
+        private final byte[] presented = new byte[SIGNATURE_LENGTH];
+
+        private byte[] json(int capacity) {
+            if (json.length < capacity) {
+                json = new byte[capacity];
+            }
+            return json;
+        }
+
+        private byte[] out(int capacity) {
+            if (out.length < capacity) {
+                out = new byte[capacity];
+            }
+            return out;
+        }
+
+        private byte[] in(int capacity) {
+            if (in.length < capacity) {
+                in = new byte[capacity];
+            }
+            return in;
+        }
+    }
+
+    // Minimal reader for a flat JSON object; read() returns false for anything outside our claim shape
+    private static final class ClaimsReader {
+        private final byte[] json;
+        private final int length;
+        private int pos;
+
+        private String subject;
+        private Long issuedAt;
+        private Long expiration;
+
+        private ClaimsReader(byte[] json, int length) {
+            this.json = json;
+            this.length = length;
+        }
+
+        private boolean read() {
+            skipWhitespace();
+            if (!consume('{')) {
+                throw new MalformedJwtException("JWT payload is not a JSON object.");
+            }
+            skipWhitespace();
+            if (consume('}')) {
+                return trailingWhitespaceOnly();
+            }
+            while (true) {
+                skipWhitespace();
+                int keyStart = pos + 1;
+                if (!consume('"') || !skipString()) {
+                    return false;
+                }
+                int keyLength = pos - 1 - keyStart;
+                skipWhitespace();
+                if (!consume(':')) {
+                    return false;
+                }
+                skipWhitespace();
+                if (!readValue(keyStart, keyLength)) {
+                    return false;
+                }
+                skipWhitespace();
+                if (consume('}')) {
+                    return trailingWhitespaceOnly();
+                }
+                if (!consume(',')) {
+                    return false;
+                }
+            }
+        }
+
+        private boolean readValue(int keyStart, int keyLength) {
+            if (pos >= length) {
+                return false;
+            }
+            byte c = json[pos];
+            if (c == '"') {
+                int start = pos + 1;
+                pos++;
+                if (!skipString()) {
+                    return false;
+                }
+                int end = pos - 1;
+                if (keyIs(keyStart, keyLength, SUB)) {
+                    if (indexOf('\\', start, end) >= 0) {
+                        return false;
+                    }
+                    subject = new String(json, start, end - start, StandardCharsets.UTF_8);
+                } else if (keyIs(keyStart, keyLength, IAT) || keyIs(keyStart, keyLength, EXP)) {
+                    return false;
+                }
+                return true;
+            }
+            if (c == '-' || (c >= '0' && c <= '9')) {
+                Long number = readLong();
+                if (number == null) {
+                    return false;
+                }
+                if (keyIs(keyStart, keyLength, IAT)) {
+                    issuedAt = number;
+                } else if (keyIs(keyStart, keyLength, EXP)) {
+                    expiration = number;
+                } else if (keyIs(keyStart, keyLength, SUB)) {
+                    return false;
+                }
+                return true;
+            }
+            if (matchLiteral("null")) {
+                if (keyIs(keyStart, keyLength, SUB)) {
+                    subject = null;
+                } else if (keyIs(keyStart, keyLength, IAT)) {
+                    issuedAt = null;
+                } else if (keyIs(keyStart, keyLength, EXP)) {
+                    expiration = null;
+                }
+                return true;
+            }
+            // Nested values, booleans or registered claims we do not handle (nbf, ...) go to jjwt
+            return false;
+        }
+
+        private boolean keyIs(int keyStart, int keyLength, byte[] key) {
+            if (keyLength != key.length) {
+                return false;
+            }
+            for (int i = 0; i < keyLength; i++) {
+                if (json[keyStart + i] != key[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private boolean skipString() {
+            while (pos < length) {
+                byte c = json[pos++];
+                if (c == '\\') {
+                    pos++;
+                } else if (c == '"') {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private Long readLong() {
+            boolean negative = consume('-');
+            long value = 0;
+            int digits = 0;
+            while (pos < length && json[pos] >= '0' && json[pos] <= '9') {
+                if (digits == 18) {
+                    return null;
+                }
+                value = value * 10 + (json[pos++] - '0');
+                digits++;
+            }
+            if (digits == 0 || (pos < length && (json[pos] == '.' || json[pos] == 'e' || json[pos] == 'E'))) {
+                return null;
+            }
+            return negative ? -value : value;
+        }
+
+        private boolean matchLiteral(String literal) {
+            if (pos + literal.length() > length) {
+                return false;
+            }
+            for (int i = 0; i < literal.length(); i++) {
+                if (json[pos + i] != literal.charAt(i)) {
+                    return false;
+                }
+            }
+            pos += literal.length();
+            return true;
+        }
+
+        private int indexOf(char c, int start, int end) {
+            for (int i = start; i < end; i++) {
+                if (json[i] == c) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private boolean consume(char c) {
+            if (pos < length && json[pos] == c) {
+                pos++;
+                return true;
+            }
+            return false;
+        }
+
+        private void skipWhitespace() {
+            while (pos < length && (json[pos] == ' ' || json[pos] == '\t' || json[pos] == '\n' || json[pos] == '\r')) {
+                pos++;
+            }
+        }
+
+        private boolean trailingWhitespaceOnly() {
+            skipWhitespace();
+            return pos == length;
+        }
+    }
+}
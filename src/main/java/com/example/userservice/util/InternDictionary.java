@@ -0,0 +1,79 @@
+package com.example.userservice.util;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+// Bidirectional code <-> id map for a small set of repeated strings, backed by a dictionary table. Lookups are
+// plain ConcurrentHashMap reads. A new code is assigned before touching the maps, so no map lock is held across
+// the store call; concurrent first sightings of the same code may both assign it, which the store must make
+// idempotent, and putIfAbsent keeps the first id. Callers that write inside a transaction should intern their
+// codes before it opens, so the assignment never runs while a pooled connection is held.
+// Every id resolves to one shared String instance, so loaded values do not each carry their own copy.
+public class InternDictionary {
+
+    private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+    private final Map<Integer, String> codes = new ConcurrentHashMap<>();
+
+    // Returns the id stored for the code, adding it if absent; must be idempotent across processes
+    private final ToIntFunction<String> assign;
+    // Returns the whole dictionary as stored
+    private final Supplier<Map<Integer, String>> load;
+
+    private volatile boolean loaded;
+
+    public InternDictionary(ToIntFunction<String> assign, Supplier<Map<Integer, String>> load) {
+        this.assign = assign;
+        this.load = load;
+    }
+
+    public int idOf(String code) {
+        Integer id = ids.get(code);
+        if (id != null) {
+            return id;
+        }
+        // The first miss loads what is already stored, so known codes are never assigned one by one
+        if (!loaded) {
+            reload();
+            id = ids.get(code);
+            if (id != null) {
+                return id;
+            }
+        }
+        int assigned = assign.applyAsInt(code);
+        String shared = codes.computeIfAbsent(assigned, key -> code);
+        Integer winner = ids.putIfAbsent(shared, assigned);
+        return winner != null ? winner : assigned;
+    }
+
+    // An unknown id was assigned by another instance after the last load
+    public String codeOf(int id) {
+        String code = codes.get(id);
+        if (code != null) {
+            return code;
+        }
+        reload();
+        code = codes.get(id);
+        if (code == null) {
+            throw new IllegalArgumentException("Unknown code id " + id);
+        }
+        return code;
+    }
+
+    public boolean contains(String code) {
+        return ids.containsKey(code);
+    }
+
+    public int size() {
+        return codes.size();
+    }
+
+    private void reload() {
+        load.get().forEach((id, code) -> {
+            String shared = codes.computeIfAbsent(id, key -> code);
+            ids.putIfAbsent(shared, id);
+        });
+        loaded = true;
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.userservice.util;
+
+import java.util.Date;
+
+public final class JwtClaims {
+
+    private final String subject;
+    private final long issuedAtMillis;
+    private final long expirationMillis;
+
+    public JwtClaims(String subject, long issuedAtMillis, long expirationMillis) {
+        this.subject = subject;
+        this.issuedAtMillis = issuedAtMillis;
+        this.expirationMillis = expirationMillis;
+    }
+
+    public String getSubject() { return subject; }
+
+    public Date getIssuedAt() { return new Date(issuedAtMillis); }
+
+    public Date getExpiration() { return new Date(expirationMillis); }
+
+    public long getExpirationMillis() { return expirationMillis; }
+
+    public boolean isExpired(long nowMillis) {
+        return nowMillis > expirationMillis;
+    }
+}
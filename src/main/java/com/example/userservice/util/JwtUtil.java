@@ -1,14 +1,18 @@
 package com.example.userservice.util;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.impl.TextCodec;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import javax.annotation.PostConstruct;
 import java.util.Date;
-import java.util.HashMap;
-import java.util.Map;
 import java.util.function.Function;
 
 @Component
@@ -20,12 +24,57 @@ public class JwtUtil {
     @Value("${jwt.expiration:86400}")
     private Long expiration;
 
+    @Value("${jwt.cache.enabled:false}")
+    private boolean cacheEnabled;
+
+    @Value("${jwt.cache.max-size:10000}")
+    private int cacheMaxSize;
+
+    @Value("${jwt.cache.ttl-seconds:300}")
+    private long cacheTtlSeconds;
+
+    @Autowired(required = false)
+    private TokenRevocationStore revocationStore;
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
+    private BoundedCache<TokenFingerprint, JwtClaims> verifiedCache;
+
+    private volatile Hs512TokenCodec codec;
+
+    @PostConstruct
+    public void initCache() {
+        verifiedCache = cacheEnabled ? new BoundedCache<>(cacheMaxSize) : null;
+        if (verifiedCache != null && meterRegistry != null) {
+            bindCacheMetrics(verifiedCache, meterRegistry);
+        }
+    }
+
+    private static void bindCacheMetrics(BoundedCache<TokenFingerprint, JwtClaims> cache, MeterRegistry registry) {
+        Gauge.builder("jwt.cache.size", cache, BoundedCache::size)
+            .description("Verified tokens currently cached")
+            .register(registry);
+        FunctionCounter.builder("jwt.cache.requests", cache, BoundedCache::getHitCount)
+            .tag("result", "hit")
+            .register(registry);
+        FunctionCounter.builder("jwt.cache.requests", cache, BoundedCache::getMissCount)
+            .tag("result", "miss")
+            .register(registry);
+        FunctionCounter.builder("jwt.cache.evictions", cache, BoundedCache::getEvictionCount)
+            .description("Verified tokens evicted to stay within the size bound")
+            .register(registry);
+        FunctionCounter.builder("jwt.cache.expirations", cache, BoundedCache::getExpirationCount)
+            .description("Verified tokens dropped after their TTL or expiry")
+            .register(registry);
+    }
+
     public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
+        return verifyToken(token).getSubject();
     }
 
     public Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+        return verifyToken(token).getExpiration();
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
@@ -40,27 +89,84 @@ public class JwtUtil {
             .getBody();
     }
 
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    // Parses and verifies the signature once; throws JwtException if the token is invalid, expired or revoked
+    public JwtClaims verifyToken(String token) {
+        long now = System.currentTimeMillis();
+        boolean checkRevoked = revocationStore != null && !revocationStore.isEmpty();
+        if (verifiedCache == null && !checkRevoked) {
+            return parseVerified(token, now);
+        }
+
+        TokenFingerprint key = TokenFingerprint.of(token);
+        if (checkRevoked && revocationStore.isRevoked(key)) {
+            throw new RevokedTokenException("JWT has been revoked");
+        }
+        if (verifiedCache == null) {
+            return parseVerified(token, now);
+        }
+
+        JwtClaims cached = verifiedCache.get(key, now);
+        if (cached != null) {
+            return cached;
+        }
+
+        JwtClaims claims = parseVerified(token, now);
+        verifiedCache.put(key, claims, Math.min(now + cacheTtlSeconds * 1000, claims.getExpirationMillis()));
+        return claims;
     }
 
-    public String generateToken(String username) {
-        Map<String, Object> claims = new HashMap<>();
-        return createToken(claims, username);
+    private JwtClaims parseVerified(String token, long now) {
+        JwtClaims fast = codec().decode(token, now);
+        if (fast != null) {
+            return fast;
+        }
+
+        // Tokens outside our fixed shape go through the generic jjwt parser
+        Claims claims = extractAllClaims(token);
+        Date issuedAt = claims.getIssuedAt();
+        Date expiresAt = claims.getExpiration();
+        return new JwtClaims(claims.getSubject(),
+            issuedAt != null ? issuedAt.getTime() : 0L,
+            expiresAt != null ? expiresAt.getTime() : Long.MAX_VALUE);
     }
 
-    private String createToken(Map<String, Object> claims, String subject) {
-        return Jwts.builder()
-            .setClaims(claims)
-            .setSubject(subject)
-            .setIssuedAt(new Date(System.currentTimeMillis()))
-            .setExpiration(new Date(System.currentTimeMillis() + expiration * 1000))
-            .signWith(SignatureAlgorithm.HS512, secret)
-            .compact();
+    private Hs512TokenCodec codec() {
+        Hs512TokenCodec current = codec;
+        if (current == null) {
+            current = new Hs512TokenCodec(TextCodec.BASE64.decode(secret));
+            codec = current;
+        }
+        return current;
+    }
+
+    public String generateToken(String username) {
+        long now = System.currentTimeMillis();
+        return codec().encode(username, now, now + expiration * 1000);
     }
 
     public Boolean validateToken(String token, String username) {
-        final String extractedUsername = extractUsername(token);
-        return (extractedUsername.equals(username) && !isTokenExpired(token));
+        try {
+            JwtClaims claims = verifyToken(token);
+            return claims.getSubject().equals(username) && !claims.isExpired(System.currentTimeMillis());
+        } catch (ExpiredJwtException | RevokedTokenException e) {
+            return false;
+        }
+    }
+
+    // Rejects a still-valid token until its own expiry; throws JwtException if it is already invalid
+    public void revokeToken(String token) {
+        JwtClaims claims = verifyToken(token);
+        if (revocationStore == null) {
+            throw new IllegalStateException("Token revocation is not configured");
+        }
+        TokenFingerprint key = TokenFingerprint.of(token);
+        revocationStore.revoke(key, claims.getExpirationMillis());
+        if (verifiedCache != null) {
+            verifiedCache.invalidate(key);
+        }
+    }
+
+    public BoundedCache<TokenFingerprint, JwtClaims> getVerifiedCache() {
+        return verifiedCache;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,18 @@
+package com.example.userservice.util;
+
+import java.util.Locale;
+
+// Where a user's phones are written. TABLE keeps one phones row per phone, joined on every read; EMBEDDED
+// packs them into the users row (phones_data), so a sign-up is a single insert and a login a single-row read.
+public enum PhoneStorage {
+
+    TABLE,
+    EMBEDDED;
+
+    public static final String PROPERTY = "users.phones.storage";
+
+    // Accepts the property spelling, e.g. "embedded"
+    public static PhoneStorage fromProperty(String value) {
+        return valueOf(value.trim().replace('-', '_').toUpperCase(Locale.ROOT));
+    }
+}
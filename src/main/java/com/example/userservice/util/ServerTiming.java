@@ -0,0 +1,65 @@
+package com.example.userservice.util;
+
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.Arrays;
+
+// Stage durations of one HTTP request, rendered as a W3C Server-Timing header value. Stored as a request
+// attribute; stages are appended in order, possibly from the hashing pool, but never concurrently.
+public class ServerTiming {
+
+    public static final String ATTRIBUTE = ServerTiming.class.getName();
+
+    private final long startNanos;
+    private String[] names = new String[8];
+    private long[] nanos = new long[8];
+    private int count;
+
+    public ServerTiming(long startNanos) {
+        this.startNanos = startNanos;
+    }
+
+    // The timing of the request bound to the calling thread, or null outside a timed request
+    public static ServerTiming current() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes == null ? null
+            : (ServerTiming) attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+    }
+
+    public void add(String name, long elapsedNanos) {
+        if (count == names.length) {
+            names = Arrays.copyOf(names, count * 2);
+            nanos = Arrays.copyOf(nanos, count * 2);
+        }
+        names[count] = name;
+        nanos[count] = elapsedNanos;
+        count++;
+    }
+
+    public long elapsedNanos(long nowNanos) {
+        return nowNanos - startNanos;
+    }
+
+    // e.g. "validation;dur=0.412, password-encode;dur=251.034, total;dur=262.5"
+    public String toHeaderValue(long nowNanos) {
+        StringBuilder header = new StringBuilder(32 * (count + 1));
+        for (int i = 0; i < count; i++) {
+            appendMetric(header, names[i], nanos[i]).append(", ");
+        }
+        return appendMetric(header, "total", elapsedNanos(nowNanos)).toString();
+    }
+
+    private static StringBuilder appendMetric(StringBuilder header, String name, long elapsedNanos) {
+        long micros = elapsedNanos / 1_000;
+        header.append(name).append(";dur=").append(micros / 1_000).append('.');
+        long fraction = micros % 1_000;
+        if (fraction < 100) {
+            header.append('0');
+        }
+        if (fraction < 10) {
+            header.append('0');
+        }
+        return header.append(fraction);
+    }
+}
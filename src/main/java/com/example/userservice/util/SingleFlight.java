@@ -0,0 +1,73 @@
+package com.example.userservice.util;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+// Collapses concurrent calls for the same key into one: the first caller runs the work and every caller that
+// arrives while it is in flight gets its outcome instead of running it again. The entry is removed before the
+// outcome is published, so a call made after completion always starts a fresh flight and nothing is cached.
+// Keys are spread over striped maps so unrelated keys rarely contend on the same bin.
+public class SingleFlight<K, V> {
+
+    private final Map<K, CompletableFuture<V>>[] stripes;
+
+    private final LongAdder coalesced = new LongAdder();
+
+    @SuppressWarnings("unchecked")
+    public SingleFlight(int stripeCount) {
+        this.stripes = new Map[Integer.highestOneBit(Math.max(1, stripeCount))];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new ConcurrentHashMap<>();
+        }
+    }
+
+    // A synchronous failure of the work is rethrown to the caller that ran it and handed to the waiters
+    public CompletableFuture<V> execute(K key, Supplier<CompletableFuture<V>> work) {
+        Map<K, CompletableFuture<V>> stripe = stripe(key);
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> inFlight = stripe.putIfAbsent(key, flight);
+        if (inFlight != null) {
+            coalesced.increment();
+            // A copy, so one waiter cancelling or completing its future cannot affect the others
+            return inFlight.copy();
+        }
+
+        CompletableFuture<V> result;
+        try {
+            result = work.get();
+        } catch (RuntimeException e) {
+            stripe.remove(key, flight);
+            flight.completeExceptionally(e);
+            throw e;
+        }
+        result.whenComplete((value, failure) -> {
+            stripe.remove(key, flight);
+            if (failure != null) {
+                flight.completeExceptionally(failure);
+            } else {
+                flight.complete(value);
+            }
+        });
+        return flight;
+    }
+
+    public int size() {
+        int size = 0;
+        for (Map<K, CompletableFuture<V>> stripe : stripes) {
+            size += stripe.size();
+        }
+        return size;
+    }
+
+    public long getCoalescedCount() {
+        return coalesced.sum();
+    }
+
+    private Map<K, CompletableFuture<V>> stripe(K key) {
+        int hash = key.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & (stripes.length - 1)];
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.userservice.util;
+
+import com.example.userservice.exception.ServiceOverloadedException;
+import com.example.userservice.exception.UserAlreadyExistsException;
+import com.example.userservice.exception.UserNotFoundException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// Timers for the individual stages of a sign-up or login, all under one name so a p99 regression can be
+// pinned to a stage by comparing the "stage" tag; "endpoint" and "outcome" split them further.
+@Component
+public class StageMetrics {
+
+    public static final String VALIDATION = "validation";
+    public static final String PASSWORD_ENCODE = "password-encode";
+    public static final String JWT_SIGN = "jwt-sign";
+    public static final String JWT_VERIFY = "jwt-verify";
+    public static final String DB_LOAD = "db-load";
+    public static final String DB_SAVE = "db-save";
+    public static final String RESPONSE_MAPPING = "response-mapping";
+
+    public static final String SUCCESS = "success";
+    public static final String CONFLICT = "conflict";
+    public static final String INVALID = "invalid";
+    public static final String NOT_FOUND = "not-found";
+    public static final String OVERLOADED = "overloaded";
+    public static final String ERROR = "error";
+
+    private final MeterRegistry meterRegistry;
+    private final boolean serverTimingEnabled;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    public StageMetrics(MeterRegistry meterRegistry) {
+        this(meterRegistry, false);
+    }
+
+    @Autowired
+    public StageMetrics(MeterRegistry meterRegistry,
+                        @Value("${users.server-timing.enabled:false}") boolean serverTimingEnabled) {
+        this.meterRegistry = meterRegistry;
+        this.serverTimingEnabled = serverTimingEnabled;
+    }
+
+    public StageRecorder start(String endpoint) {
+        return new StageRecorder(this, endpoint, serverTiming());
+    }
+
+    // Null unless Server-Timing is on and the caller runs inside a timed request; a field read when off
+    public ServerTiming serverTiming() {
+        return serverTimingEnabled ? ServerTiming.current() : null;
+    }
+
+    public void record(String endpoint, String stage, String outcome, long nanos) {
+        timer(endpoint, stage, outcome).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public Timer timer(String endpoint, String stage, String outcome) {
+        return timers.computeIfAbsent(endpoint + '|' + stage + '|' + outcome, key -> Timer.builder("users.stage")
+            .description("Time spent in one stage of a sign-up or login")
+            .tag("endpoint", endpoint)
+            .tag("stage", stage)
+            .tag("outcome", outcome)
+            .publishPercentileHistogram()
+            .register(meterRegistry));
+    }
+
+    // Requests that waited on another in-flight call for the same key instead of running their own
+    public void bindSingleFlight(String endpoint, SingleFlight<?, ?> flights) {
+        FunctionCounter.builder("users.single-flight.coalesced", flights, SingleFlight::getCoalescedCount)
+            .description("Requests served by an identical call already in flight")
+            .tag("endpoint", endpoint)
+            .register(meterRegistry);
+        Gauge.builder("users.single-flight.in-flight", flights, SingleFlight::size)
+            .description("Keys with a call currently in flight")
+            .tag("endpoint", endpoint)
+            .register(meterRegistry);
+    }
+
+    public static String outcomeOf(Throwable failure) {
+        Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+            ? failure.getCause() : failure;
+        if (cause == null) {
+            return SUCCESS;
+        }
+        if (cause instanceof UserAlreadyExistsException) {
+            return CONFLICT;
+        }
+        if (cause instanceof UserNotFoundException) {
+            return NOT_FOUND;
+        }
+        if (cause instanceof ServiceOverloadedException) {
+            return OVERLOADED;
+        }
+        return ERROR;
+    }
+}
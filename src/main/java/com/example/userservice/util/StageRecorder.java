@@ -0,0 +1,52 @@
+package com.example.userservice.util;
+
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+// Stage durations of one request. They are held until the outcome is known and then recorded together,
+// so every stage carries the outcome tag. Stages may run on different threads but never concurrently.
+public class StageRecorder {
+
+    private final StageMetrics metrics;
+    private final String endpoint;
+    private final ServerTiming serverTiming;
+    private String[] stages = new String[8];
+    private long[] nanos = new long[8];
+    private int count;
+
+    StageRecorder(StageMetrics metrics, String endpoint, ServerTiming serverTiming) {
+        this.metrics = metrics;
+        this.endpoint = endpoint;
+        this.serverTiming = serverTiming;
+    }
+
+    public <T> T time(String stage, Supplier<T> work) {
+        long start = System.nanoTime();
+        try {
+            return work.get();
+        } finally {
+            add(stage, System.nanoTime() - start);
+        }
+    }
+
+    public void add(String stage, long elapsedNanos) {
+        if (count == stages.length) {
+            stages = Arrays.copyOf(stages, count * 2);
+            nanos = Arrays.copyOf(nanos, count * 2);
+        }
+        stages[count] = stage;
+        nanos[count] = elapsedNanos;
+        count++;
+        if (serverTiming != null) {
+            serverTiming.add(stage, elapsedNanos);
+        }
+    }
+
+    public void finish(Throwable failure) {
+        String outcome = StageMetrics.outcomeOf(failure);
+        for (int i = 0; i < count; i++) {
+            metrics.record(endpoint, stages[i], outcome, nanos[i]);
+        }
+        count = 0;
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.userservice.util;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// Token bucket per key, kept as a single "theoretical arrival time" (GCRA) so a check is one CAS on an
+// AtomicLong and no refill thread is needed. Keys are spread over striped maps; a bucket whose arrival
+// time is in the past is full again and can be dropped without changing any decision, which is what
+// keeps memory bounded. A full stripe is trimmed to a low-water mark rather than by one entry, so the
+// scan runs once per tenth of the stripe's capacity in new keys instead of once per key.
+public class TokenBucketRateLimiter {
+
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final int maxKeysPerStripe;
+    private final int lowWaterKeysPerStripe;
+    private final Map<String, AtomicLong>[] stripes;
+
+    private final LongAdder evictions = new LongAdder();
+
+    @SuppressWarnings("unchecked")
+    public TokenBucketRateLimiter(double permitsPerSecond, int burst, int maxKeys, int stripeCount) {
+        if (permitsPerSecond <= 0 || burst <= 0 || maxKeys <= 0) {
+            throw new IllegalArgumentException("permitsPerSecond, burst and maxKeys must be positive");
+        }
+        this.intervalNanos = (long) (1_000_000_000L / permitsPerSecond);
+        this.toleranceNanos = intervalNanos * (burst - 1);
+        this.stripes = new Map[Integer.highestOneBit(Math.max(1, stripeCount))];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new ConcurrentHashMap<>();
+        }
+        this.maxKeysPerStripe = Math.max(1, maxKeys / stripes.length);
+        this.lowWaterKeysPerStripe = maxKeysPerStripe - Math.max(1, maxKeysPerStripe / 10);
+    }
+
+    // Returns 0 when a permit was taken, otherwise the nanoseconds until the next one is available
+    public long tryAcquire(String key, long nowNanos) {
+        Map<String, AtomicLong> stripe = stripe(key);
+        AtomicLong arrival = stripe.get(key);
+        if (arrival == null) {
+            if (stripe.size() >= maxKeysPerStripe) {
+                evict(stripe, nowNanos);
+            }
+            arrival = stripe.computeIfAbsent(key, k -> new AtomicLong(nowNanos));
+        }
+        while (true) {
+            long current = arrival.get();
+            long start = current - nowNanos < 0 ? nowNanos : current;
+            long waitNanos = start - nowNanos - toleranceNanos;
+            if (waitNanos > 0) {
+                return waitNanos;
+            }
+            if (arrival.compareAndSet(current, start + intervalNanos)) {
+                return 0;
+            }
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Map<String, AtomicLong> stripe : stripes) {
+            size += stripe.size();
+        }
+        return size;
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    private void evict(Map<String, AtomicLong> stripe, long nowNanos) {
+        // Another caller may have trimmed the stripe while this one was deciding to
+        if (stripe.size() < maxKeysPerStripe) {
+            return;
+        }
+        // Idle buckets first; if too many are busy, drop arbitrary ones, which only resets them to full
+        stripe.values().removeIf(arrival -> arrival.get() - nowNanos <= 0);
+        Iterator<AtomicLong> busy = stripe.values().iterator();
+        while (stripe.size() > lowWaterKeysPerStripe && busy.hasNext()) {
+            busy.next();
+            busy.remove();
+            evictions.increment();
+        }
+    }
+
+    // Picks the stripe from bits ConcurrentHashMap does not use for its bins; taking the low bits would leave
+    // each stripe's table using only 1 / stripes of its bins
+    private Map<String, AtomicLong> stripe(String key) {
+        int hash = key.hashCode() * 0x9E3779B9;
+        return stripes[(hash >>> 16) & (stripes.length - 1)];
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.userservice.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+
+// SHA-256 digest of a token, used as a compact key for caches and lookups
+public final class TokenFingerprint {
+
+    public static final int LENGTH = 32;
+
+    private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    });
+
+    private final byte[] bytes;
+    private final int hash;
+
+    private TokenFingerprint(byte[] bytes) {
+        this.bytes = bytes;
+        this.hash = Arrays.hashCode(bytes);
+    }
+
+    public static TokenFingerprint of(String token) {
+        MessageDigest digest = SHA256.get();
+        return new TokenFingerprint(digest.digest(token.getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    public static TokenFingerprint of(byte[] data) {
+        return new TokenFingerprint(SHA256.get().digest(data));
+    }
+
+    public static TokenFingerprint fromBytes(byte[] bytes) {
+        if (bytes.length != LENGTH) {
+            throw new IllegalArgumentException("Fingerprint must be " + LENGTH + " bytes");
+        }
+        return new TokenFingerprint(bytes.clone());
+    }
+
+    public byte[] toBytes() {
+        return bytes.clone();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof TokenFingerprint)) return false;
+        return Arrays.equals(bytes, ((TokenFingerprint) o).bytes);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+}
@@ -0,0 +1,185 @@
+package com.example.userservice.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Revoked token fingerprints, kept only until the token would have expired anyway. Lookups read
+// one ConcurrentHashMap stripe without locking; expiry is driven by a hierarchical timer wheel
+// that is advanced once per tick, and the set is snapshotted to disk so it survives restarts.
+@Component
+public class TokenRevocationStore {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenRevocationStore.class);
+    private static final int SNAPSHOT_MAGIC = 0x52564B31;
+
+    private final Map<TokenFingerprint, Long>[] stripes;
+    private final HierarchicalTimerWheel<TokenFingerprint> wheel;
+    private final long tickMillis;
+    private final Path snapshotFile;
+    private final long snapshotIntervalSeconds;
+
+    private volatile boolean dirty;
+    private ScheduledExecutorService scheduler;
+
+    @Autowired
+    @SuppressWarnings("unchecked")
+    public TokenRevocationStore(@Value("${jwt.revocation.stripes:16}") int stripeCount,
+                                @Value("${jwt.revocation.tick-millis:1000}") long tickMillis,
+                                @Value("${jwt.revocation.snapshot-file:}") String snapshotFile,
+                                @Value("${jwt.revocation.snapshot-interval-seconds:60}") long snapshotIntervalSeconds) {
+        this.stripes = new Map[Integer.highestOneBit(Math.max(1, stripeCount))];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new ConcurrentHashMap<>();
+        }
+        this.tickMillis = tickMillis;
+        this.wheel = new HierarchicalTimerWheel<>(tickMillis, System.currentTimeMillis());
+        this.snapshotFile = snapshotFile.isBlank() ? null : Path.of(snapshotFile);
+        this.snapshotIntervalSeconds = snapshotIntervalSeconds;
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        if (snapshotFile != null && Files.exists(snapshotFile)) {
+            log.info("Loaded {} revoked tokens from {}", loadSnapshot(snapshotFile), snapshotFile);
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "token-revocation");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleAtFixedRate(() -> expire(System.currentTimeMillis()), tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+        if (snapshotFile != null) {
+            scheduler.scheduleWithFixedDelay(this::snapshotIfDirty, snapshotIntervalSeconds, snapshotIntervalSeconds,
+                TimeUnit.SECONDS);
+        }
+    }
+
+    public boolean isRevoked(TokenFingerprint fingerprint) {
+        return stripe(fingerprint).containsKey(fingerprint);
+    }
+
+    public boolean isEmpty() {
+        for (Map<TokenFingerprint, Long> stripe : stripes) {
+            if (!stripe.isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public void revoke(TokenFingerprint fingerprint, long expiresAtMillis) {
+        synchronized (wheel) {
+            if (stripe(fingerprint).putIfAbsent(fingerprint, expiresAtMillis) != null) {
+                return;
+            }
+            if (!wheel.schedule(fingerprint, expiresAtMillis)) {
+                // Already expired, so the signature check rejects it anyway
+                stripe(fingerprint).remove(fingerprint);
+                return;
+            }
+        }
+        dirty = true;
+    }
+
+    public void expire(long nowMillis) {
+        synchronized (wheel) {
+            wheel.advance(nowMillis, fingerprint -> stripe(fingerprint).remove(fingerprint));
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Map<TokenFingerprint, Long> stripe : stripes) {
+            size += stripe.size();
+        }
+        return size;
+    }
+
+    public void writeSnapshot(Path file) throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        dirty = false;
+        int written = 0;
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(SNAPSHOT_MAGIC);
+            for (Map<TokenFingerprint, Long> stripe : stripes) {
+                for (Map.Entry<TokenFingerprint, Long> entry : stripe.entrySet()) {
+                    out.write(entry.getKey().toBytes());
+                    out.writeLong(entry.getValue());
+                    written++;
+                }
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        log.debug("Wrote {} revoked tokens to {}", written, file);
+    }
+
+    public int loadSnapshot(Path file) throws IOException {
+        long now = System.currentTimeMillis();
+        int loaded = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != SNAPSHOT_MAGIC) {
+                throw new IOException("Not a token revocation snapshot: " + file);
+            }
+            byte[] bytes = new byte[TokenFingerprint.LENGTH];
+            while (in.read(bytes, 0, 1) == 1) {
+                in.readFully(bytes, 1, bytes.length - 1);
+                long expiresAt = in.readLong();
+                if (expiresAt > now) {
+                    revoke(TokenFingerprint.fromBytes(bytes), expiresAt);
+                    loaded++;
+                }
+            }
+        }
+        return loaded;
+    }
+
+    private void snapshotIfDirty() {
+        if (!dirty) {
+            return;
+        }
+        try {
+            writeSnapshot(snapshotFile);
+        } catch (IOException e) {
+            dirty = true;
+            log.warn("Could not write token revocation snapshot to {}", snapshotFile, e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        if (snapshotFile != null) {
+            try {
+                writeSnapshot(snapshotFile);
+            } catch (IOException e) {
+                log.warn("Could not write token revocation snapshot to {}", snapshotFile, e);
+            }
+        }
+    }
+
+    private Map<TokenFingerprint, Long> stripe(TokenFingerprint fingerprint) {
+        int hash = fingerprint.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & (stripes.length - 1)];
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.userservice.util;
+
+import java.util.Locale;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+// How new user ids are generated. Random v4 ids land anywhere in the primary-key index; time-ordered v7
+// ids are appended at its right edge, which keeps inserts from splitting pages all over the B-tree.
+public enum UserIdStrategy implements Supplier<UUID> {
+
+    RANDOM {
+        @Override
+        public UUID get() {
+            return UUID.randomUUID();
+        }
+    },
+    TIME_ORDERED {
+        @Override
+        public UUID get() {
+            return UuidV7Generator.shared().next();
+        }
+    };
+
+    public static final String PROPERTY = "users.id.strategy";
+
+    // Accepts the property spelling, e.g. "time-ordered"
+    public static UserIdStrategy fromProperty(String value) {
+        return valueOf(value.trim().replace('-', '_').toUpperCase(Locale.ROOT));
+    }
+}
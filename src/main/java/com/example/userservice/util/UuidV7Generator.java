@@ -0,0 +1,50 @@
+package com.example.userservice.util;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+// UUIDv7 (RFC 9562): 48-bit Unix millis, then a 12-bit counter in rand_a, then 62 random bits. The millis
+// and counter share one AtomicLong, so ids are strictly increasing across threads with a single CAS; when
+// the counter runs out, or the clock steps back, the timestamp is borrowed forward instead of repeating.
+public class UuidV7Generator {
+
+    private static final int COUNTER_BITS = 12;
+    // Counter starts at a random value below half its range, leaving headroom for ids in the same millisecond
+    private static final int COUNTER_SEED_BOUND = 1 << (COUNTER_BITS - 1);
+    private static final UuidV7Generator SHARED = new UuidV7Generator(System::currentTimeMillis);
+
+    private final LongSupplier clock;
+    private final AtomicLong state = new AtomicLong();
+
+    public UuidV7Generator(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    public static UuidV7Generator shared() {
+        return SHARED;
+    }
+
+    public UUID next() {
+        long now = clock.getAsLong();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long next;
+        while (true) {
+            long last = state.get();
+            next = now > last >>> COUNTER_BITS
+                ? now << COUNTER_BITS | random.nextInt(COUNTER_SEED_BOUND)
+                : last + 1;
+            if (state.compareAndSet(last, next)) {
+                break;
+            }
+        }
+        long mostSigBits = (next >>> COUNTER_BITS) << 16 | 0x7000L | (next & 0xFFFL);
+        long leastSigBits = random.nextLong() & 0x3FFFFFFFFFFFFFFFL | 0x8000000000000000L;
+        return new UUID(mostSigBits, leastSigBits);
+    }
+
+    public static long timestampMillis(UUID uuid) {
+        return uuid.getMostSignificantBits() >>> 16;
+    }
+}
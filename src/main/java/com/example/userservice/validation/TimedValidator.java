@@ -0,0 +1,57 @@
+package com.example.userservice.validation;
+
+import com.example.userservice.util.ServerTiming;
+import com.example.userservice.util.StageMetrics;
+import org.springframework.validation.Errors;
+import org.springframework.validation.SmartValidator;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.util.UrlPathHelper;
+
+// Bean validation of @Valid request bodies, timed as the "validation" stage. It runs before the service
+// is called, so its outcome is only success or invalid.
+public class TimedValidator implements SmartValidator {
+
+    private static final UrlPathHelper PATHS = new UrlPathHelper();
+
+    private final SmartValidator delegate;
+    private final StageMetrics stageMetrics;
+
+    public TimedValidator(SmartValidator delegate, StageMetrics stageMetrics) {
+        this.delegate = delegate;
+        this.stageMetrics = stageMetrics;
+    }
+
+    @Override
+    public boolean supports(Class<?> clazz) {
+        return delegate.supports(clazz);
+    }
+
+    @Override
+    public void validate(Object target, Errors errors) {
+        validate(target, errors, new Object[0]);
+    }
+
+    @Override
+    public void validate(Object target, Errors errors, Object... validationHints) {
+        long start = System.nanoTime();
+        delegate.validate(target, errors, validationHints);
+        long elapsed = System.nanoTime() - start;
+        String outcome = errors.hasErrors() ? StageMetrics.INVALID : StageMetrics.SUCCESS;
+        stageMetrics.record(endpoint(), StageMetrics.VALIDATION, outcome, elapsed);
+        ServerTiming serverTiming = stageMetrics.serverTiming();
+        if (serverTiming != null) {
+            serverTiming.add(StageMetrics.VALIDATION, elapsed);
+        }
+    }
+
+    private static String endpoint() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes)) {
+            return "none";
+        }
+        String path = PATHS.getPathWithinApplication(((ServletRequestAttributes) attributes).getRequest());
+        return path.startsWith("/api/") ? path.substring("/api/".length()) : path;
+    }
+}
@@ -0,0 +1,13 @@
+-- Moves phone country codes into the country_codes dictionary: phones keep the code's id in country_code
+-- (CountryCodeConverter) instead of the free-form string. phones_data written before this change carries the
+-- codes inline (format version 1) and is still read as is; new writes use the ids. Written for H2.
+create table country_codes (
+    id integer generated by default as identity primary key,
+    code varchar(255) not null,
+    constraint uk_country_codes_code unique (code)
+);
+insert into country_codes (code) select distinct contrycode from phones;
+alter table phones add column country_code integer;
+update phones p set country_code = (select c.id from country_codes c where c.code = p.contrycode);
+alter table phones alter column country_code set not null;
+alter table phones drop column contrycode;
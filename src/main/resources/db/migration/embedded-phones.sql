@@ -0,0 +1,8 @@
+-- Adds phones_data, the user's phones packed into the users row (PhoneListConverter) for
+-- users.phones.storage=embedded. The column stays null until the rows are migrated; to move existing phones:
+--   1. run this script and restart with users.phones.storage=embedded (reads fall back to the phones table
+--      for users whose phones_data is still null)
+--   2. start once with users.phones.migrate-to-embedded=true (PhoneEmbeddingMigration), which fills
+--      phones_data page by page and deletes the migrated phones rows
+-- Written for H2.
+alter table users add column phones_data varbinary;
@@ -0,0 +1,8 @@
+-- Adds normalized_email, the trimmed lowercase email that uniqueness and lookups go through (EmailNormalizer).
+-- Emails that differ only in case must be merged first or the constraint fails. This query lists them:
+--   select lower(trim(email)), count(*) from users group by lower(trim(email)) having count(*) > 1
+-- Written for H2. The unique constraint Hibernate used to create on email is redundant after this one.
+alter table users add column normalized_email varchar(255);
+update users set normalized_email = lower(trim(email));
+alter table users alter column normalized_email set not null;
+alter table users add constraint uk_users_normalized_email unique (normalized_email);
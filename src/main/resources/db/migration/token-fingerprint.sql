@@ -0,0 +1,8 @@
+-- Replaces users.token (the full JWT) with token_fingerprint, the SHA-256 of the token as BINARY(32).
+-- TokenFingerprint hashes the same ASCII bytes, so tokens issued before the migration keep matching.
+-- Written for H2. The schema created by Hibernate (ddl-auto) already has this shape.
+alter table users add column token_fingerprint binary(32);
+update users set token_fingerprint = hash('SHA256', stringtoutf8(token), 1);
+alter table users alter column token_fingerprint set not null;
+alter table users add constraint uk_users_token_fingerprint unique (token_fingerprint);
+alter table users drop column token;
@@ -0,0 +1,71 @@
+package com.example.userservice.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BCryptStrengthCalibratorTest {
+
+    @Test
+    void calibrate_PicksHighestStrengthWithinTarget() {
+
+        BCryptStrengthCalibrator calibrator = new SimulatedCalibrator(10, 16, 250, 60);
+
+        // 10 -> 60 ms, 11 -> 120 ms, 12 -> 240 ms, 13 -> 480 ms
+        assertEquals(12, calibrator.calibrate());
+    }
+
+    @Test
+    void calibrate_SlowMachine_ReturnsFloor() {
+
+        BCryptStrengthCalibrator calibrator = new SimulatedCalibrator(10, 16, 250, 400);
+
+        assertEquals(10, calibrator.calibrate());
+    }
+
+    @Test
+    void calibrate_FastMachine_StopsAtMaxStrength() {
+
+        BCryptStrengthCalibrator calibrator = new SimulatedCalibrator(10, 12, 10_000, 1);
+
+        assertEquals(12, calibrator.calibrate());
+    }
+
+    @Test
+    void constructor_InvalidRange_ThrowsException() {
+
+        assertThrows(IllegalArgumentException.class, () -> new BCryptStrengthCalibrator(3, 16, 250));
+        assertThrows(IllegalArgumentException.class, () -> new BCryptStrengthCalibrator(12, 10, 250));
+    }
+
+    @Test
+    void passwordEncoder_FixedStrength_SkipsCalibrationAndVerifiesOtherCosts() {
+
+        PasswordEncoderConfig passwordEncoderConfig = new PasswordEncoderConfig();
+        ReflectionTestUtils.setField(passwordEncoderConfig, "strength", 4);
+        PasswordEncoder encoder = passwordEncoderConfig.passwordEncoder();
+
+        String hash = encoder.encode("aB2defgh9");
+        assertTrue(hash.startsWith("$2a$04$"));
+        assertTrue(encoder.matches("aB2defgh9", new BCryptPasswordEncoder(5).encode("aB2defgh9")));
+    }
+
+    private static class SimulatedCalibrator extends BCryptStrengthCalibrator {
+        private final long millisAtMin;
+        private final int minStrength;
+
+        SimulatedCalibrator(int minStrength, int maxStrength, long targetMillis, long millisAtMin) {
+            super(minStrength, maxStrength, targetMillis);
+            this.minStrength = minStrength;
+            this.millisAtMin = millisAtMin;
+        }
+
+        @Override
+        protected long measureMillis(int strength) {
+            return millisAtMin << (strength - minStrength);
+        }
+    }
+}
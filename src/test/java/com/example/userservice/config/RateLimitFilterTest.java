@@ -0,0 +1,104 @@
+package com.example.userservice.config;
+
+import com.example.userservice.util.TokenBucketRateLimiter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimitFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        Map<String, RateLimitFilter.EndpointLimit> limits = Map.of(
+            "/api/sign-up", new RateLimitFilter.EndpointLimit("sign-up",
+                new TokenBucketRateLimiter(0.001, 3, 100, 1), new TokenBucketRateLimiter(0.001, 1, 100, 1),
+                meterRegistry),
+            "/api/login", new RateLimitFilter.EndpointLimit("login",
+                new TokenBucketRateLimiter(0.001, 1, 100, 1), null, meterRegistry));
+        filter = new RateLimitFilter(limits, new ObjectMapper().findAndRegisterModules(), 64);
+    }
+
+    private MockHttpServletRequest signUp(String ip, String body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/sign-up");
+        request.setRemoteAddr(ip);
+        request.setContentType("application/json");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+
+    @Test
+    void signUp_SameEmailTwice_SecondIsRejectedBodyUnread() throws Exception {
+        MockFilterChain first = new MockFilterChain();
+        filter.doFilter(signUp("10.0.0.1", "{\"name\":\"A\",\"email\":\"Juan@Domain.cl\"}"), new MockHttpServletResponse(), first);
+        assertNotNull(first.getRequest());
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain second = new MockFilterChain();
+        filter.doFilter(signUp("10.0.0.2", "{\"email\":\"juan@domain.cl\"}"), response, second);
+
+        assertNull(second.getRequest());
+        assertEquals(429, response.getStatus());
+        assertNotNull(response.getHeader("Retry-After"));
+        assertTrue(response.getContentAsString().contains("\"codigo\":429"));
+        assertEquals(1.0, meterRegistry.get("users.rate-limit.rejected").tag("key", "email").counter().count());
+    }
+
+    @Test
+    void signUp_PassedRequest_ReplaysWholeBody() throws Exception {
+        String body = "{\"name\":\"" + "x".repeat(200) + "\",\"email\":\"late@domain.cl\"}";
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(signUp("10.0.0.1", body), new MockHttpServletResponse(), chain);
+
+        byte[] replayed = chain.getRequest().getInputStream().readAllBytes();
+        assertEquals(body, new String(replayed, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void signUp_TooManyFromOneIp_IsRejected() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            filter.doFilter(signUp("10.0.0.1", "{\"email\":\"u" + i + "@domain.cl\"}"),
+                new MockHttpServletResponse(), new MockFilterChain());
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(signUp("10.0.0.1", "{\"email\":\"u9@domain.cl\"}"), response, new MockFilterChain());
+
+        assertEquals(429, response.getStatus());
+        assertEquals(1.0, meterRegistry.get("users.rate-limit.rejected").tag("key", "ip").tag("endpoint", "sign-up").counter().count());
+    }
+
+    @Test
+    void login_LimitedPerIpOnly() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/login");
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, new MockFilterChain());
+
+        assertEquals(429, response.getStatus());
+    }
+
+    @Test
+    void otherPaths_AreNotLimited() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/actuator/health");
+        for (int i = 0; i < 5; i++) {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            filter.doFilter(request, response, new MockFilterChain());
+            assertEquals(200, response.getStatus());
+        }
+    }
+}
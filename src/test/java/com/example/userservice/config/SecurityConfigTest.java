@@ -0,0 +1,46 @@
+package com.example.userservice.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+    "security.password.strength=4",
+    "spring.jpa.show-sql=false",
+    "security.admin.password={noop}metrics-secret"
+})
+@AutoConfigureMockMvc
+class SecurityConfigTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void health_IsPublic() throws Exception {
+        mockMvc.perform(get("/actuator/health"))
+            .andExpect(status().isOk());
+    }
+
+    @Test
+    void metrics_WithoutAdmin_Unauthorized() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus"))
+            .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/actuator/metrics/users.stage"))
+            .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/actuator/prometheus").with(httpBasic("admin", "guess")))
+            .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void metrics_WithAdmin_Served() throws Exception {
+        // The Prometheus registry is off in tests, so the metrics listing stands in for it
+        mockMvc.perform(get("/actuator/metrics").with(httpBasic("admin", "metrics-secret")))
+            .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.userservice.config;
+
+import com.example.userservice.util.ServerTiming;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ServerTimingAdviceTest {
+
+    private final ServerTimingAdvice advice = new ServerTimingAdvice(60_000);
+
+    private MockHttpServletResponse write(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        ServletServerHttpResponse serverResponse = new ServletServerHttpResponse(response);
+
+        Object body = advice.beforeBodyWrite("body", null, null, null,
+            new ServletServerHttpRequest(request), serverResponse);
+        serverResponse.flush();
+
+        assertEquals("body", body);
+        return response;
+    }
+
+    @Test
+    void beforeBodyWrite_TimedRequest_AddsHeader() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/sign-up");
+        ServerTiming timing = new ServerTiming(System.nanoTime());
+        timing.add("password-encode", 250_000_000);
+        request.setAttribute(ServerTiming.ATTRIBUTE, timing);
+
+        MockHttpServletResponse response = write(request);
+
+        String header = response.getHeader(ServerTimingAdvice.HEADER);
+        assertNotNull(header);
+        assertTrue(header.startsWith("password-encode;dur=250.000, total;dur="));
+    }
+
+    @Test
+    void beforeBodyWrite_UntimedRequest_LeavesHeadersAlone() throws Exception {
+        MockHttpServletResponse response = write(new MockHttpServletRequest("GET", "/api/login"));
+
+        assertNull(response.getHeader(ServerTimingAdvice.HEADER));
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.userservice.controller;
+
+import com.example.userservice.dto.PhoneDto;
+import com.example.userservice.dto.UserResponse;
+import com.example.userservice.dto.UserSignUpRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "security.password.strength=4")
+@ActiveProfiles("reactive")
+@AutoConfigureWebTestClient
+class ReactiveUserControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    private UserSignUpRequest request(String email) {
+        return new UserSignUpRequest(email, "aB2defgh9", "Juan Rodriguez",
+            Arrays.asList(new PhoneDto(87650009L, 7, "25"), new PhoneDto(87650010L, 2, "56")));
+    }
+
+    private UserResponse signUp(UserSignUpRequest request) {
+        return webTestClient.post().uri("/api/sign-up")
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(request)
+            .exchange()
+            .expectStatus().isCreated()
+            .expectBody(UserResponse.class)
+            .returnResult().getResponseBody();
+    }
+
+    @Test
+    void signUpThenLogin_ReturnsUserWithPhonesAndNewToken() {
+        UserResponse created = signUp(request("reactive@domain.cl"));
+        assertEquals(7, created.getId().version());
+        assertNotNull(created.getToken());
+
+        UserResponse loggedIn = webTestClient.get().uri("/api/login")
+            .header("Authorization", "Bearer " + created.getToken())
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody(UserResponse.class)
+            .returnResult().getResponseBody();
+
+        assertEquals(created.getId(), loggedIn.getId());
+        assertEquals("reactive@domain.cl", loggedIn.getEmail());
+        assertEquals(2, loggedIn.getPhones().size());
+        assertEquals(87650009L, loggedIn.getPhones().get(0).getNumber());
+        assertNotNull(loggedIn.getToken());
+        assertTrue(loggedIn.getIsActive());
+    }
+
+    @Test
+    void signUp_ExistingEmail_ReturnsConflict() {
+        signUp(request("reactivetwice@domain.cl"));
+
+        webTestClient.post().uri("/api/sign-up")
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(request("reactivetwice@domain.cl"))
+            .exchange()
+            .expectStatus().isEqualTo(409)
+            .expectBody()
+            .jsonPath("$.error[0].codigo").isEqualTo(409)
+            .jsonPath("$.error[0].detail").isEqualTo("User already exists");
+    }
+
+    @Test
+    void signUp_InvalidRequest_ReturnsBadRequest() {
+        UserSignUpRequest invalid = new UserSignUpRequest("not-an-email", "aB2defgh9", "Juan", Collections.emptyList());
+
+        webTestClient.post().uri("/api/sign-up")
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(invalid)
+            .exchange()
+            .expectStatus().isBadRequest()
+            .expectBody()
+            .jsonPath("$.error[0].detail").isEqualTo("Invalid email format");
+    }
+
+    @Test
+    void login_InvalidToken_ReturnsNotFound() {
+        webTestClient.get().uri("/api/login")
+            .header("Authorization", "Bearer invalid-token")
+            .exchange()
+            .expectStatus().isNotFound()
+            .expectBody()
+            .jsonPath("$.error[0].detail").isEqualTo("Invalid token");
+    }
+
+    @Test
+    void prometheus_WithoutAdmin_Unauthorized() {
+        webTestClient.get().uri("/actuator/prometheus")
+            .exchange()
+            .expectStatus().isUnauthorized();
+    }
+}
@@ -1,27 +1,44 @@
 package com.example.userservice.controller;
 
+import com.example.userservice.dto.BatchSignUpRequest;
+import com.example.userservice.dto.BatchSignUpResponse;
+import com.example.userservice.dto.BatchSignUpResult;
 import com.example.userservice.dto.PhoneDto;
 import com.example.userservice.dto.UserResponse;
 import com.example.userservice.dto.UserSignUpRequest;
+import com.example.userservice.exception.ServiceOverloadedException;
 import com.example.userservice.exception.UserAlreadyExistsException;
 import com.example.userservice.exception.UserNotFoundException;
+import com.example.userservice.service.BatchSignUpService;
+import com.example.userservice.service.BoundedIdempotentResponseCache;
+import com.example.userservice.service.IdempotentResponseCache;
 import com.example.userservice.service.UserService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -35,9 +52,20 @@ class UserControllerTest {
     @MockBean
     private UserService userService;
 
+    @MockBean
+    private BatchSignUpService batchSignUpService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
+    @TestConfiguration
+    static class IdempotencyTestConfig {
+        @Bean
+        IdempotentResponseCache idempotentResponseCache() {
+            return new BoundedIdempotentResponseCache(100, 60, new SimpleMeterRegistry());
+        }
+    }
+
     private UserSignUpRequest userSignUpRequest;
     private UserResponse userResponse;
 
@@ -47,7 +75,7 @@ class UserControllerTest {
         
         userSignUpRequest = new UserSignUpRequest(
             "test@domain.cl",
-            "aB2defgh89",
+            "aB2defgh9",
             "Test User",
             Arrays.asList(phoneDto)
         );
@@ -67,11 +95,15 @@ class UserControllerTest {
     @Test
     void signUp_ValidRequest_ReturnsCreated() throws Exception {
 
-        when(userService.createUser(any(UserSignUpRequest.class))).thenReturn(userResponse);
+        when(userService.createUser(any(UserSignUpRequest.class))).thenReturn(CompletableFuture.completedFuture(userResponse));
 
-        mockMvc.perform(post("/api/sign-up")
+        MvcResult result = mockMvc.perform(post("/api/sign-up")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(userSignUpRequest)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isCreated())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.email").value("test@domain.cl"))
@@ -95,6 +127,118 @@ class UserControllerTest {
                 .andExpect(jsonPath("$.error[0].detail").value("User already exists"));
     }
     
+    @Test
+    void signUp_HashingQueueFull_ReturnsServiceUnavailable() throws Exception {
+
+        when(userService.createUser(any(UserSignUpRequest.class)))
+                .thenThrow(new ServiceOverloadedException("Too many sign-up requests, please retry later", 2));
+
+        mockMvc.perform(post("/api/sign-up")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(userSignUpRequest)))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "2"))
+                .andExpect(jsonPath("$.error[0].codigo").value(503));
+    }
+
+    @Test
+    void signUp_SameIdempotencyKey_ReplaysStoredResponse() throws Exception {
+
+        when(userService.createUser(any(UserSignUpRequest.class))).thenReturn(CompletableFuture.completedFuture(userResponse));
+
+        MvcResult first = mockMvc.perform(post("/api/sign-up")
+                .header("Idempotency-Key", "replay-key")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(userSignUpRequest)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(first))
+                .andExpect(status().isCreated())
+                .andExpect(header().doesNotExist("Idempotent-Replayed"))
+                .andReturn().getResponse().getContentAsString();
+
+        MvcResult replay = mockMvc.perform(post("/api/sign-up")
+                .header("Idempotency-Key", "replay-key")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(userSignUpRequest)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(replay))
+                .andExpect(status().isCreated())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andExpect(content().string(body))
+                .andExpect(jsonPath("$.token").value("test-token"));
+
+        verify(userService, times(1)).createUser(any(UserSignUpRequest.class));
+    }
+
+    @Test
+    void signUp_IdempotencyKeyReusedForDifferentRequest_ReturnsUnprocessableEntity() throws Exception {
+
+        when(userService.createUser(any(UserSignUpRequest.class))).thenReturn(CompletableFuture.completedFuture(userResponse));
+        MvcResult first = mockMvc.perform(post("/api/sign-up")
+                .header("Idempotency-Key", "reused-key")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(userSignUpRequest)))
+                .andReturn();
+        mockMvc.perform(asyncDispatch(first)).andExpect(status().isCreated());
+
+        userSignUpRequest.setName("Other Name");
+
+        mockMvc.perform(post("/api/sign-up")
+                .header("Idempotency-Key", "reused-key")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(userSignUpRequest)))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.error[0].codigo").value(422));
+
+        verify(userService, times(1)).createUser(any(UserSignUpRequest.class));
+    }
+
+    @Test
+    void signUp_SameIdempotencyKeyOtherEmail_IsNotAReplay() throws Exception {
+
+        when(userService.createUser(any(UserSignUpRequest.class))).thenReturn(CompletableFuture.completedFuture(userResponse));
+        MvcResult first = mockMvc.perform(post("/api/sign-up")
+                .header("Idempotency-Key", "scoped-key")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(userSignUpRequest)))
+                .andReturn();
+        mockMvc.perform(asyncDispatch(first)).andExpect(status().isCreated());
+
+        userSignUpRequest.setEmail("other@domain.cl");
+
+        MvcResult second = mockMvc.perform(post("/api/sign-up")
+                .header("Idempotency-Key", "scoped-key")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(userSignUpRequest)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(second))
+                .andExpect(status().isCreated())
+                .andExpect(header().doesNotExist("Idempotent-Replayed"));
+
+        verify(userService, times(2)).createUser(any(UserSignUpRequest.class));
+    }
+
+    @Test
+    void signUp_ConflictWithIdempotencyKey_IsNotStored() throws Exception {
+
+        when(userService.createUser(any(UserSignUpRequest.class)))
+                .thenThrow(new UserAlreadyExistsException("User already exists"));
+
+        for (int attempt = 0; attempt < 2; attempt++) {
+            mockMvc.perform(post("/api/sign-up")
+                    .header("Idempotency-Key", "conflict-key")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(userSignUpRequest)))
+                    .andExpect(status().isConflict());
+        }
+
+        verify(userService, times(2)).createUser(any(UserSignUpRequest.class));
+    }
+
     @Test
     void signUp_InvalidEmail_ReturnsBadRequest() throws Exception {
 
@@ -108,6 +252,64 @@ class UserControllerTest {
                 .andExpect(jsonPath("$.error").isArray());
     }
 
+    @Test
+    void signUpBatch_ValidRequest_ReturnsPerItemResults() throws Exception {
+
+        BatchSignUpResponse batchResponse = new BatchSignUpResponse(Arrays.asList(
+            BatchSignUpResult.created(0, userResponse),
+            BatchSignUpResult.conflict(1, "taken@domain.cl", "User already exists")));
+        when(batchSignUpService.createUsers(anyList())).thenReturn(CompletableFuture.completedFuture(batchResponse));
+
+        MvcResult result = mockMvc.perform(post("/api/sign-up/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new BatchSignUpRequest(Arrays.asList(userSignUpRequest, userSignUpRequest)))))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Retry-After"))
+                .andExpect(jsonPath("$.created").value(1))
+                .andExpect(jsonPath("$.conflicts").value(1))
+                .andExpect(jsonPath("$.results[0].status").value("CREATED"))
+                .andExpect(jsonPath("$.results[0].user.token").value("test-token"))
+                .andExpect(jsonPath("$.results[1].status").value("CONFLICT"))
+                .andExpect(jsonPath("$.results[1].errors[0]").value("User already exists"));
+    }
+
+    @Test
+    void signUpBatch_SomeEntriesOverloaded_SetsRetryAfter() throws Exception {
+
+        BatchSignUpResponse batchResponse = new BatchSignUpResponse(Arrays.asList(
+            BatchSignUpResult.created(0, userResponse),
+            BatchSignUpResult.overloaded(1, "later@domain.cl", "Too many sign-up requests, please retry later")));
+        batchResponse.setRetryAfterSeconds(2);
+        when(batchSignUpService.createUsers(anyList())).thenReturn(CompletableFuture.completedFuture(batchResponse));
+
+        MvcResult result = mockMvc.perform(post("/api/sign-up/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new BatchSignUpRequest(Arrays.asList(userSignUpRequest, userSignUpRequest)))))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Retry-After", "2"))
+                .andExpect(jsonPath("$.overloaded").value(1))
+                .andExpect(jsonPath("$.retryAfterSeconds").doesNotExist())
+                .andExpect(jsonPath("$.results[1].status").value("OVERLOADED"));
+    }
+
+    @Test
+    void signUpBatch_EmptyUsers_ReturnsBadRequest() throws Exception {
+
+        mockMvc.perform(post("/api/sign-up/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new BatchSignUpRequest(Collections.emptyList()))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error[0].detail").value("Users are required"));
+    }
+
     @Test
     void login_ValidToken_ReturnsUser() throws Exception {
         
@@ -135,4 +337,14 @@ class UserControllerTest {
                 .andExpect(jsonPath("$.error").isArray())
                 .andExpect(jsonPath("$.error[0].detail").value("Invalid token"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void logout_ValidToken_ReturnsNoContent() throws Exception {
+
+        mockMvc.perform(post("/api/logout")
+                .header("Authorization", "Bearer test-token"))
+                .andExpect(status().isNoContent());
+
+        verify(userService).logoutUser("test-token");
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.userservice.controller;
+
+import com.example.userservice.service.UserExportService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(value = UserExportController.class, properties = {
+    "users.export.enabled=true",
+    "security.admin.password={noop}export-secret"
+})
+class UserExportControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private UserExportService userExportService;
+
+    @Test
+    void export_StreamsNdjson() throws Exception {
+
+        when(userExportService.export(any(OutputStream.class))).thenAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(0);
+            out.write("{\"email\":\"a@domain.cl\"}\n".getBytes(StandardCharsets.UTF_8));
+            return 1L;
+        });
+
+        MvcResult result = mockMvc.perform(get("/api/users/export").with(httpBasic("admin", "export-secret")))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andExpect(content().string("{\"email\":\"a@domain.cl\"}\n"));
+    }
+
+    @Test
+    void export_WithoutCredentials_Unauthorized() throws Exception {
+        mockMvc.perform(get("/api/users/export"))
+                .andExpect(status().isUnauthorized());
+
+        verifyNoInteractions(userExportService);
+    }
+
+    @Test
+    void export_WrongPassword_Unauthorized() throws Exception {
+        mockMvc.perform(get("/api/users/export").with(httpBasic("admin", "guess")))
+                .andExpect(status().isUnauthorized());
+
+        verifyNoInteractions(userExportService);
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.userservice.entity;
+
+import com.example.userservice.util.InternDictionary;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PhoneListConverterTest {
+
+    private final Map<Integer, String> stored = new HashMap<>();
+    private final PhoneListConverter converter = new PhoneListConverter(new InternDictionary(code -> {
+        stored.put(stored.size() + 1, code);
+        return stored.size();
+    }, () -> new HashMap<>(stored)));
+
+    @Test
+    void roundTrip_KeepsPhonesInOrder() {
+        List<Phone> phones = Arrays.asList(new Phone(87650009L, 7, "25"), new Phone(-1L, 0, "\u00f156"),
+            new Phone(Long.MAX_VALUE, Integer.MIN_VALUE, ""));
+
+        List<Phone> decoded = converter.convertToEntityAttribute(converter.convertToDatabaseColumn(phones));
+
+        assertEquals(phones, decoded);
+    }
+
+    @Test
+    void convertToDatabaseColumn_TypicalPhone_IsCompact() {
+        byte[] data = converter.convertToDatabaseColumn(Collections.singletonList(new Phone(87650009L, 7, "25")));
+
+        // version, count, 4-byte number, city code and country code id
+        assertEquals(8, data.length);
+        assertEquals(PhoneListConverter.VERSION, data[0]);
+    }
+
+    @Test
+    void convertToDatabaseColumn_RepeatedCountryCode_StoredOnce() {
+        converter.convertToDatabaseColumn(Arrays.asList(new Phone(1L, 7, "56"), new Phone(2L, 2, "56")));
+        converter.convertToDatabaseColumn(Collections.singletonList(new Phone(3L, 7, "25")));
+
+        assertEquals(2, stored.size());
+    }
+
+    @Test
+    void convertToEntityAttribute_InlineCodesVersion_StillReads() {
+        // version 1, one phone: number 87650009, city code 7, country code "25" as UTF-8
+        byte[] data = {1, 1, (byte) 0xB2, (byte) 0xBB, (byte) 0xCB, (byte) 0x53, 14, 2, '2', '5'};
+
+        List<Phone> decoded = converter.convertToEntityAttribute(data);
+
+        assertEquals(Collections.singletonList(new Phone(87650009L, 7, "25")), decoded);
+        assertTrue(stored.isEmpty());
+    }
+
+    @Test
+    void emptyAndNull_StayDistinct() {
+        byte[] empty = converter.convertToDatabaseColumn(new ArrayList<>());
+
+        assertEquals(2, empty.length);
+        assertEquals(Collections.emptyList(), converter.convertToEntityAttribute(empty));
+        assertNull(converter.convertToDatabaseColumn(null));
+        assertNull(converter.convertToEntityAttribute(null));
+    }
+
+    @Test
+    void convertToEntityAttribute_UnknownVersion_Throws() {
+        assertThrows(IllegalArgumentException.class, () -> converter.convertToEntityAttribute(new byte[] {9, 0}));
+    }
+}
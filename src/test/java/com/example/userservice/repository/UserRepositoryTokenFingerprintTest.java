@@ -0,0 +1,64 @@
+package com.example.userservice.repository;
+
+import com.example.userservice.dto.UserResponse;
+import com.example.userservice.dto.UserSignUpRequest;
+import com.example.userservice.service.UserService;
+import com.example.userservice.util.JwtUtil;
+import com.example.userservice.util.TokenFingerprint;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+    "security.password.strength=4",
+    "spring.jpa.show-sql=false",
+    "users.email-index.enabled=false"
+})
+class UserRepositoryTokenFingerprintTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Test
+    void findByToken_LooksUpLatestTokenByFingerprint() {
+        UserResponse created = userService.createUser(new UserSignUpRequest("fingerprint@domain.cl", "aB2defgh9",
+            "Token User", Collections.emptyList())).join();
+        String token = userService.loginUser(created.getToken()).getToken();
+
+        assertEquals(created.getId(), userRepository.findByToken(token).orElseThrow().getId());
+        assertTrue(userRepository.findByToken(token + "x").isEmpty());
+    }
+
+    @Test
+    void migration_FingerprintOfLegacyToken_MatchesTokenFingerprint() {
+        // A database still on the old schema, separate from the one Hibernate created
+        DriverManagerDataSource legacy = new DriverManagerDataSource(
+            "jdbc:h2:mem:token-fingerprint-migration;DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbc = new JdbcTemplate(legacy);
+        String token = jwtUtil.generateToken("legacy@domain.cl");
+        try {
+            jdbc.execute("create table users (id int primary key, token varchar(512) not null)");
+            jdbc.update("insert into users (id, token) values (1, ?)", token);
+            new ResourceDatabasePopulator(new ClassPathResource("db/migration/token-fingerprint.sql")).execute(legacy);
+
+            byte[] migrated = jdbc.queryForObject("select token_fingerprint from users where id = 1", byte[].class);
+            assertArrayEquals(TokenFingerprint.of(token).toBytes(), migrated);
+        } finally {
+            jdbc.execute("shutdown");
+        }
+    }
+}
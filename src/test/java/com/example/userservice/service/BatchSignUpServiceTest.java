@@ -0,0 +1,216 @@
+package com.example.userservice.service;
+
+import com.example.userservice.dto.BatchSignUpResponse;
+import com.example.userservice.dto.BatchSignUpResult;
+import com.example.userservice.dto.BatchSignUpStatus;
+import com.example.userservice.dto.PhoneDto;
+import com.example.userservice.dto.UserSignUpRequest;
+import com.example.userservice.entity.User;
+import com.example.userservice.exception.ServiceOverloadedException;
+import com.example.userservice.repository.UserRepository;
+import com.example.userservice.util.InternDictionary;
+import com.example.userservice.util.JwtUtil;
+import com.example.userservice.util.StageMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.persistence.EntityManager;
+import javax.validation.Validation;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BatchSignUpServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private PasswordHasher passwordHasher;
+
+    @Mock
+    private JwtUtil jwtUtil;
+
+    @Mock
+    private EmailExistenceIndex emailIndex;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private InternDictionary countryCodeDictionary;
+
+    private BatchSignUpService batchSignUpService;
+
+    @BeforeEach
+    void setUp() {
+        UserService userService = new UserService(userRepository, passwordHasher, jwtUtil, emailIndex, null, null,
+            new StageMetrics(new SimpleMeterRegistry()), null, countryCodeDictionary);
+        batchSignUpService = new BatchSignUpService(userRepository, passwordHasher, jwtUtil, emailIndex, userService,
+            Validation.buildDefaultValidatorFactory().getValidator(), entityManager, transactionManager, 2, 2, 2, "table",
+            countryCodeDictionary, new PersistenceExecutor(1, 16));
+    }
+
+    private static UserSignUpRequest request(String email) {
+        return new UserSignUpRequest(email, "aB2defgh9", "Test User",
+            Collections.singletonList(new PhoneDto(87650009L, 7, "25")));
+    }
+
+    private void stubHashing() {
+        when(passwordHasher.encodeAsync(anyString())).thenReturn(CompletableFuture.completedFuture("encodedPassword"));
+        when(jwtUtil.generateToken(anyString())).thenReturn("test-token");
+    }
+
+    @Test
+    void createUsers_MixedBatch_ReturnsResultsInRequestOrder() {
+        when(emailIndex.mightContain(anyString())).thenReturn(true);
+        when(userRepository.findExistingEmails(anyCollection())).thenReturn(Collections.emptyList());
+        when(userRepository.findExistingEmails(Arrays.asList("taken@domain.cl", "ok@domain.cl")))
+            .thenReturn(Collections.singletonList("taken@domain.cl"));
+        stubHashing();
+
+        BatchSignUpResponse response = batchSignUpService.createUsers(Arrays.asList(
+            request("taken@domain.cl"),
+            request("invalid-email"),
+            request("ok@domain.cl"),
+            request("OK@Domain.cl"),
+            null,
+            request("other@domain.cl"))).join();
+
+        List<BatchSignUpResult> results = response.getResults();
+        assertEquals(6, results.size());
+        assertEquals(BatchSignUpStatus.CONFLICT, results.get(0).getStatus());
+        assertEquals(BatchSignUpStatus.INVALID, results.get(1).getStatus());
+        assertEquals(Collections.singletonList("Invalid email format"), results.get(1).getErrors());
+        assertEquals(BatchSignUpStatus.CREATED, results.get(2).getStatus());
+        assertEquals("test-token", results.get(2).getUser().getToken());
+        assertEquals(1, results.get(2).getUser().getPhones().size());
+        assertEquals(BatchSignUpStatus.CONFLICT, results.get(3).getStatus());
+        assertEquals(Collections.singletonList("Duplicate email in batch"), results.get(3).getErrors());
+        assertEquals(BatchSignUpStatus.INVALID, results.get(4).getStatus());
+        assertEquals(BatchSignUpStatus.CREATED, results.get(5).getStatus());
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals(i, results.get(i).getIndex());
+        }
+
+        assertEquals(2, response.getCreated());
+        assertEquals(2, response.getConflicts());
+        assertEquals(2, response.getInvalid());
+        verify(userRepository, times(2)).findExistingEmails(anyCollection());
+        verify(userRepository, never()).existsByNormalizedEmail(anyString());
+        verify(userRepository).saveAll(anyIterable());
+        verify(emailIndex).add("ok@domain.cl");
+        verify(emailIndex).add("other@domain.cl");
+    }
+
+    @Test
+    void createUsers_EmailsRuledOutByIndex_SkipsLookup() {
+        when(emailIndex.mightContain(anyString())).thenReturn(false);
+        stubHashing();
+
+        BatchSignUpResponse response = batchSignUpService.createUsers(Arrays.asList(
+            request("a@domain.cl"), request("b@domain.cl"), request("c@domain.cl"))).join();
+
+        assertEquals(3, response.getCreated());
+        verify(userRepository, never()).findExistingEmails(anyCollection());
+        verify(passwordHasher, times(3)).encodeAsync("aB2defgh9");
+        // Insert chunk size is 2
+        verify(userRepository, times(2)).saveAll(anyIterable());
+        verify(entityManager, times(2)).clear();
+    }
+
+    @Test
+    void createUsers_ChunkViolatesUniqueEmail_RetriesIndividually() {
+        when(emailIndex.mightContain(anyString())).thenReturn(false);
+        stubHashing();
+        when(userRepository.saveAll(anyIterable())).thenThrow(new DataIntegrityViolationException("duplicate"));
+        when(userRepository.saveAndFlush(any(User.class))).thenAnswer(invocation -> {
+            User user = invocation.getArgument(0);
+            if (user.getEmail().equals("raced@domain.cl")) {
+                throw new DataIntegrityViolationException("duplicate");
+            }
+            return user;
+        });
+
+        BatchSignUpResponse response = batchSignUpService.createUsers(Arrays.asList(
+            request("raced@domain.cl"), request("fine@domain.cl"))).join();
+
+        assertEquals(BatchSignUpStatus.CONFLICT, response.getResults().get(0).getStatus());
+        assertEquals(BatchSignUpStatus.CREATED, response.getResults().get(1).getStatus());
+        verify(userRepository, times(2)).saveAndFlush(any(User.class));
+        verify(emailIndex, never()).add("raced@domain.cl");
+    }
+
+    @Test
+    void createUsers_HashingQueueFull_ReportsTheRestOverloaded() {
+        when(emailIndex.mightContain(anyString())).thenReturn(false);
+        when(jwtUtil.generateToken(anyString())).thenReturn("test-token");
+        when(passwordHasher.encodeAsync(anyString()))
+            .thenReturn(CompletableFuture.completedFuture("encodedPassword"))
+            .thenThrow(new ServiceOverloadedException("busy", 3));
+
+        BatchSignUpResponse response = batchSignUpService.createUsers(Arrays.asList(
+            request("a@domain.cl"), request("b@domain.cl"), request("c@domain.cl"))).join();
+
+        assertEquals(BatchSignUpStatus.CREATED, response.getResults().get(0).getStatus());
+        assertEquals(BatchSignUpStatus.OVERLOADED, response.getResults().get(1).getStatus());
+        assertEquals(BatchSignUpStatus.OVERLOADED, response.getResults().get(2).getStatus());
+        assertEquals(Collections.singletonList("busy"), response.getResults().get(2).getErrors());
+        assertEquals(2, response.getOverloaded());
+        assertEquals(3, response.getRetryAfterSeconds());
+        // Nothing more is submitted once the queue rejects a hash
+        verify(passwordHasher, times(2)).encodeAsync(anyString());
+        verify(userRepository).saveAll(anyIterable());
+    }
+
+    @Test
+    void createUsers_ReturnsBeforeHashingCompletes() {
+        when(emailIndex.mightContain(anyString())).thenReturn(false);
+        when(jwtUtil.generateToken(anyString())).thenReturn("test-token");
+        CompletableFuture<String> hash = new CompletableFuture<>();
+        when(passwordHasher.encodeAsync(anyString())).thenReturn(hash);
+
+        CompletableFuture<BatchSignUpResponse> response =
+            batchSignUpService.createUsers(Collections.singletonList(request("a@domain.cl")));
+
+        assertFalse(response.isDone());
+        hash.complete("encodedPassword");
+        assertEquals(1, response.join().getCreated());
+    }
+
+    @Test
+    void createUsers_LookupIsChunked() {
+        when(emailIndex.mightContain(anyString())).thenReturn(true);
+        when(userRepository.findExistingEmails(anyCollection())).thenAnswer(invocation -> {
+            Collection<String> emails = invocation.getArgument(0);
+            assertTrue(emails.size() <= 2);
+            return List.copyOf(emails);
+        });
+
+        BatchSignUpResponse response = batchSignUpService.createUsers(Arrays.asList(
+            request("a@domain.cl"), request("b@domain.cl"), request("c@domain.cl"))).join();
+
+        assertEquals(3, response.getConflicts());
+        verify(userRepository, times(2)).findExistingEmails(anyCollection());
+        verifyNoInteractions(passwordHasher);
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.userservice.service;
+
+import com.example.userservice.dto.PhoneDto;
+import com.example.userservice.dto.UserSignUpRequest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedIdempotentResponseCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private BoundedIdempotentResponseCache cache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new BoundedIdempotentResponseCache(2, 300, meterRegistry);
+    }
+
+    private static UserSignUpRequest request(String email) {
+        return new UserSignUpRequest(email, "aB2defgh9", "Test User", Arrays.asList(new PhoneDto(87650009L, 7, "25")));
+    }
+
+    private static IdempotentResponse response(String email) {
+        return IdempotentResponse.of(request(email), 201,
+            ("{\"email\":\"" + email + "\"}").getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void get_AfterPut_ReturnsResponseAndCountsHit() {
+        IdempotentResponse response = response("a@domain.cl");
+
+        cache.put("a@domain.cl", "key-a", response);
+
+        assertSame(response, cache.get("A@domain.cl", "key-a"));
+        assertNull(cache.get("a@domain.cl", "key-b"));
+        assertEquals(0.5, cache.hitRate());
+        assertEquals(1.0, meterRegistry.get("users.idempotency.requests").tag("result", "hit").functionCounter().count());
+        assertEquals(response.estimatedBytes(), meterRegistry.get("users.idempotency.memory").gauge().value());
+    }
+
+    @Test
+    void put_OverCapacity_EvictsAndReportsIt() {
+        cache.put("a@domain.cl", "key-a", response("a@domain.cl"));
+        cache.put("b@domain.cl", "key-b", response("b@domain.cl"));
+        cache.put("c@domain.cl", "key-c", response("c@domain.cl"));
+
+        assertNull(cache.get("a@domain.cl", "key-a"));
+        assertEquals(1.0, meterRegistry.get("users.idempotency.evictions").functionCounter().count());
+        assertEquals(2.0, meterRegistry.get("users.idempotency.size").gauge().value());
+    }
+
+    @Test
+    void get_AfterTtl_ReturnsNull() {
+        BoundedIdempotentResponseCache expired = new BoundedIdempotentResponseCache(2, 0, meterRegistry);
+
+        expired.put("a@domain.cl", "key-a", response("a@domain.cl"));
+
+        assertNull(expired.get("a@domain.cl", "key-a"));
+    }
+
+    @Test
+    void matches_SameRequestOnly() {
+        IdempotentResponse response = response("a@domain.cl");
+
+        assertTrue(response.matches(request("a@domain.cl")));
+        assertFalse(response.matches(request("b@domain.cl")));
+        UserSignUpRequest otherPassword = request("a@domain.cl");
+        otherPassword.setPassword("zZ9yxwvu8");
+        assertFalse(response.matches(otherPassword));
+    }
+
+    @Test
+    void matches_PasswordWithSameStringHashCode_DoesNotMatch() {
+        UserSignUpRequest first = request("a@domain.cl");
+        first.setPassword("Aa2defgh9");
+        UserSignUpRequest collision = request("a@domain.cl");
+        collision.setPassword("BB2defgh9");
+        assertEquals(first.hashCode(), collision.hashCode());
+
+        IdempotentResponse response = IdempotentResponse.of(first, 201, new byte[0]);
+
+        assertTrue(response.matches(first));
+        assertFalse(response.matches(collision));
+    }
+
+    @Test
+    void get_SameKeyOtherEmail_IsAnotherEntry() {
+        cache.put("a@domain.cl", "shared-key", response("a@domain.cl"));
+
+        assertNull(cache.get("b@domain.cl", "shared-key"));
+        assertNotNull(cache.get("a@domain.cl", "shared-key"));
+    }
+
+    @Test
+    void disabled_NeverStores() {
+        IdempotentResponseCache disabled = IdempotentResponseCache.disabled();
+
+        disabled.put("a@domain.cl", "key-a", response("a@domain.cl"));
+
+        assertNull(disabled.get("a@domain.cl", "key-a"));
+    }
+}
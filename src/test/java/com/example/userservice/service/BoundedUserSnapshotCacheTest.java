@@ -0,0 +1,89 @@
+package com.example.userservice.service;
+
+import com.example.userservice.entity.Phone;
+import com.example.userservice.entity.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedUserSnapshotCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private BoundedUserSnapshotCache cache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new BoundedUserSnapshotCache(2, 300, meterRegistry);
+    }
+
+    private static UserSnapshot snapshot(String email) {
+        User user = new User(email, "encodedPassword", "Test User", Arrays.asList(new Phone(87650009L, 7, "25")));
+        user.setId(UUID.randomUUID());
+        user.setToken("token");
+        return UserSnapshot.of(user);
+    }
+
+    @Test
+    void get_AfterPut_ReturnsSnapshotAndCountsHit() {
+        UserSnapshot snapshot = snapshot("a@domain.cl");
+
+        cache.put(snapshot);
+
+        assertSame(snapshot, cache.get("a@domain.cl"));
+        assertNull(cache.get("b@domain.cl"));
+        assertEquals(0.5, cache.hitRate());
+        assertEquals(1.0, meterRegistry.get("users.cache.requests").tag("result", "hit").functionCounter().count());
+        assertEquals(snapshot.estimatedBytes(), meterRegistry.get("users.cache.memory").gauge().value());
+    }
+
+    @Test
+    void put_OverCapacity_EvictsAndReportsIt() {
+        cache.put(snapshot("a@domain.cl"));
+        cache.put(snapshot("b@domain.cl"));
+        cache.put(snapshot("c@domain.cl"));
+
+        assertNull(cache.get("a@domain.cl"));
+        assertEquals(1.0, meterRegistry.get("users.cache.evictions").functionCounter().count());
+        assertEquals(2.0, meterRegistry.get("users.cache.size").gauge().value());
+    }
+
+    @Test
+    void invalidate_RemovesEntry() {
+        cache.put(snapshot("a@domain.cl"));
+
+        cache.invalidate("a@domain.cl");
+
+        assertNull(cache.get("a@domain.cl"));
+    }
+
+    @Test
+    void withLogin_KeepsOriginalUnchanged() {
+        UserSnapshot original = snapshot("a@domain.cl");
+        LocalDateTime loginAt = LocalDateTime.now().plusMinutes(1);
+
+        UserSnapshot loggedIn = original.withLogin("new-token", loginAt);
+
+        assertEquals("token", original.getToken());
+        assertEquals("new-token", loggedIn.getToken());
+        assertEquals(loginAt, loggedIn.getLastLogin());
+        assertSame(original.getPhones(), loggedIn.getPhones());
+        assertThrows(UnsupportedOperationException.class, () -> loggedIn.getPhones().clear());
+    }
+
+    @Test
+    void disabled_NeverCaches() {
+        UserSnapshotCache disabled = UserSnapshotCache.disabled();
+
+        disabled.put(snapshot("a@domain.cl"));
+        disabled.invalidate("a@domain.cl");
+
+        assertNull(disabled.get("a@domain.cl"));
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.userservice.service;
+
+import com.example.userservice.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EmailExistenceIndexTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private EmailExistenceIndex index;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        index = new EmailExistenceIndex(userRepository, meterRegistry, true, 10000, 0.01);
+    }
+
+    @Test
+    void mightContain_BeforeLoad_ReturnsTrue() {
+        assertFalse(index.isReady());
+        assertTrue(index.mightContain("test@domain.cl"));
+    }
+
+    @Test
+    void rebuild_LoadsAllPages() {
+        Pageable first = PageRequest.of(0, 1000);
+        when(userRepository.count()).thenReturn(2L);
+        when(userRepository.findEmails(any(Pageable.class)))
+            .thenReturn(new SliceImpl<>(Collections.singletonList("a@domain.cl"), first, true))
+            .thenReturn(new SliceImpl<>(Collections.singletonList("b@domain.cl"), first.next(), false));
+
+        index.rebuild();
+
+        assertTrue(index.isReady());
+        assertTrue(index.mightContain("a@domain.cl"));
+        assertTrue(index.mightContain("b@domain.cl"));
+        assertFalse(index.mightContain("missing@domain.cl"));
+        verify(userRepository, times(2)).findEmails(any(Pageable.class));
+        assertEquals(1.0, meterRegistry.counter("users.email-index.lookups", "result", "negative").count());
+        assertTrue(meterRegistry.get("users.email-index.memory").gauge().value() > 0);
+    }
+
+    @Test
+    void add_AfterLoad_MakesEmailVisible() {
+        when(userRepository.findEmails(any(Pageable.class)))
+            .thenReturn(new SliceImpl<>(Arrays.asList("a@domain.cl"), PageRequest.of(0, 1000), false));
+        index.rebuild();
+
+        index.add("new@domain.cl");
+
+        assertTrue(index.mightContain("new@domain.cl"));
+    }
+
+    @Test
+    void add_BeforeLoad_IsIgnored() {
+        index.add("new@domain.cl");
+
+        assertFalse(index.isReady());
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void add_WhileRebuildScans_IsKeptAfterTheSwap() {
+        when(userRepository.findEmails(any(Pageable.class))).thenAnswer(invocation -> {
+            index.add("late@domain.cl");
+            return new SliceImpl<>(Collections.singletonList("a@domain.cl"), invocation.getArgument(0), false);
+        });
+
+        index.rebuild();
+
+        assertTrue(index.mightContain("late@domain.cl"));
+    }
+
+    @Test
+    void add_DuringRebuilds_IsNeverLost() throws Exception {
+        // Emails are committed before they are added, as sign-up does, so each scan sees what was committed
+        Queue<String> committed = new ConcurrentLinkedQueue<>();
+        when(userRepository.findEmails(any(Pageable.class)))
+            .thenAnswer(invocation -> new SliceImpl<>(new ArrayList<>(committed), invocation.getArgument(0), false));
+        index.rebuild();
+
+        AtomicBoolean adding = new AtomicBoolean(true);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> adders = new ArrayList<>();
+            for (int t = 0; t < 3; t++) {
+                int thread = t;
+                adders.add(executor.submit(() -> {
+                    for (int i = 0; i < 1000; i++) {
+                        String email = "user" + thread + "-" + i + "@domain.cl";
+                        committed.add(email);
+                        index.add(email);
+                    }
+                }));
+            }
+            Future<?> rebuilds = executor.submit(() -> {
+                while (adding.get()) {
+                    index.rebuild();
+                }
+            });
+            for (Future<?> adder : adders) {
+                adder.get();
+            }
+            adding.set(false);
+            rebuilds.get();
+        } finally {
+            executor.shutdownNow();
+        }
+
+        for (String email : committed) {
+            assertTrue(index.mightContain(email), email);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.userservice.service;
+
+import com.example.userservice.util.TokenFingerprint;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LoginWriteBehindTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private LoginWriteBehind writeBehind;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        writeBehind = new LoginWriteBehind(jdbcTemplate, meterRegistry, true, 2, 60_000, 10);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void offer_SameUserTwice_FlushesNewestUpdateOnce() {
+        UUID id = UUID.randomUUID();
+        LocalDateTime now = LocalDateTime.now();
+
+        assertTrue(writeBehind.offer(id, "second", now.plusSeconds(1)));
+        assertTrue(writeBehind.offer(id, "first", now));
+        assertEquals(1, writeBehind.getPendingCount());
+
+        assertEquals(1, writeBehind.flush());
+
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), rows.capture());
+        assertEquals(1, rows.getValue().size());
+        assertArrayEquals(TokenFingerprint.of("second").toBytes(), (byte[]) rows.getValue().get(0)[0]);
+        assertEquals(Timestamp.valueOf(now.plusSeconds(1)), rows.getValue().get(0)[1]);
+        assertEquals(16, ((byte[]) rows.getValue().get(0)[2]).length);
+        assertEquals(0, writeBehind.getPendingCount());
+        assertEquals(1.0, meterRegistry.counter("users.login.write-behind.coalesced").count());
+    }
+
+    @Test
+    void offer_BufferFull_ReturnsFalse() {
+        LocalDateTime now = LocalDateTime.now();
+
+        assertTrue(writeBehind.offer(UUID.randomUUID(), "a", now));
+        assertTrue(writeBehind.offer(UUID.randomUUID(), "b", now));
+        assertFalse(writeBehind.offer(UUID.randomUUID(), "c", now));
+
+        assertEquals(1.0, meterRegistry.counter("users.login.write-behind.rejected").count());
+    }
+
+    @Test
+    void offer_ConcurrentNewUsers_NeverExceedMaxPending() throws Exception {
+        LoginWriteBehind bounded = new LoginWriteBehind(jdbcTemplate, new SimpleMeterRegistry(), true, 50, 60_000, 10);
+        LocalDateTime now = LocalDateTime.now();
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger accepted = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> loggers = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                loggers.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < 100; i++) {
+                        if (bounded.offer(UUID.randomUUID(), "token", now)) {
+                            accepted.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> logger : loggers) {
+                logger.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(50, accepted.get());
+        assertEquals(50, bounded.getPendingCount());
+
+        // Flushed slots are free again
+        bounded.flush();
+        assertTrue(bounded.offer(UUID.randomUUID(), "token", now));
+    }
+
+    @Test
+    void offer_Disabled_ReturnsFalse() {
+        LoginWriteBehind disabled = new LoginWriteBehind(jdbcTemplate, new SimpleMeterRegistry(), false, 2, 60_000, 10);
+
+        assertFalse(disabled.offer(UUID.randomUUID(), "a", LocalDateTime.now()));
+        disabled.shutdown();
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void shutdown_FailedWrite_KeepsUpdatesBuffered() {
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenThrow(new DataAccessResourceFailureException("down"));
+        writeBehind.start();
+        writeBehind.offer(UUID.randomUUID(), "a", LocalDateTime.now());
+
+        writeBehind.shutdown();
+
+        assertEquals(1, writeBehind.getPendingCount());
+    }
+}
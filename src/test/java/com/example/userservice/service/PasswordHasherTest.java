@@ -0,0 +1,72 @@
+package com.example.userservice.service;
+
+import com.example.userservice.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PasswordHasherTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final PasswordEncoder passwordEncoder = mock(PasswordEncoder.class);
+    private PasswordHasher passwordHasher;
+
+    @AfterEach
+    void tearDown() {
+        passwordHasher.shutdown();
+    }
+
+    @Test
+    void encodeAsync_ReturnsEncodedPasswordAndRecordsMetrics() throws Exception {
+        // Given
+        when(passwordEncoder.encode("aB2defgh9")).thenReturn("encodedPassword");
+        passwordHasher = new PasswordHasher(passwordEncoder, meterRegistry, 1, 4, 1);
+
+        // When
+        String result = passwordHasher.encodeAsync("aB2defgh9").get(5, TimeUnit.SECONDS);
+
+        // Then
+        assertEquals("encodedPassword", result);
+        assertEquals(1, meterRegistry.get("password.hash.duration").timer().count());
+        assertEquals(1, meterRegistry.get("password.hash.wait").timer().count());
+    }
+
+    @Test
+    void encodeAsync_QueueFull_ThrowsServiceOverloaded() throws Exception {
+        // Given
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(passwordEncoder.encode(anyString())).thenAnswer(invocation -> {
+            running.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return "encodedPassword";
+        });
+        passwordHasher = new PasswordHasher(passwordEncoder, meterRegistry, 1, 1, 3);
+
+        // When
+        CompletableFuture<String> first = passwordHasher.encodeAsync("first");
+        running.await(5, TimeUnit.SECONDS);
+        CompletableFuture<String> queued = passwordHasher.encodeAsync("queued");
+
+        // Then
+        assertEquals(1.0, meterRegistry.get("password.hash.queue.depth").gauge().value());
+        ServiceOverloadedException ex = assertThrows(ServiceOverloadedException.class,
+            () -> passwordHasher.encodeAsync("rejected"));
+        assertEquals(3, ex.getRetryAfterSeconds());
+        assertEquals(1.0, meterRegistry.get("password.hash.rejected").counter().count());
+
+        release.countDown();
+        assertEquals("encodedPassword", first.get(5, TimeUnit.SECONDS));
+        assertEquals("encodedPassword", queued.get(5, TimeUnit.SECONDS));
+    }
+}
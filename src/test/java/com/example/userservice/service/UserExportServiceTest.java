@@ -0,0 +1,104 @@
+package com.example.userservice.service;
+
+import com.example.userservice.dto.PhoneExportRow;
+import com.example.userservice.dto.UserExportRecord;
+import com.example.userservice.repository.PhoneRepository;
+import com.example.userservice.repository.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserExportServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private PhoneRepository phoneRepository;
+
+    private ObjectMapper objectMapper;
+    private UserExportService exportService;
+
+    @BeforeEach
+    void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        exportService = new UserExportService(userRepository, phoneRepository, objectMapper, 2);
+    }
+
+    private static UserExportRecord user(UUID id, String email) {
+        return new UserExportRecord(id, email, "Test User", LocalDateTime.now(), LocalDateTime.now(), true);
+    }
+
+    @Test
+    void export_WalksPagesByLastIdAndWritesOneLinePerUser() throws Exception {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        UUID third = UUID.randomUUID();
+        when(userRepository.findExportPage(any(Pageable.class)))
+            .thenReturn(Arrays.asList(user(first, "a@domain.cl"), user(second, "b@domain.cl")));
+        when(userRepository.findExportPageAfter(eq(second), any(Pageable.class)))
+            .thenReturn(Collections.singletonList(user(third, "c@domain.cl")));
+        when(phoneRepository.findExportRows(anyCollection()))
+            .thenReturn(Collections.singletonList(new PhoneExportRow(first, 87650009L, 7, "25")))
+            .thenReturn(Collections.emptyList());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long exported = exportService.export(out);
+
+        assertEquals(3, exported);
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(3, lines.length);
+        JsonNode firstLine = objectMapper.readTree(lines[0]);
+        assertEquals("a@domain.cl", firstLine.get("email").asText());
+        assertEquals(87650009L, firstLine.get("phones").get(0).get("number").asLong());
+        assertFalse(firstLine.has("password"));
+        assertTrue(objectMapper.readTree(lines[1]).get("phones").isNull());
+        assertEquals("c@domain.cl", objectMapper.readTree(lines[2]).get("email").asText());
+        assertTrue(out.toString(StandardCharsets.UTF_8).endsWith("\n"));
+
+        verify(phoneRepository).findExportRows(Arrays.asList(first, second));
+        verify(phoneRepository).findExportRows(Collections.singletonList(third));
+    }
+
+    @Test
+    void export_FullLastPage_StopsOnEmptyPage() throws Exception {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        when(userRepository.findExportPage(any(Pageable.class)))
+            .thenReturn(Arrays.asList(user(first, "a@domain.cl"), user(second, "b@domain.cl")));
+        when(userRepository.findExportPageAfter(eq(second), any(Pageable.class))).thenReturn(Collections.emptyList());
+
+        assertEquals(2, exportService.export(new ByteArrayOutputStream()));
+        verify(phoneRepository, times(1)).findExportRows(anyCollection());
+    }
+
+    @Test
+    void export_NoUsers_WritesNothing() throws Exception {
+        when(userRepository.findExportPage(any(Pageable.class))).thenReturn(Collections.emptyList());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertEquals(0, exportService.export(out));
+        assertEquals(0, out.size());
+        verifyNoInteractions(phoneRepository);
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.userservice.service;
+
+import com.example.userservice.dto.BatchSignUpResponse;
+import com.example.userservice.dto.BatchSignUpResult;
+import com.example.userservice.dto.UserResponse;
+import com.example.userservice.dto.UserSignUpRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserImportServiceTest {
+
+    @Mock
+    private BatchSignUpService batchSignUpService;
+
+    @TempDir
+    Path tempDir;
+
+    private UserImportService importService;
+
+    @BeforeEach
+    void setUp() {
+        importService = new UserImportService(batchSignUpService, new ObjectMapper(), 2, 1);
+    }
+
+    private static CompletableFuture<BatchSignUpResponse> allCreated(List<UserSignUpRequest> requests) {
+        List<BatchSignUpResult> results = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            UserResponse user = new UserResponse();
+            user.setEmail(requests.get(i).getEmail());
+            results.add(BatchSignUpResult.created(i, user));
+        }
+        return CompletableFuture.completedFuture(new BatchSignUpResponse(results));
+    }
+
+    private Path writeFile(String... lines) throws Exception {
+        return Files.write(tempDir.resolve("users.ndjson"), List.of(lines));
+    }
+
+    private static String line(int i) {
+        return "{\"email\":\"user" + i + "@domain.cl\",\"password\":\"aB2defgh9\",\"name\":\"User " + i + "\"}";
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void importFile_CommitsInChunksAndWritesCheckpoint() throws Exception {
+        when(batchSignUpService.createUsers(anyList())).thenAnswer(invocation -> allCreated(invocation.getArgument(0)));
+        Path file = writeFile(line(1), line(2), "", "not json", line(3), line(4));
+
+        UserImportService.ImportReport report = importService.importFile(file);
+
+        assertEquals(6, report.getLastLine());
+        assertEquals(4, report.getCreated());
+        assertEquals(1, report.getMalformed());
+        assertEquals("6", Files.readString(UserImportService.checkpointFor(file)));
+
+        ArgumentCaptor<List<UserSignUpRequest>> chunks = ArgumentCaptor.forClass(List.class);
+        verify(batchSignUpService, times(3)).createUsers(chunks.capture());
+        List<String> emails = chunks.getAllValues().stream()
+            .flatMap(List::stream)
+            .map(UserSignUpRequest::getEmail)
+            .collect(Collectors.toList());
+        assertEquals(List.of("user1@domain.cl", "user2@domain.cl", "user3@domain.cl", "user4@domain.cl"), emails);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void importFile_WithCheckpoint_ResumesAfterLastCommittedLine() throws Exception {
+        when(batchSignUpService.createUsers(anyList())).thenAnswer(invocation -> allCreated(invocation.getArgument(0)));
+        Path file = writeFile(IntStream.rangeClosed(1, 5).mapToObj(UserImportServiceTest::line).toArray(String[]::new));
+        Files.writeString(UserImportService.checkpointFor(file), "3");
+
+        UserImportService.ImportReport report = importService.importFile(file);
+
+        assertEquals(2, report.getCreated());
+        ArgumentCaptor<List<UserSignUpRequest>> chunk = ArgumentCaptor.forClass(List.class);
+        verify(batchSignUpService).createUsers(chunk.capture());
+        assertEquals("user4@domain.cl", chunk.getValue().get(0).getEmail());
+        assertEquals("5", Files.readString(UserImportService.checkpointFor(file)));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void importFile_HashingPoolFull_ResubmitsOverloadedEntries() throws Exception {
+        UserResponse created = new UserResponse();
+        created.setEmail("user1@domain.cl");
+        BatchSignUpResponse partial = new BatchSignUpResponse(List.of(
+            BatchSignUpResult.created(0, created),
+            BatchSignUpResult.overloaded(1, "user2@domain.cl", "busy")));
+        when(batchSignUpService.createUsers(anyList()))
+            .thenReturn(CompletableFuture.completedFuture(partial))
+            .thenAnswer(invocation -> allCreated(invocation.getArgument(0)));
+        Path file = writeFile(line(1), line(2));
+
+        UserImportService.ImportReport report = importService.importFile(file);
+
+        assertEquals(2, report.getCreated());
+        ArgumentCaptor<List<UserSignUpRequest>> chunks = ArgumentCaptor.forClass(List.class);
+        verify(batchSignUpService, times(2)).createUsers(chunks.capture());
+        assertEquals(List.of("user2@domain.cl"), chunks.getAllValues().get(1).stream()
+            .map(UserSignUpRequest::getEmail)
+            .collect(Collectors.toList()));
+    }
+
+    @Test
+    void importFile_MissingFile_ThrowsIOException() {
+        assertThrows(NoSuchFileException.class, () -> importService.importFile(tempDir.resolve("missing.ndjson")));
+        verifyNoInteractions(batchSignUpService);
+    }
+}
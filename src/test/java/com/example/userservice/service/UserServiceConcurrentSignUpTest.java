@@ -0,0 +1,108 @@
+package com.example.userservice.service;
+
+import com.example.userservice.dto.PhoneDto;
+import com.example.userservice.dto.UserSignUpRequest;
+import com.example.userservice.exception.UserAlreadyExistsException;
+import com.example.userservice.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+    "security.password.strength=4",
+    "spring.jpa.show-sql=false",
+    // Several hashing threads so the inserts that follow each hash really run concurrently
+    "security.password.hashing.threads=8",
+    "security.password.hashing.queue-capacity=256"
+})
+class UserServiceConcurrentSignUpTest {
+
+    private static final int THREADS = 16;
+    private static final int SHARED_EMAILS = 4;
+    private static final int ATTEMPTS_PER_SHARED_EMAIL = 12;
+    private static final int UNIQUE_EMAILS = 32;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    // Every attempt differs by name, so none of them is an identical retry served by the one in flight
+    private static UserSignUpRequest request(String email, int attempt) {
+        return new UserSignUpRequest(email, "aB2defgh9", "Race User " + attempt,
+            Arrays.asList(new PhoneDto(87650009L, 7, "25"), new PhoneDto(87650010L, 7, "25")));
+    }
+
+    @Test
+    void createUser_ConcurrentSameAndDifferentEmails_OneWinnerPerEmailAndConflictsForTheRest() throws Exception {
+        List<String> emails = new ArrayList<>();
+        for (int i = 0; i < SHARED_EMAILS; i++) {
+            for (int attempt = 0; attempt < ATTEMPTS_PER_SHARED_EMAIL; attempt++) {
+                // Case variants of the same address race against each other
+                emails.add(attempt % 2 == 0 ? "race" + i + "@domain.cl" : "Race" + i + "@Domain.cl");
+            }
+        }
+        for (int i = 0; i < UNIQUE_EMAILS; i++) {
+            emails.add("solo" + i + "@domain.cl");
+        }
+
+        Map<String, AtomicInteger> created = new ConcurrentHashMap<>();
+        AtomicInteger conflicts = new AtomicInteger();
+        List<Throwable> unexpected = new ArrayList<>();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < emails.size(); i++) {
+                String email = emails.get(i);
+                int attempt = i;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        userService.createUser(request(email, attempt)).join();
+                        created.computeIfAbsent(email.toLowerCase(), key -> new AtomicInteger()).incrementAndGet();
+                    } catch (CompletionException e) {
+                        if (e.getCause() instanceof UserAlreadyExistsException) {
+                            conflicts.incrementAndGet();
+                        } else {
+                            synchronized (unexpected) {
+                                unexpected.add(e.getCause());
+                            }
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(List.of(), unexpected);
+        assertEquals(SHARED_EMAILS + UNIQUE_EMAILS, created.size());
+        created.forEach((email, count) -> assertEquals(1, count.get(), email));
+        assertEquals(SHARED_EMAILS * (ATTEMPTS_PER_SHARED_EMAIL - 1), conflicts.get());
+        for (int i = 0; i < SHARED_EMAILS; i++) {
+            assertEquals(2, userRepository.findWithPhonesByNormalizedEmail("race" + i + "@domain.cl")
+                .orElseThrow().getPhones().size());
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.userservice.service;
+
+import com.example.userservice.dto.PhoneDto;
+import com.example.userservice.dto.UserSignUpRequest;
+import com.example.userservice.entity.Phone;
+import com.example.userservice.entity.User;
+import com.example.userservice.repository.UserRepository;
+import com.example.userservice.util.InternDictionary;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+    "security.password.strength=4",
+    "spring.jpa.show-sql=false",
+    "users.email-index.enabled=false"
+})
+class UserServiceCountryCodeTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserExportService exportService;
+
+    @Autowired
+    private InternDictionary countryCodeDictionary;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private static UserSignUpRequest request(String email, String contrycode) {
+        return new UserSignUpRequest(email, "aB2defgh9", "Dictionary User",
+            Arrays.asList(new PhoneDto(87650009L, 7, contrycode), new PhoneDto(87650010L, 2, contrycode)));
+    }
+
+    @Test
+    void createUser_RepeatedCountryCode_StoredOnceAsId() {
+        userService.createUser(request("dict-a@domain.cl", "+56")).join();
+        userService.createUser(request("dict-b@domain.cl", "+56")).join();
+
+        Integer id = jdbcTemplate.queryForObject("select id from country_codes where code = '+56'", Integer.class);
+        List<Integer> stored = jdbcTemplate.queryForList("select p.country_code from phones p "
+            + "join users u on u.id = p.user_id where u.normalized_email like 'dict-_@domain.cl'", Integer.class);
+        assertEquals(Collections.nCopies(4, id), stored);
+        assertEquals(id, countryCodeDictionary.idOf("+56"));
+    }
+
+    @Test
+    void findWithPhones_DifferentUsers_ShareTheCountryCodeInstance() throws Exception {
+        userService.createUser(request("dict-shared1@domain.cl", "57")).join();
+        userService.createUser(request("dict-shared2@domain.cl", "57")).join();
+
+        Phone first = userRepository.findWithPhonesByNormalizedEmail("dict-shared1@domain.cl").orElseThrow()
+            .getPhones().get(0);
+        Phone second = userRepository.findWithPhonesByNormalizedEmail("dict-shared2@domain.cl").orElseThrow()
+            .getPhones().get(1);
+        assertEquals("57", first.getContrycode());
+        assertSame(first.getContrycode(), second.getContrycode());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.export(out);
+        assertTrue(out.toString(StandardCharsets.UTF_8).contains("\"contrycode\":\"57\""));
+    }
+
+    @Test
+    void newCode_OuterTransactionRollsBack_CodeStaysCommitted() {
+        transactionTemplate.executeWithoutResult(status -> {
+            User user = new User("dict-rollback@domain.cl", "encodedPassword", "Rollback User",
+                Collections.singletonList(new Phone(87650009L, 7, "999")));
+            user.setToken("dict-rollback-token");
+            entityManager.persist(user);
+            entityManager.flush();
+            status.setRollbackOnly();
+        });
+
+        assertFalse(userRepository.existsByNormalizedEmail("dict-rollback@domain.cl"));
+        Integer id = jdbcTemplate.queryForObject("select id from country_codes where code = '999'", Integer.class);
+        assertEquals(id, countryCodeDictionary.idOf("999"));
+    }
+}
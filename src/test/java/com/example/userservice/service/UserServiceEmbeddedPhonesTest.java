@@ -0,0 +1,157 @@
+package com.example.userservice.service;
+
+import com.example.userservice.dto.PhoneDto;
+import com.example.userservice.dto.UserResponse;
+import com.example.userservice.dto.UserSignUpRequest;
+import com.example.userservice.entity.Phone;
+import com.example.userservice.entity.User;
+import com.example.userservice.repository.PhoneRepository;
+import com.example.userservice.repository.UserRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+    "security.password.strength=4",
+    "spring.jpa.show-sql=false",
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "users.email-index.enabled=false",
+    "users.phones.storage=embedded",
+    "users.phones.migration.page-size=2"
+})
+@AutoConfigureMockMvc
+class UserServiceEmbeddedPhonesTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PhoneRepository phoneRepository;
+
+    @Autowired
+    private PhoneEmbeddingMigration migration;
+
+    @Autowired
+    private UserExportService exportService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private static UserSignUpRequest request(String email) {
+        return new UserSignUpRequest(email, "aB2defgh9", "Embedded User",
+            Arrays.asList(new PhoneDto(87650009L, 7, "25"), new PhoneDto(87650010L, 2, "56")));
+    }
+
+    @Test
+    void createUser_WritesOneRowAndLoginReadsOneRow() throws Exception {
+        long phoneRows = phoneRepository.count();
+        statistics.clear();
+
+        UserResponse created = userService.createUser(request("embedded-signup@domain.cl")).join();
+
+        assertEquals(2, created.getPhones().size());
+        // insert-if-absent user with its phones in phones_data; nothing goes to the phones table
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(phoneRows, phoneRepository.count());
+
+        statistics.clear();
+        mockMvc.perform(get("/api/login").header("Authorization", "Bearer " + created.getToken()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.phones.length()").value(2))
+            .andExpect(jsonPath("$.phones[1].contrycode").value("56"));
+        // select user without join, update token/last_login
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getCollectionFetchCount());
+    }
+
+    @Test
+    void createUser_NoPhones_LoginReturnsEmptyList() throws Exception {
+        UserSignUpRequest request = request("embedded-nophones@domain.cl");
+        request.setPhones(null);
+        UserResponse created = userService.createUser(request).join();
+
+        mockMvc.perform(get("/api/login").header("Authorization", "Bearer " + created.getToken()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.phones.length()").value(0));
+    }
+
+    @Test
+    void loadAndFlush_EmbeddedPhones_AreNotDirty() {
+        userService.createUser(request("embedded-dirty@domain.cl")).join();
+        statistics.clear();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            entityManager.createQuery("select u from User u where u.normalizedEmail = :email", User.class)
+                .setParameter("email", "embedded-dirty@domain.cl")
+                .getSingleResult();
+            entityManager.flush();
+        });
+
+        assertEquals(0, statistics.getEntityUpdateCount());
+    }
+
+    @Test
+    void migrate_TableStoredPhones_MovesThemIntoTheRow() throws Exception {
+        // Saved through the cascade, as table mode did, so the phones land in the phones table
+        for (int i = 0; i < 3; i++) {
+            User user = new User("legacy" + i + "@domain.cl", "encodedPassword", "Legacy User",
+                Arrays.asList(new Phone(87650000L + i, 7, "25"), new Phone(87651000L + i, 9, "56")));
+            user.setToken("legacy-token-" + i);
+            userRepository.saveAndFlush(user);
+        }
+
+        // Not migrated yet: the read falls back to the phones table
+        assertEquals(2, userRepository.findWithPhonesByNormalizedEmail("legacy0@domain.cl").orElseThrow()
+            .getPhones().size());
+
+        assertTrue(migration.migrate() >= 3);
+
+        assertEquals(0, phoneRepository.count());
+        User migrated = userRepository.findWithPhonesByNormalizedEmail("legacy1@domain.cl").orElseThrow();
+        assertEquals(Arrays.asList(new Phone(87650001L, 7, "25"), new Phone(87651001L, 9, "56")),
+            migrated.getEmbeddedPhones());
+        assertEquals(0, migration.migrate());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.export(out);
+        String export = out.toString(StandardCharsets.UTF_8);
+        assertTrue(export.contains("\"email\":\"legacy2@domain.cl\""));
+        assertTrue(export.contains("\"number\":87651002"));
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.userservice.service;
+
+import com.example.userservice.dto.PhoneDto;
+import com.example.userservice.dto.UserResponse;
+import com.example.userservice.dto.UserSignUpRequest;
+import com.example.userservice.util.StageMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+    // Slow enough that a burst of retries lands while the first hash is still running
+    "security.password.strength=10",
+    "spring.jpa.show-sql=false",
+    "security.password.hashing.threads=2",
+    "security.password.hashing.queue-capacity=256"
+})
+class UserServiceSingleFlightTest {
+
+    private static final int THREADS = 16;
+    private static final int EMAILS = 4;
+    private static final int RETRIES_PER_EMAIL = 24;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private static UserSignUpRequest request(String email) {
+        return new UserSignUpRequest(email, "aB2defgh9", "Retry User",
+            Arrays.asList(new PhoneDto(87650009L, 7, "25")));
+    }
+
+    @Test
+    void createUser_DuplicateBursts_HashOncePerFlightAndShareTheResponse() throws Exception {
+        long encodesBefore = passwordEncodes();
+        double coalescedBefore = coalesced();
+
+        List<String> emails = new ArrayList<>();
+        for (int retry = 0; retry < RETRIES_PER_EMAIL; retry++) {
+            for (int i = 0; i < EMAILS; i++) {
+                emails.add("retry" + i + "@domain.cl");
+            }
+        }
+
+        // Threads only start the sign-ups, so the whole burst is in before the first hash can finish
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<CompletableFuture<UserResponse>>> submitted = new ArrayList<>();
+        try {
+            for (String email : emails) {
+                submitted.add(executor.submit(() -> {
+                    start.await();
+                    return userService.createUser(request(email));
+                }));
+            }
+            start.countDown();
+            Map<String, Set<UUID>> ids = new HashMap<>();
+            for (int i = 0; i < emails.size(); i++) {
+                UserResponse response = submitted.get(i).get().join();
+                ids.computeIfAbsent(emails.get(i), key -> new HashSet<>()).add(response.getId());
+            }
+
+            // Every identical retry got the winner's response, none of them a 409
+            assertEquals(EMAILS, ids.size());
+            ids.forEach((email, userIds) -> assertEquals(1, userIds.size(), email));
+        } finally {
+            executor.shutdownNow();
+        }
+
+        long encodes = passwordEncodes() - encodesBefore;
+        double coalescedRequests = coalesced() - coalescedBefore;
+        assertEquals(EMAILS, encodes);
+        assertEquals(emails.size() - EMAILS, (long) coalescedRequests);
+    }
+
+    // One password-encode stage is recorded per BCrypt call, whatever the outcome of the sign-up
+    private long passwordEncodes() {
+        return meterRegistry.find("users.stage")
+            .tag("endpoint", "sign-up")
+            .tag("stage", StageMetrics.PASSWORD_ENCODE)
+            .timers().stream()
+            .mapToLong(Timer::count)
+            .sum();
+    }
+
+    private double coalesced() {
+        return meterRegistry.get("users.single-flight.coalesced").functionCounter().count();
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.userservice.service;
+
+import com.example.userservice.dto.PhoneDto;
+import com.example.userservice.dto.UserResponse;
+import com.example.userservice.dto.UserSignUpRequest;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+    "security.password.strength=4",
+    "spring.jpa.show-sql=false",
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    // The index is built synchronously below so no background load runs while statements are counted
+    "users.email-index.enabled=false"
+})
+@AutoConfigureMockMvc
+class UserServiceStatementCountTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private EmailExistenceIndex emailIndex;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        emailIndex.rebuild();
+    }
+
+    private UserSignUpRequest request(String email) {
+        return new UserSignUpRequest(email, "aB2defgh9", "Test User",
+            Arrays.asList(new PhoneDto(87650009L, 7, "25"), new PhoneDto(87650010L, 7, "25")));
+    }
+
+    @Test
+    void createUser_NewEmail_InsertsWithoutReadingBack() {
+        // The first sign-up also pays for the pooled phone sequence allocation
+        userService.createUser(request("count-warmup@domain.cl")).join();
+        statistics.clear();
+
+        UserResponse response = userService.createUser(request("count-signup@domain.cl")).join();
+
+        assertEquals(2, response.getPhones().size());
+        assertEquals(7, response.getId().version());
+        // insert-if-absent user, insert phones (one JDBC batch); no existence check
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getCollectionFetchCount());
+    }
+
+    @Test
+    void loginUser_LoadsUserAndPhonesInOneQuery() throws Exception {
+        UserResponse created = userService.createUser(request("count-login@domain.cl")).join();
+        statistics.clear();
+
+        mockMvc.perform(get("/api/login").header("Authorization", "Bearer " + created.getToken()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.phones.length()").value(2));
+
+        // select user join phones, update token/last_login
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getCollectionFetchCount());
+    }
+
+    @Test
+    void loginUser_CachedUser_OnlyUpdates() throws Exception {
+        UserResponse created = userService.createUser(request("count-cached@domain.cl")).join();
+        String token = userService.loginUser(created.getToken()).getToken();
+        statistics.clear();
+
+        mockMvc.perform(get("/api/login").header("Authorization", "Bearer " + token))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.phones.length()").value(2));
+
+        // update token/last_login; the user comes from the cache
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+}
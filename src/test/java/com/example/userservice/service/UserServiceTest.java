@@ -5,22 +5,36 @@ import com.example.userservice.dto.UserResponse;
 import com.example.userservice.dto.UserSignUpRequest;
 import com.example.userservice.entity.Phone;
 import com.example.userservice.entity.User;
+import com.example.userservice.exception.ServiceOverloadedException;
 import com.example.userservice.exception.UserAlreadyExistsException;
 import com.example.userservice.exception.UserNotFoundException;
 import com.example.userservice.repository.UserRepository;
+import com.example.userservice.util.InternDictionary;
+import com.example.userservice.util.JwtClaims;
 import com.example.userservice.util.JwtUtil;
+import com.example.userservice.util.RevokedTokenException;
+import com.example.userservice.util.StageMetrics;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.jsonwebtoken.SignatureException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.dao.DataIntegrityViolationException;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -34,11 +48,31 @@ class UserServiceTest {
     private UserRepository userRepository;
 
     @Mock
-    private PasswordEncoder passwordEncoder;
+    private PasswordHasher passwordHasher;
 
     @Mock
     private JwtUtil jwtUtil;
 
+    @Mock
+    private EmailExistenceIndex emailIndex;
+
+    @Mock
+    private LoginWriteBehind loginWriteBehind;
+
+    @Mock
+    private UserSnapshotCache userCache;
+
+    @Mock
+    private InternDictionary countryCodeDictionary;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private StageMetrics stageMetrics = new StageMetrics(meterRegistry);
+
+    @Spy
+    private PersistenceExecutor persistenceExecutor = new PersistenceExecutor(1, 16);
+
     @InjectMocks
     private UserService userService;
 
@@ -75,16 +109,19 @@ class UserServiceTest {
     @Test
     void createUser_Success() {
         // Given
-        when(userRepository.existsByEmail(anyString())).thenReturn(false);
-        when(passwordEncoder.encode(anyString())).thenReturn("encodedPassword");
+        when(passwordHasher.encodeAsync(anyString())).thenReturn(CompletableFuture.completedFuture("encodedPassword"));
         when(jwtUtil.generateToken(anyString())).thenReturn("test-token");
-        when(userRepository.save(any(User.class))).thenReturn(user);
+        when(userRepository.insertIfAbsent(any(User.class))).thenAnswer(invocation -> {
+            invocation.<User>getArgument(0).setId(user.getId());
+            return true;
+        });
 
         // When
-        UserResponse result = userService.createUser(userSignUpRequest);
+        UserResponse result = userService.createUser(userSignUpRequest).join();
 
         // Then
         assertNotNull(result);
+        assertEquals(user.getId(), result.getId());
         assertEquals(user.getEmail(), result.getEmail());
         assertEquals(user.getName(), result.getName());
         assertEquals(user.getToken(), result.getToken());
@@ -92,59 +129,178 @@ class UserServiceTest {
         assertNotNull(result.getPhones());
         assertEquals(1, result.getPhones().size());
         
-        verify(userRepository).existsByEmail(userSignUpRequest.getEmail());
-        verify(passwordEncoder).encode(userSignUpRequest.getPassword());
+        verify(passwordHasher).encodeAsync(userSignUpRequest.getPassword());
         verify(jwtUtil).generateToken(userSignUpRequest.getEmail());
-        verify(userRepository).save(any(User.class));
+        verify(userRepository).insertIfAbsent(any(User.class));
+        verify(userRepository, never()).existsByNormalizedEmail(anyString());
+        verify(emailIndex).add(user.getEmail());
+        verify(userCache).invalidate(user.getEmail());
+        for (String stage : Arrays.asList(StageMetrics.PASSWORD_ENCODE, StageMetrics.JWT_SIGN,
+                StageMetrics.DB_SAVE, StageMetrics.RESPONSE_MAPPING)) {
+            assertEquals(1, stageTimer("sign-up", stage, StageMetrics.SUCCESS).count());
+        }
+    }
+
+    @Test
+    void createUser_InternsCountryCodesBeforeTheInsert() {
+        // Given
+        when(passwordHasher.encodeAsync(anyString())).thenReturn(CompletableFuture.completedFuture("encodedPassword"));
+        when(jwtUtil.generateToken(anyString())).thenReturn("test-token");
+        when(userRepository.insertIfAbsent(any(User.class))).thenReturn(true);
+
+        // When
+        userService.createUser(userSignUpRequest).join();
+
+        // Then
+        InOrder inOrder = inOrder(countryCodeDictionary, userRepository);
+        inOrder.verify(countryCodeDictionary).idOf("25");
+        inOrder.verify(userRepository).insertIfAbsent(any(User.class));
+    }
+
+    @Test
+    void createUser_InsertRunsOffTheHashingThread() throws Exception {
+        // Given
+        CompletableFuture<String> encoding = new CompletableFuture<>();
+        when(passwordHasher.encodeAsync(anyString())).thenReturn(encoding);
+        when(jwtUtil.generateToken(anyString())).thenReturn("test-token");
+        AtomicReference<String> insertThread = new AtomicReference<>();
+        when(userRepository.insertIfAbsent(any(User.class))).thenAnswer(invocation -> {
+            insertThread.set(Thread.currentThread().getName());
+            return true;
+        });
+
+        // When
+        CompletableFuture<UserResponse> result = userService.createUser(userSignUpRequest);
+        Thread hashingThread = new Thread(() -> encoding.complete("encodedPassword"), "password-hash-test");
+        hashingThread.start();
+        hashingThread.join();
+        result.join();
+
+        // Then
+        assertTrue(insertThread.get().startsWith("persistence-"), insertThread.get());
     }
 
     @Test
     void createUser_UserAlreadyExists_ThrowsException() {
         // Given
-        when(userRepository.existsByEmail(anyString())).thenReturn(true);
+        when(passwordHasher.encodeAsync(anyString())).thenReturn(CompletableFuture.completedFuture("encodedPassword"));
+        when(jwtUtil.generateToken(anyString())).thenReturn("test-token");
+        when(userRepository.insertIfAbsent(any(User.class))).thenReturn(false);
+
+        // When & Then
+        CompletionException thrown = assertThrows(CompletionException.class,
+            () -> userService.createUser(userSignUpRequest).join());
+
+        assertTrue(thrown.getCause() instanceof UserAlreadyExistsException);
+        verify(emailIndex, never()).add(anyString());
+        verify(userCache, never()).invalidate(anyString());
+        assertEquals(1, stageTimer("sign-up", StageMetrics.DB_SAVE, StageMetrics.CONFLICT).count());
+    }
+
+    @Test
+    void createUser_ConcurrentSignUpWins_ThrowsException() {
+        // Given
+        when(passwordHasher.encodeAsync(anyString())).thenReturn(CompletableFuture.completedFuture("encodedPassword"));
+        when(jwtUtil.generateToken(anyString())).thenReturn("test-token");
+        when(userRepository.insertIfAbsent(any(User.class)))
+            .thenThrow(new DataIntegrityViolationException("uk_users_normalized_email"));
+
+        // When & Then
+        CompletionException thrown = assertThrows(CompletionException.class,
+            () -> userService.createUser(userSignUpRequest).join());
+
+        assertTrue(thrown.getCause() instanceof UserAlreadyExistsException);
+    }
+
+    @Test
+    void createUser_MixedCaseEmail_InsertsNormalizedEmail() {
+        // Given
+        userSignUpRequest.setEmail(" Test@Domain.CL");
+        when(passwordHasher.encodeAsync(anyString())).thenReturn(CompletableFuture.completedFuture("encodedPassword"));
+        when(jwtUtil.generateToken(anyString())).thenReturn("test-token");
+        when(userRepository.insertIfAbsent(any(User.class))).thenReturn(true);
+
+        // When
+        userService.createUser(userSignUpRequest).join();
+
+        // Then
+        verify(userRepository).insertIfAbsent(argThat(inserted -> "test@domain.cl".equals(inserted.getNormalizedEmail())));
+    }
+
+    @Test
+    void createUser_SameRequestInFlight_HashesOnceAndSharesResponse() {
+        // Given
+        CompletableFuture<String> encoding = new CompletableFuture<>();
+        when(passwordHasher.encodeAsync(anyString())).thenReturn(encoding);
+        when(jwtUtil.generateToken(anyString())).thenReturn("test-token");
+        when(userRepository.insertIfAbsent(any(User.class))).thenReturn(true);
+        UserSignUpRequest retry = new UserSignUpRequest("test@domain.cl", "aB2defgh89", "Test User",
+            Arrays.asList(new PhoneDto(87650009L, 7, "25")));
+
+        // When
+        CompletableFuture<UserResponse> first = userService.createUser(userSignUpRequest);
+        CompletableFuture<UserResponse> second = userService.createUser(retry);
+        encoding.complete("encodedPassword");
+
+        // Then
+        assertSame(first.join(), second.join());
+        verify(passwordHasher, times(1)).encodeAsync(anyString());
+        verify(userRepository, times(1)).insertIfAbsent(any(User.class));
+        assertEquals(1, meterRegistry.get("users.single-flight.coalesced").functionCounter().count());
+        assertEquals(0, meterRegistry.get("users.single-flight.in-flight").gauge().value());
+    }
+
+    @Test
+    void createUser_DifferentRequestInFlight_ConflictsWithoutHashing() {
+        // Given
+        CompletableFuture<String> encoding = new CompletableFuture<>();
+        when(passwordHasher.encodeAsync(anyString())).thenReturn(encoding);
+        when(jwtUtil.generateToken(anyString())).thenReturn("test-token");
+        when(userRepository.insertIfAbsent(any(User.class))).thenReturn(true);
+        UserSignUpRequest other = new UserSignUpRequest("Test@Domain.cl", "Another1", "Otro", null);
+
+        // When
+        CompletableFuture<UserResponse> first = userService.createUser(userSignUpRequest);
+        CompletableFuture<UserResponse> second = userService.createUser(other);
+        encoding.complete("encodedPassword");
+
+        // Then
+        assertNotNull(first.join());
+        CompletionException thrown = assertThrows(CompletionException.class, second::join);
+        assertTrue(thrown.getCause() instanceof UserAlreadyExistsException);
+        verify(passwordHasher, times(1)).encodeAsync(anyString());
+    }
+
+    @Test
+    void createUser_HashingQueueFull_ThrowsException() {
+        // Given
+        when(passwordHasher.encodeAsync(anyString())).thenThrow(new ServiceOverloadedException("busy", 1));
 
         // When & Then
-        assertThrows(UserAlreadyExistsException.class, () -> {
+        assertThrows(ServiceOverloadedException.class, () -> {
             userService.createUser(userSignUpRequest);
         });
 
-        verify(userRepository).existsByEmail(userSignUpRequest.getEmail());
-        verify(passwordEncoder, never()).encode(anyString());
-        verify(jwtUtil, never()).generateToken(anyString());
-        verify(userRepository, never()).save(any(User.class));
+        verify(userRepository, never()).insertIfAbsent(any(User.class));
     }
 
     @Test
     void createUser_WithNullPhones_Success() {
         // Given
         userSignUpRequest.setPhones(null);
-        when(userRepository.existsByEmail(anyString())).thenReturn(false);
-        when(passwordEncoder.encode(anyString())).thenReturn("encodedPassword");
+        when(passwordHasher.encodeAsync(anyString())).thenReturn(CompletableFuture.completedFuture("encodedPassword"));
         when(jwtUtil.generateToken(anyString())).thenReturn("test-token");
-        
-        User userWithoutPhones = new User(
-            "test@domain.cl",
-            "encodedPassword",
-            "Test User",
-            null
-        );
-        userWithoutPhones.setId(UUID.randomUUID());
-        userWithoutPhones.setToken("test-token");
-        userWithoutPhones.setCreated(LocalDateTime.now());
-        userWithoutPhones.setLastLogin(LocalDateTime.now());
-        userWithoutPhones.setIsActive(true);
-        
-        when(userRepository.save(any(User.class))).thenReturn(userWithoutPhones);
+        when(userRepository.insertIfAbsent(any(User.class))).thenReturn(true);
 
         // When
-        UserResponse result = userService.createUser(userSignUpRequest);
+        UserResponse result = userService.createUser(userSignUpRequest).join();
 
         // Then
         assertNotNull(result);
-        assertEquals(userWithoutPhones.getEmail(), result.getEmail());
+        assertEquals("test@domain.cl", result.getEmail());
         assertNull(result.getPhones());
         
-        verify(userRepository).save(any(User.class));
+        verify(userRepository).insertIfAbsent(any(User.class));
     }
 
     @Test
@@ -154,14 +310,9 @@ class UserServiceTest {
         String email = "test@domain.cl";
         String newToken = "new-token";
         
-        when(jwtUtil.extractUsername(token)).thenReturn(email);
-        when(jwtUtil.validateToken(token, email)).thenReturn(true);
-        when(userRepository.findByEmail(email)).thenReturn(Optional.of(user));
+        when(jwtUtil.verifyToken(token)).thenReturn(claimsFor(email));
+        when(userRepository.findWithPhonesByNormalizedEmail(email)).thenReturn(Optional.of(user));
         when(jwtUtil.generateToken(email)).thenReturn(newToken);
-        
-        User updatedUser = user;
-        updatedUser.setToken(newToken);
-        when(userRepository.save(any(User.class))).thenReturn(updatedUser);
 
         // When
         UserResponse result = userService.loginUser(token);
@@ -171,30 +322,101 @@ class UserServiceTest {
         assertEquals(email, result.getEmail());
         assertEquals(newToken, result.getToken());
         
-        verify(jwtUtil).extractUsername(token);
-        verify(jwtUtil).validateToken(token, email);
-        verify(userRepository).findByEmail(email);
+        verify(jwtUtil).verifyToken(token);
+        verify(userRepository).findWithPhonesByNormalizedEmail(email);
         verify(jwtUtil).generateToken(email);
-        verify(userRepository).save(any(User.class));
+        verify(userRepository).updateLogin(eq(user.getId()), eq(newToken), any(LocalDateTime.class));
+        verify(userRepository, never()).save(any(User.class));
+        verify(userCache).put(argThat(snapshot -> newToken.equals(snapshot.getToken())));
+        for (String stage : Arrays.asList(StageMetrics.JWT_VERIFY, StageMetrics.DB_LOAD, StageMetrics.JWT_SIGN,
+                StageMetrics.DB_SAVE, StageMetrics.RESPONSE_MAPPING)) {
+            assertEquals(1, stageTimer("login", stage, StageMetrics.SUCCESS).count());
+        }
+    }
+
+    @Test
+    void loginUser_CachedUser_SkipsRepositoryRead() {
+        // Given
+        String token = "valid-token";
+        String email = "test@domain.cl";
+
+        when(jwtUtil.verifyToken(token)).thenReturn(claimsFor(email));
+        when(userCache.get(email)).thenReturn(UserSnapshot.of(user));
+        when(jwtUtil.generateToken(email)).thenReturn("new-token");
+
+        // When
+        UserResponse result = userService.loginUser(token);
+
+        // Then
+        assertEquals("new-token", result.getToken());
+        assertEquals(1, result.getPhones().size());
+        assertEquals(87650009L, result.getPhones().get(0).getNumber());
+        verify(userRepository, never()).findWithPhonesByNormalizedEmail(anyString());
+        verify(userRepository).updateLogin(eq(user.getId()), eq("new-token"), any(LocalDateTime.class));
+    }
+
+    @Test
+    void loginUser_WriteBehindAccepted_SkipsSave() {
+        // Given
+        String token = "valid-token";
+        String email = "test@domain.cl";
+
+        when(jwtUtil.verifyToken(token)).thenReturn(claimsFor(email));
+        when(userRepository.findWithPhonesByNormalizedEmail(email)).thenReturn(Optional.of(user));
+        when(jwtUtil.generateToken(email)).thenReturn("new-token");
+        when(loginWriteBehind.offer(eq(user.getId()), eq("new-token"), any(LocalDateTime.class))).thenReturn(true);
+
+        // When
+        UserResponse result = userService.loginUser(token);
+
+        // Then
+        assertEquals("new-token", result.getToken());
+        verify(loginWriteBehind).offer(eq(user.getId()), eq("new-token"), any(LocalDateTime.class));
+        verify(userRepository, never()).updateLogin(any(), anyString(), any());
     }
 
     @Test
     void loginUser_InvalidToken_ThrowsException() {
         // Given
         String token = "invalid-token";
-        String email = "test@domain.cl";
         
-        when(jwtUtil.extractUsername(token)).thenReturn(email);
-        when(jwtUtil.validateToken(token, email)).thenReturn(false);
+        when(jwtUtil.verifyToken(token)).thenThrow(new SignatureException("JWT signature does not match"));
+
+        // When & Then
+        assertThrows(UserNotFoundException.class, () -> {
+            userService.loginUser(token);
+        });
+
+        verify(jwtUtil).verifyToken(token);
+        verify(userRepository, never()).findWithPhonesByNormalizedEmail(anyString());
+    }
+
+    @Test
+    void loginUser_ExpiredToken_ThrowsException() {
+        // Given
+        String token = "expired-token";
+        
+        when(jwtUtil.verifyToken(token)).thenThrow(new ExpiredJwtException(null, null, "JWT expired"));
 
         // When & Then
         assertThrows(UserNotFoundException.class, () -> {
             userService.loginUser(token);
         });
 
-        verify(jwtUtil).extractUsername(token);
-        verify(jwtUtil).validateToken(token, email);
-        verify(userRepository, never()).findByEmail(anyString());
+        verify(userRepository, never()).findWithPhonesByNormalizedEmail(anyString());
+    }
+
+    @Test
+    void loginUser_RevokedToken_ThrowsUserNotFound() {
+        // Given
+        String token = "revoked-token";
+
+        when(jwtUtil.verifyToken(token)).thenThrow(new RevokedTokenException("JWT has been revoked"));
+
+        // When & Then
+        assertThrows(UserNotFoundException.class, () -> userService.loginUser(token));
+
+        verify(userRepository, never()).findWithPhonesByNormalizedEmail(anyString());
     }
 
     @Test
@@ -203,18 +425,43 @@ class UserServiceTest {
         String token = "valid-token";
         String email = "test@domain.cl";
         
-        when(jwtUtil.extractUsername(token)).thenReturn(email);
-        when(jwtUtil.validateToken(token, email)).thenReturn(true);
-        when(userRepository.findByEmail(email)).thenReturn(Optional.empty());
+        when(jwtUtil.verifyToken(token)).thenReturn(claimsFor(email));
+        when(userRepository.findWithPhonesByNormalizedEmail(email)).thenReturn(Optional.empty());
 
         // When & Then
         assertThrows(UserNotFoundException.class, () -> {
             userService.loginUser(token);
         });
 
-        verify(jwtUtil).extractUsername(token);
-        verify(jwtUtil).validateToken(token, email);
-        verify(userRepository).findByEmail(email);
-        verify(userRepository, never()).save(any(User.class));
+        verify(jwtUtil).verifyToken(token);
+        verify(userRepository).findWithPhonesByNormalizedEmail(email);
+        verify(userRepository, never()).updateLogin(any(), anyString(), any());
+        assertEquals(1, stageTimer("login", StageMetrics.DB_LOAD, StageMetrics.NOT_FOUND).count());
+    }
+
+    @Test
+    void logoutUser_ValidToken_RevokesIt() {
+
+        userService.logoutUser("valid-token");
+
+        verify(jwtUtil).revokeToken("valid-token");
+    }
+
+    @Test
+    void logoutUser_InvalidToken_ThrowsException() {
+        doThrow(new SignatureException("JWT signature does not match")).when(jwtUtil).revokeToken("invalid-token");
+
+        assertThrows(UserNotFoundException.class, () -> userService.logoutUser("invalid-token"));
+    }
+
+    private Timer stageTimer(String endpoint, String stage, String outcome) {
+        return meterRegistry.get("users.stage")
+            .tag("endpoint", endpoint).tag("stage", stage).tag("outcome", outcome)
+            .timer();
+    }
+
+    private JwtClaims claimsFor(String email) {
+        long now = System.currentTimeMillis();
+        return new JwtClaims(email, now, now + 86400000L);
     }
 }
\ No newline at end of file
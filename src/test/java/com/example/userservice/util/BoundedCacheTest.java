@@ -0,0 +1,115 @@
+package com.example.userservice.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedCacheTest {
+
+    private BoundedCache<String, String> cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new BoundedCache<>(2);
+    }
+
+    @Test
+    void get_PresentEntry_ReturnsValueAndCountsHit() {
+
+        cache.put("a", "1", 1000L);
+
+        assertEquals("1", cache.get("a", 0L));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(0, cache.getMissCount());
+    }
+
+    @Test
+    void get_ExpiredEntry_ReturnsNullAndRemovesIt() {
+
+        cache.put("a", "1", 1000L);
+
+        assertNull(cache.get("a", 1000L));
+        assertEquals(0, cache.size());
+        assertEquals(1, cache.getExpirationCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    void put_OverCapacity_EvictsLeastRecentlyUsed() {
+
+        cache.put("a", "1", 1000L);
+        cache.put("b", "2", 1000L);
+        cache.get("a", 0L);
+        cache.put("c", "3", 1000L);
+
+        assertEquals("1", cache.get("a", 0L));
+        assertNull(cache.get("b", 0L));
+        assertEquals("3", cache.get("c", 0L));
+        assertEquals(1, cache.getEvictionCount());
+    }
+
+    @Test
+    void invalidate_RemovesEntry() {
+
+        cache.put("a", "1", 1000L);
+        cache.invalidate("a");
+
+        assertNull(cache.get("a", 0L));
+    }
+
+    @Test
+    void put_LargeCache_SplitsIntoSegmentsWithinMaxSize() {
+        BoundedCache<String, String> large = new BoundedCache<>(1024);
+
+        for (int i = 0; i < 5000; i++) {
+            large.put("key-" + i, "value", 1000L);
+        }
+
+        assertEquals(16, large.getSegmentCount());
+        assertEquals(1024, large.size());
+        assertEquals(5000 - 1024, large.getEvictionCount());
+        assertEquals("value", large.get("key-4999", 0L));
+    }
+
+    @Test
+    void get_ConcurrentCallers_StayWithinMaxSize() throws Exception {
+        BoundedCache<Integer, Integer> shared = new BoundedCache<>(256, 4);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                int offset = t * 1000;
+                workers.add(executor.submit(() -> {
+                    for (int i = 0; i < 1000; i++) {
+                        shared.put(offset + i, i, 1000L);
+                        // Another thread may already have evicted it from the segment
+                        Integer cached = shared.get(offset + i, 0L);
+                        assertTrue(cached == null || cached == i);
+                    }
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(256, shared.size());
+        assertEquals(4000, shared.getHitCount() + shared.getMissCount());
+        assertEquals(4000 - 256, shared.getEvictionCount());
+    }
+
+    @Test
+    void constructor_NonPositiveSize_ThrowsException() {
+
+        assertThrows(IllegalArgumentException.class, () -> new BoundedCache<String, String>(0));
+    }
+}
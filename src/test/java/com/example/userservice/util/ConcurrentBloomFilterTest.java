@@ -0,0 +1,64 @@
+package com.example.userservice.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrentBloomFilterTest {
+
+    @Test
+    void mightContain_InsertedValues_AlwaysTrue() {
+        ConcurrentBloomFilter filter = ConcurrentBloomFilter.create(1000, 0.01);
+
+        for (int i = 0; i < 1000; i++) {
+            filter.put("user" + i + "@domain.cl");
+        }
+
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(filter.mightContain("user" + i + "@domain.cl"));
+        }
+    }
+
+    @Test
+    void mightContain_UnknownValues_FalsePositiveRateNearTarget() {
+        ConcurrentBloomFilter filter = ConcurrentBloomFilter.create(10000, 0.01);
+        for (int i = 0; i < 10000; i++) {
+            filter.put("user" + i + "@domain.cl");
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 10000; i++) {
+            if (filter.mightContain("other" + i + "@domain.cl")) {
+                falsePositives++;
+            }
+        }
+
+        assertTrue(falsePositives < 300, "false positives: " + falsePositives);
+        assertTrue(filter.expectedFpp() < 0.02);
+    }
+
+    @Test
+    void put_SameValueTwice_SecondCallChangesNothing() {
+        ConcurrentBloomFilter filter = ConcurrentBloomFilter.create(100, 0.01);
+
+        assertTrue(filter.put("test@domain.cl"));
+        assertFalse(filter.put("test@domain.cl"));
+    }
+
+    @Test
+    void create_SizesFromExpectedInsertionsAndFpp() {
+        ConcurrentBloomFilter filter = ConcurrentBloomFilter.create(1000, 0.01);
+
+        assertEquals(0, filter.getBitSize() % 64);
+        assertTrue(filter.getBitSize() >= 9585);
+        assertEquals(7, filter.getHashCount());
+        assertEquals(filter.getBitSize() / 8, filter.getMemoryBytes());
+        assertEquals(0.0, filter.expectedFpp());
+    }
+
+    @Test
+    void create_InvalidArguments_ThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> ConcurrentBloomFilter.create(0, 0.01));
+        assertThrows(IllegalArgumentException.class, () -> ConcurrentBloomFilter.create(100, 1.0));
+    }
+}
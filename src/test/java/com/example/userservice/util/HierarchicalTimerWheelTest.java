@@ -0,0 +1,83 @@
+package com.example.userservice.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HierarchicalTimerWheelTest {
+
+    @Test
+    void advance_ExpiresItemsAtTheirDeadlineAcrossLevels() {
+        HierarchicalTimerWheel<String> wheel = new HierarchicalTimerWheel<>(1000, 0);
+        List<String> expired = new ArrayList<>();
+
+        wheel.schedule("level0", 30_000);
+        wheel.schedule("level1", 200_000);
+        wheel.schedule("level2", 86_400_000);
+        wheel.schedule("beyond", 400L * 86_400_000);
+        assertEquals(4, wheel.size());
+
+        wheel.advance(29_999, expired::add);
+        assertTrue(expired.isEmpty());
+        wheel.advance(30_000, expired::add);
+        assertEquals(List.of("level0"), expired);
+
+        wheel.advance(199_999, expired::add);
+        assertEquals(1, expired.size());
+        wheel.advance(200_000, expired::add);
+        assertEquals(List.of("level0", "level1"), expired);
+
+        wheel.advance(86_399_999, expired::add);
+        assertEquals(2, expired.size());
+        wheel.advance(86_400_000, expired::add);
+        assertEquals(List.of("level0", "level1", "level2"), expired);
+        assertEquals(1, wheel.size());
+    }
+
+    @Test
+    void schedule_DeadlineRoundsUpToNextTick() {
+        HierarchicalTimerWheel<String> wheel = new HierarchicalTimerWheel<>(1000, 0);
+        List<String> expired = new ArrayList<>();
+
+        wheel.schedule("a", 1500);
+
+        wheel.advance(1999, expired::add);
+        assertTrue(expired.isEmpty());
+        wheel.advance(2000, expired::add);
+        assertEquals(List.of("a"), expired);
+    }
+
+    @Test
+    void schedule_PastDeadline_ReturnsFalse() {
+        HierarchicalTimerWheel<String> wheel = new HierarchicalTimerWheel<>(1000, 10_000);
+
+        assertFalse(wheel.schedule("late", 9_000));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void advance_ManyDeadlines_EachExpiresNoEarlierThanItsDeadline() {
+        long start = 1_700_000_123_000L;
+        HierarchicalTimerWheel<Long> wheel = new HierarchicalTimerWheel<>(1000, start);
+        for (long offset = 1_000; offset <= 5_000_000; offset += 7_919) {
+            wheel.schedule(start + offset, start + offset);
+        }
+        int scheduled = wheel.size();
+        List<Long> expired = new ArrayList<>();
+
+        for (long now = start; now <= start + 5_001_000; now += 50_000) {
+            long at = now;
+            wheel.advance(now, deadline -> {
+                assertTrue(deadline <= at);
+                assertTrue(deadline > at - 50_000);
+                expired.add(deadline);
+            });
+        }
+
+        assertEquals(scheduled, expired.size());
+        assertEquals(0, wheel.size());
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.userservice.util;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.MalformedJwtException;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SignatureException;
+import io.jsonwebtoken.impl.TextCodec;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+import java.util.HashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class Hs512TokenCodecTest {
+
+    private final String secret = "mySecretKeyForJWTTokenGeneration2025";
+    private final long issuedAt = 1700000000123L;
+    private final long expiresAt = issuedAt + 86400000L;
+
+    private Hs512TokenCodec codec;
+
+    @BeforeEach
+    void setUp() {
+        codec = new Hs512TokenCodec(TextCodec.BASE64.decode(secret));
+    }
+
+    @Test
+    void encode_MatchesJjwtByteForByte() {
+
+        assertEquals(jjwtToken("test@domain.cl"), codec.encode("test@domain.cl", issuedAt, expiresAt));
+    }
+
+    @Test
+    void encode_SubjectNeedingEscapes_MatchesJjwtByteForByte() {
+
+        String subject = "qu\"ote\\slash\ttab\u0001ctl \u00e9 \u65e5\u672c \ud83d\ude00";
+
+        assertEquals(jjwtToken(subject), codec.encode(subject, issuedAt, expiresAt));
+    }
+
+    @Test
+    void encode_NullSubject_MatchesJjwtByteForByte() {
+
+        assertEquals(jjwtToken(null), codec.encode(null, issuedAt, expiresAt));
+    }
+
+    @Test
+    void encode_TokenIsAcceptedByJjwt() {
+
+        long now = System.currentTimeMillis();
+        String token = codec.encode("test@domain.cl", now, now + 60000L);
+
+        Claims claims = Jwts.parser().setSigningKey(secret).parseClaimsJws(token).getBody();
+        assertEquals("test@domain.cl", claims.getSubject());
+        assertEquals((now + 60000L) / 1000 * 1000, claims.getExpiration().getTime());
+    }
+
+    @Test
+    void decode_JjwtToken_ReturnsClaims() {
+
+        String token = jjwtToken("test@domain.cl");
+
+        JwtClaims claims = codec.decode(token, issuedAt);
+
+        assertNotNull(claims);
+        assertEquals("test@domain.cl", claims.getSubject());
+        assertEquals(issuedAt / 1000 * 1000, claims.getIssuedAt().getTime());
+        assertEquals(expiresAt / 1000 * 1000, claims.getExpirationMillis());
+    }
+
+    @Test
+    void decode_NonAsciiSubject_ReturnsClaims() {
+
+        String token = codec.encode("jos\u00e9@dominio.cl", issuedAt, expiresAt);
+
+        assertEquals("jos\u00e9@dominio.cl", codec.decode(token, issuedAt).getSubject());
+    }
+
+    @Test
+    void decode_TamperedSignature_ThrowsSignatureException() {
+
+        String token = codec.encode("test@domain.cl", issuedAt, expiresAt);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BA" : "AA");
+
+        assertThrows(SignatureException.class, () -> codec.decode(tampered, issuedAt));
+    }
+
+    @Test
+    void decode_TamperedPayload_ThrowsSignatureException() {
+
+        String token = codec.encode("test@domain.cl", issuedAt, expiresAt);
+        String other = codec.encode("evil@domain.cl", issuedAt, expiresAt);
+        String[] parts = token.split("\\.");
+        String forged = parts[0] + "." + other.split("\\.")[1] + "." + parts[2];
+
+        assertThrows(SignatureException.class, () -> codec.decode(forged, issuedAt));
+    }
+
+    @Test
+    void decode_OtherKey_ThrowsSignatureException() {
+
+        Hs512TokenCodec otherCodec = new Hs512TokenCodec(TextCodec.BASE64.decode("anotherSecretKey"));
+        String token = otherCodec.encode("test@domain.cl", issuedAt, expiresAt);
+
+        assertThrows(SignatureException.class, () -> codec.decode(token, issuedAt));
+    }
+
+    @Test
+    void decode_ExpiredToken_ThrowsExpiredJwtException() {
+
+        String token = codec.encode("test@domain.cl", issuedAt, expiresAt);
+
+        assertThrows(ExpiredJwtException.class, () -> codec.decode(token, expiresAt + 1000L));
+    }
+
+    @Test
+    void decode_MissingSignatureSegment_ThrowsMalformedJwtException() {
+
+        String token = codec.encode("test@domain.cl", issuedAt, expiresAt);
+        String truncated = token.substring(0, token.lastIndexOf('.'));
+
+        assertThrows(MalformedJwtException.class, () -> codec.decode(truncated, issuedAt));
+    }
+
+    @Test
+    void decode_ForeignHeader_ReturnsNull() {
+
+        String token = Jwts.builder()
+            .setSubject("test@domain.cl")
+            .signWith(SignatureAlgorithm.HS256, secret)
+            .compact();
+
+        assertNull(codec.decode(token, issuedAt));
+    }
+
+    @Test
+    void decode_ExtraClaims_ReturnsNull() {
+
+        HashMap<String, Object> claims = new HashMap<>();
+        claims.put("roles", new String[]{"admin"});
+        String token = Jwts.builder()
+            .setClaims(claims)
+            .setSubject("test@domain.cl")
+            .signWith(SignatureAlgorithm.HS512, secret)
+            .compact();
+
+        assertNull(codec.decode(token, issuedAt));
+    }
+
+    private String jjwtToken(String subject) {
+        return Jwts.builder()
+            .setClaims(new HashMap<>())
+            .setSubject(subject)
+            .setIssuedAt(new Date(issuedAt))
+            .setExpiration(new Date(expiresAt))
+            .signWith(SignatureAlgorithm.HS512, secret)
+            .compact();
+    }
+}
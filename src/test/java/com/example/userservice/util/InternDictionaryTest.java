@@ -0,0 +1,103 @@
+package com.example.userservice.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InternDictionaryTest {
+
+    private final Map<Integer, String> stored = new HashMap<>();
+    private final AtomicInteger assigns = new AtomicInteger();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private InternDictionary dictionary() {
+        return new InternDictionary(code -> {
+            assigns.incrementAndGet();
+            synchronized (stored) {
+                // Insert-if-absent, like the country_codes table
+                for (Map.Entry<Integer, String> entry : stored.entrySet()) {
+                    if (entry.getValue().equals(code)) {
+                        return entry.getKey();
+                    }
+                }
+                stored.put(stored.size() + 1, code);
+                return stored.size();
+            }
+        }, () -> {
+            loads.incrementAndGet();
+            synchronized (stored) {
+                return new HashMap<>(stored);
+            }
+        });
+    }
+
+    @Test
+    void idOf_KnownCodes_ResolvedFromOneLoad() {
+        stored.put(1, "56");
+        stored.put(2, "25");
+        InternDictionary dictionary = dictionary();
+
+        assertEquals(1, dictionary.idOf("56"));
+        assertEquals(2, dictionary.idOf("25"));
+        assertEquals("25", dictionary.codeOf(2));
+
+        assertEquals(1, loads.get());
+        assertEquals(0, assigns.get());
+    }
+
+    @Test
+    void idOf_NewCodeFromManyThreads_AllAgreeOnOneId() throws Exception {
+        InternDictionary dictionary = dictionary();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<Integer>> ids = new ArrayList<>();
+        try {
+            for (int i = 0; i < 64; i++) {
+                String code = i % 2 == 0 ? "56" : "25";
+                ids.add(executor.submit(() -> {
+                    start.await();
+                    return dictionary.idOf(new String(code));
+                }));
+            }
+            start.countDown();
+            for (int i = 0; i < ids.size(); i++) {
+                assertEquals(ids.get(i % 2).get(), ids.get(i).get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertTrue(assigns.get() >= 2);
+        assertEquals(2, stored.size());
+        assertEquals(2, dictionary.size());
+    }
+
+    @Test
+    void codeOf_SameId_ReturnsSharedInstance() {
+        InternDictionary dictionary = dictionary();
+        int id = dictionary.idOf(new String("56"));
+
+        assertSame(dictionary.codeOf(id), dictionary.codeOf(dictionary.idOf(new String("56"))));
+    }
+
+    @Test
+    void codeOf_IdAddedElsewhere_ReloadsOnce() {
+        InternDictionary dictionary = dictionary();
+        dictionary.idOf("56");
+        stored.put(2, "25");
+
+        assertEquals("25", dictionary.codeOf(2));
+        assertTrue(dictionary.contains("25"));
+        assertThrows(IllegalArgumentException.class, () -> dictionary.codeOf(3));
+    }
+}
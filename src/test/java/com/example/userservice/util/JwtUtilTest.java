@@ -1,6 +1,7 @@
 package com.example.userservice.util;
 
-import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.SignatureException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.test.util.ReflectionTestUtils;
@@ -82,4 +83,105 @@ class JwtUtilTest {
 
         assertFalse(isValid);
     }
-}
\ No newline at end of file
+
+    @Test
+    void verifyToken_ValidToken_ReturnsClaims() {
+
+        String token = jwtUtil.generateToken(testUsername);
+        JwtClaims claims = jwtUtil.verifyToken(token);
+
+        assertEquals(testUsername, claims.getSubject());
+        assertTrue(claims.getExpiration().after(claims.getIssuedAt()));
+        assertFalse(claims.isExpired(System.currentTimeMillis()));
+    }
+
+    @Test
+    void verifyToken_TamperedToken_ThrowsException() {
+
+        String token = jwtUtil.generateToken(testUsername);
+        String tampered = token.substring(0, token.length() - 4) + "AAAA";
+
+        assertThrows(SignatureException.class, () -> jwtUtil.verifyToken(tampered));
+    }
+
+    @Test
+    void verifyToken_CacheEnabled_SkipsSecondVerification() {
+
+        enableCache(10);
+        String token = jwtUtil.generateToken(testUsername);
+
+        JwtClaims first = jwtUtil.verifyToken(token);
+        JwtClaims second = jwtUtil.verifyToken(token);
+
+        assertSame(first, second);
+        assertEquals(1, jwtUtil.getVerifiedCache().getHitCount());
+        assertEquals(1, jwtUtil.getVerifiedCache().getMissCount());
+    }
+
+    @Test
+    void verifyToken_CacheEnabled_PublishesCacheMetrics() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ReflectionTestUtils.setField(jwtUtil, "meterRegistry", meterRegistry);
+        enableCache(10);
+        String token = jwtUtil.generateToken(testUsername);
+
+        jwtUtil.verifyToken(token);
+        jwtUtil.verifyToken(token);
+
+        assertEquals(1.0, meterRegistry.get("jwt.cache.requests").tag("result", "hit").functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("jwt.cache.requests").tag("result", "miss").functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("jwt.cache.size").gauge().value());
+        assertEquals(0.0, meterRegistry.get("jwt.cache.evictions").functionCounter().count());
+    }
+
+    @Test
+    void verifyToken_CacheEnabled_DoesNotCacheInvalidToken() {
+
+        enableCache(10);
+        String token = jwtUtil.generateToken(testUsername);
+        String tampered = token.substring(0, token.length() - 4) + "AAAA";
+
+        assertThrows(SignatureException.class, () -> jwtUtil.verifyToken(tampered));
+        assertThrows(SignatureException.class, () -> jwtUtil.verifyToken(tampered));
+        assertEquals(0, jwtUtil.getVerifiedCache().size());
+    }
+
+    @Test
+    void verifyToken_CacheDisabled_HasNoCache() {
+
+        jwtUtil.initCache();
+
+        assertNull(jwtUtil.getVerifiedCache());
+        assertEquals(testUsername, jwtUtil.verifyToken(jwtUtil.generateToken(testUsername)).getSubject());
+    }
+
+    @Test
+    void revokeToken_RevokedToken_FailsVerification() {
+
+        enableCache(10);
+        ReflectionTestUtils.setField(jwtUtil, "revocationStore", new TokenRevocationStore(4, 1000, "", 60));
+        String token = jwtUtil.generateToken(testUsername);
+        jwtUtil.verifyToken(token);
+
+        jwtUtil.revokeToken(token);
+
+        assertThrows(RevokedTokenException.class, () -> jwtUtil.verifyToken(token));
+        assertFalse(jwtUtil.validateToken(token, testUsername));
+        assertEquals(0, jwtUtil.getVerifiedCache().size());
+    }
+
+    @Test
+    void revokeToken_NoStore_ThrowsException() {
+
+        String token = jwtUtil.generateToken(testUsername);
+
+        assertThrows(IllegalStateException.class, () -> jwtUtil.revokeToken(token));
+    }
+
+    private void enableCache(int maxSize) {
+        ReflectionTestUtils.setField(jwtUtil, "cacheEnabled", true);
+        ReflectionTestUtils.setField(jwtUtil, "cacheMaxSize", maxSize);
+        ReflectionTestUtils.setField(jwtUtil, "cacheTtlSeconds", 300L);
+        jwtUtil.initCache();
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.userservice.util;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ServerTimingTest {
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    private ServerTiming bindTiming() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/login");
+        ServerTiming timing = new ServerTiming(0);
+        request.setAttribute(ServerTiming.ATTRIBUTE, timing);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        return timing;
+    }
+
+    @Test
+    void toHeaderValue_FormatsMillisWithThreeDecimals() {
+        ServerTiming timing = new ServerTiming(1_000_000);
+        timing.add("validation", 412_345);
+        timing.add("password-encode", 251_034_000);
+
+        String header = timing.toHeaderValue(263_501_000);
+
+        assertEquals("validation;dur=0.412, password-encode;dur=251.034, total;dur=262.501", header);
+    }
+
+    @Test
+    void toHeaderValue_ManyStages_GrowsBuffer() {
+        ServerTiming timing = new ServerTiming(0);
+        for (int i = 0; i < 12; i++) {
+            timing.add("stage" + i, 5_000);
+        }
+
+        String header = timing.toHeaderValue(2_000_000);
+
+        assertTrue(header.startsWith("stage0;dur=0.005, "));
+        assertTrue(header.endsWith("stage11;dur=0.005, total;dur=2.000"));
+    }
+
+    @Test
+    void stageRecorder_Enabled_CopiesStagesIntoRequestTiming() {
+        ServerTiming timing = bindTiming();
+        StageRecorder stages = new StageMetrics(new SimpleMeterRegistry(), true).start("login");
+
+        stages.add(StageMetrics.JWT_VERIFY, 2_000_000);
+        stages.finish(null);
+
+        assertTrue(timing.toHeaderValue(3_000_000).startsWith("jwt-verify;dur=2.000, "));
+    }
+
+    @Test
+    void stageRecorder_Disabled_IgnoresRequestTiming() {
+        bindTiming();
+
+        StageMetrics stageMetrics = new StageMetrics(new SimpleMeterRegistry(), false);
+
+        assertNull(stageMetrics.serverTiming());
+    }
+
+    @Test
+    void current_NoRequest_ReturnsNull() {
+        assertNull(ServerTiming.current());
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.userservice.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    @Test
+    void execute_SameKeyInFlight_RunsWorkOnce() {
+        SingleFlight<String, String> flights = new SingleFlight<>(4);
+        AtomicInteger runs = new AtomicInteger();
+        CompletableFuture<String> work = new CompletableFuture<>();
+
+        CompletableFuture<String> first = flights.execute("a@domain.cl", () -> {
+            runs.incrementAndGet();
+            return work;
+        });
+        CompletableFuture<String> second = flights.execute("a@domain.cl", () -> {
+            runs.incrementAndGet();
+            return CompletableFuture.completedFuture("other");
+        });
+        assertFalse(second.isDone());
+        assertEquals(1, flights.size());
+
+        work.complete("done");
+
+        assertEquals("done", first.join());
+        assertEquals("done", second.join());
+        assertEquals(1, runs.get());
+        assertEquals(1, flights.getCoalescedCount());
+        assertEquals(0, flights.size());
+    }
+
+    @Test
+    void execute_AfterCompletion_StartsNewFlight() {
+        SingleFlight<String, Integer> flights = new SingleFlight<>(4);
+        AtomicInteger runs = new AtomicInteger();
+
+        flights.execute("a@domain.cl", () -> CompletableFuture.completedFuture(runs.incrementAndGet())).join();
+        int second = flights.execute("a@domain.cl",
+            () -> CompletableFuture.completedFuture(runs.incrementAndGet())).join();
+
+        assertEquals(2, second);
+        assertEquals(0, flights.getCoalescedCount());
+        assertEquals(0, flights.size());
+    }
+
+    @Test
+    void execute_DifferentKeys_RunIndependently() {
+        SingleFlight<String, String> flights = new SingleFlight<>(1);
+        CompletableFuture<String> slow = new CompletableFuture<>();
+
+        flights.execute("a@domain.cl", () -> slow);
+        String other = flights.execute("b@domain.cl", () -> CompletableFuture.completedFuture("b")).join();
+
+        assertEquals("b", other);
+        assertEquals(0, flights.getCoalescedCount());
+        assertEquals(1, flights.size());
+    }
+
+    @Test
+    void execute_WorkFails_WaitersGetSameFailure() {
+        SingleFlight<String, String> flights = new SingleFlight<>(4);
+        CompletableFuture<String> work = new CompletableFuture<>();
+        CompletableFuture<String> first = flights.execute("a@domain.cl", () -> work);
+        CompletableFuture<String> second = flights.execute("a@domain.cl", () -> work);
+
+        work.completeExceptionally(new IllegalStateException("boom"));
+
+        CompletionException failure = assertThrows(CompletionException.class, second::join);
+        assertTrue(failure.getCause() instanceof IllegalStateException);
+        assertTrue(first.isCompletedExceptionally());
+        assertEquals(0, flights.size());
+    }
+
+    @Test
+    void execute_WorkThrows_RethrowsToCallerAndFreesKey() {
+        SingleFlight<String, String> flights = new SingleFlight<>(4);
+
+        assertThrows(IllegalStateException.class, () -> flights.execute("a@domain.cl", () -> {
+            throw new IllegalStateException("queue full");
+        }));
+
+        assertEquals(0, flights.size());
+        assertEquals("ok", flights.execute("a@domain.cl", () -> CompletableFuture.completedFuture("ok")).join());
+    }
+
+    @Test
+    void execute_WaiterCancels_OthersStillComplete() {
+        SingleFlight<String, String> flights = new SingleFlight<>(4);
+        CompletableFuture<String> work = new CompletableFuture<>();
+        CompletableFuture<String> first = flights.execute("a@domain.cl", () -> work);
+        CompletableFuture<String> second = flights.execute("a@domain.cl", () -> work);
+
+        second.cancel(false);
+        work.complete("done");
+
+        assertEquals("done", first.join());
+    }
+}
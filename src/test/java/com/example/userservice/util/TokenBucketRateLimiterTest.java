@@ -0,0 +1,109 @@
+package com.example.userservice.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketRateLimiterTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    void tryAcquire_AllowsBurstThenRefillsAtRate() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(2, 3, 100, 4);
+        long now = 10 * SECOND;
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire("10.0.0.1", now));
+        }
+        long wait = limiter.tryAcquire("10.0.0.1", now);
+        assertEquals(SECOND / 2, wait);
+
+        assertEquals(0, limiter.tryAcquire("10.0.0.2", now));
+        assertTrue(limiter.tryAcquire("10.0.0.1", now + wait - 1) > 0);
+        assertEquals(0, limiter.tryAcquire("10.0.0.1", now + wait));
+    }
+
+    @Test
+    void tryAcquire_KeyLimitReached_DropsIdleBucketsFirst() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1, 1, 4, 1);
+        long now = 10 * SECOND;
+        for (int i = 0; i < 4; i++) {
+            limiter.tryAcquire("idle-" + i, now);
+        }
+
+        assertEquals(0, limiter.tryAcquire("new", now + 2 * SECOND));
+
+        assertEquals(1, limiter.size());
+        assertEquals(0, limiter.getEvictionCount());
+    }
+
+    @Test
+    void tryAcquire_KeyLimitReachedWithBusyBuckets_StaysBounded() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1, 1, 4, 1);
+        long now = 10 * SECOND;
+
+        for (int i = 0; i < 100; i++) {
+            limiter.tryAcquire("busy-" + i, now);
+        }
+
+        assertTrue(limiter.size() <= 4);
+        assertTrue(limiter.getEvictionCount() > 0);
+    }
+
+    @Test
+    void tryAcquire_KeyLimitReachedWithBusyBuckets_TrimsToLowWaterMark() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1, 1, 100, 1);
+        long now = 10 * SECOND;
+        for (int i = 0; i < 100; i++) {
+            limiter.tryAcquire("busy-" + i, now);
+        }
+
+        limiter.tryAcquire("busy-100", now);
+
+        assertEquals(91, limiter.size());
+        assertEquals(10, limiter.getEvictionCount());
+
+        // The next keys fit in the freed room without another scan
+        for (int i = 101; i < 110; i++) {
+            limiter.tryAcquire("busy-" + i, now);
+        }
+        assertEquals(100, limiter.size());
+        assertEquals(10, limiter.getEvictionCount());
+    }
+
+    @Test
+    void tryAcquire_ConcurrentCallers_NeverExceedBurst() throws Exception {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1, 50, 100, 4);
+        long now = 10 * SECOND;
+        AtomicInteger allowed = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 400; i++) {
+            pool.submit(() -> {
+                start.await();
+                if (limiter.tryAcquire("shared", now) == 0) {
+                    allowed.incrementAndGet();
+                }
+                return null;
+            });
+        }
+
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(50, allowed.get());
+    }
+
+    @Test
+    void constructor_InvalidRate_ThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucketRateLimiter(0, 1, 10, 1));
+    }
+}
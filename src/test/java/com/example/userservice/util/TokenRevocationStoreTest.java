@@ -0,0 +1,60 @@
+package com.example.userservice.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenRevocationStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final TokenRevocationStore store = new TokenRevocationStore(4, 1000, "", 60);
+
+    @Test
+    void revoke_TokenIsRevokedUntilItExpires() {
+        TokenFingerprint fingerprint = TokenFingerprint.of("token");
+        long expiresAt = System.currentTimeMillis() + 5_000;
+
+        assertTrue(store.isEmpty());
+        store.revoke(fingerprint, expiresAt);
+
+        assertTrue(store.isRevoked(fingerprint));
+        assertFalse(store.isRevoked(TokenFingerprint.of("other")));
+        store.expire(expiresAt - 1_000);
+        assertTrue(store.isRevoked(fingerprint));
+        store.expire(expiresAt + 1_000);
+        assertFalse(store.isRevoked(fingerprint));
+        assertTrue(store.isEmpty());
+    }
+
+    @Test
+    void revoke_AlreadyExpired_IsNotStored() {
+        store.revoke(TokenFingerprint.of("token"), System.currentTimeMillis() - 1_000);
+
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    void snapshot_RoundTripsLiveEntries() throws Exception {
+        long now = System.currentTimeMillis();
+        store.revoke(TokenFingerprint.of("a"), now + 60_000);
+        store.revoke(TokenFingerprint.of("b"), now + 120_000);
+        Path file = tempDir.resolve("revoked.bin");
+
+        store.writeSnapshot(file);
+        TokenRevocationStore restored = new TokenRevocationStore(4, 1000, file.toString(), 60);
+        restored.start();
+
+        try {
+            assertEquals(2, restored.size());
+            assertTrue(restored.isRevoked(TokenFingerprint.of("a")));
+            assertTrue(restored.isRevoked(TokenFingerprint.of("b")));
+        } finally {
+            restored.shutdown();
+        }
+    }
+}
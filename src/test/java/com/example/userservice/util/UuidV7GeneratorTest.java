@@ -0,0 +1,103 @@
+package com.example.userservice.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UuidV7GeneratorTest {
+
+    private static final long NOW = 1_760_000_000_000L;
+
+    @Test
+    void next_SetsVersionVariantAndTimestamp() {
+        UUID id = new UuidV7Generator(() -> NOW).next();
+
+        assertEquals(7, id.version());
+        assertEquals(2, id.variant());
+        assertEquals(NOW, UuidV7Generator.timestampMillis(id));
+    }
+
+    @Test
+    void next_SameMillisecond_IsStrictlyIncreasing() {
+        UuidV7Generator generator = new UuidV7Generator(() -> NOW);
+        UUID previous = generator.next();
+        for (int i = 0; i < 1000; i++) {
+            UUID id = generator.next();
+            assertTrue(id.compareTo(previous) > 0);
+            previous = id;
+        }
+    }
+
+    @Test
+    void next_CounterExhausted_BorrowsNextMillisecond() {
+        UuidV7Generator generator = new UuidV7Generator(() -> NOW);
+        UUID last = null;
+        for (int i = 0; i < 5000; i++) {
+            last = generator.next();
+        }
+
+        assertEquals(NOW + 1, UuidV7Generator.timestampMillis(last));
+    }
+
+    @Test
+    void next_ClockStepsBack_StaysIncreasing() {
+        AtomicLong clock = new AtomicLong(NOW);
+        UuidV7Generator generator = new UuidV7Generator(clock::get);
+        UUID before = generator.next();
+
+        clock.set(NOW - 5000);
+        UUID after = generator.next();
+
+        assertTrue(after.compareTo(before) > 0);
+        assertEquals(NOW, UuidV7Generator.timestampMillis(after));
+    }
+
+    @Test
+    void next_ConcurrentCallers_AreUniqueAndIncreasingPerThread() throws Exception {
+        UuidV7Generator generator = new UuidV7Generator(System::currentTimeMillis);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<List<UUID>>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                futures.add(executor.submit(() -> {
+                    List<UUID> ids = new ArrayList<>();
+                    for (int i = 0; i < 20_000; i++) {
+                        ids.add(generator.next());
+                    }
+                    return ids;
+                }));
+            }
+
+            Set<UUID> all = new HashSet<>();
+            for (Future<List<UUID>> future : futures) {
+                List<UUID> ids = future.get();
+                for (int i = 1; i < ids.size(); i++) {
+                    assertTrue(ids.get(i).compareTo(ids.get(i - 1)) > 0);
+                }
+                all.addAll(ids);
+            }
+            assertEquals(80_000, all.size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void userIdStrategy_FromProperty_AcceptsPropertySpelling() {
+        assertEquals(UserIdStrategy.TIME_ORDERED, UserIdStrategy.fromProperty("time-ordered"));
+        assertEquals(UserIdStrategy.RANDOM, UserIdStrategy.fromProperty(" random "));
+        assertEquals(4, UserIdStrategy.RANDOM.get().version());
+        assertEquals(7, UserIdStrategy.TIME_ORDERED.get().version());
+        assertThrows(IllegalArgumentException.class, () -> UserIdStrategy.fromProperty("sequential"));
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.userservice.validation;
+
+import com.example.userservice.dto.UserSignUpRequest;
+import com.example.userservice.util.StageMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.Errors;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimedValidatorTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private TimedValidator validator;
+
+    @BeforeEach
+    void setUp() {
+        LocalValidatorFactoryBean delegate = new LocalValidatorFactoryBean();
+        delegate.afterPropertiesSet();
+        meterRegistry = new SimpleMeterRegistry();
+        validator = new TimedValidator(delegate, new StageMetrics(meterRegistry));
+        RequestContextHolder.setRequestAttributes(
+            new ServletRequestAttributes(new MockHttpServletRequest("POST", "/api/sign-up")));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    private long validationCount(String outcome) {
+        return meterRegistry.get("users.stage")
+            .tag("endpoint", "sign-up").tag("stage", StageMetrics.VALIDATION).tag("outcome", outcome)
+            .timer().count();
+    }
+
+    @Test
+    void validate_ValidRequest_RecordsSuccess() {
+        UserSignUpRequest request = new UserSignUpRequest("test@domain.cl", "aB2defgh9", "Test", Collections.emptyList());
+        Errors errors = new BeanPropertyBindingResult(request, "request");
+
+        validator.validate(request, errors);
+
+        assertFalse(errors.hasErrors());
+        assertEquals(1, validationCount(StageMetrics.SUCCESS));
+    }
+
+    @Test
+    void validate_InvalidRequest_RecordsInvalid() {
+        UserSignUpRequest request = new UserSignUpRequest("not-an-email", "weak", "Test", Collections.emptyList());
+        Errors errors = new BeanPropertyBindingResult(request, "request");
+
+        validator.validate(request, errors);
+
+        assertTrue(errors.hasErrors());
+        assertTrue(validator.supports(UserSignUpRequest.class));
+        assertEquals(1, validationCount(StageMetrics.INVALID));
+    }
+}